@@ -2,8 +2,10 @@ package com.todoAPI.todo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 
-@SpringBootApplication
+// The DataSource is only created by PersistenceConfig, when the tasks are stored in SQL.
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
 public class TodoApplication {
 
 	public static void main(String[] args) {
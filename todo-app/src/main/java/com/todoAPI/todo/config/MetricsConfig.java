@@ -0,0 +1,35 @@
+package com.todoAPI.todo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.todoAPI.todo.repositories.TaskRepository;
+
+/**
+ * This class registers the gauges of the task store: the number of tasks and
+ * the number of entries of every secondary index. The handler latencies come
+ * from the http.server.requests timers of Spring Boot, the query stages from
+ * TaskService and the rejected requests from BadRequestMetricsAdvice.
+ * @version: 1.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder taskStoreMetrics(TaskRepository taskRepository) {
+        return registry -> {
+            Gauge.builder("tasks.count", taskRepository, TaskRepository::count)
+                .description("The number of stored tasks.")
+                .register(registry);
+            for (String index : taskRepository.getIndexSizes().keySet()) {
+                Gauge.builder("tasks.index.size", taskRepository, repository -> repository.getIndexSizes().getOrDefault(index, 0))
+                    .description("The number of entries of a secondary index.")
+                    .tag("index", index)
+                    .register(registry);
+            }
+        };
+    }
+}
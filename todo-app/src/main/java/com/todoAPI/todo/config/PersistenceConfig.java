@@ -0,0 +1,60 @@
+package com.todoAPI.todo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadFactory;
+
+import com.todoAPI.todo.repositories.TaskLog;
+import com.todoAPI.todo.repositories.WriteAheadTaskLog;
+
+/**
+ * This class configures the persistence of the tasks. By default the tasks
+ * only live in memory; setting todo.persistence.directory enables the
+ * write-ahead log and the snapshots in that directory.
+ * With todo.storage.mode=sql the tasks are stored in an embedded database
+ * instead, through a pool of todo.storage.pool-size connections to
+ * todo.storage.url, an H2 file in the data directory by default.
+ * @version: 1.0
+ */
+@Configuration
+public class PersistenceConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "todo.persistence.directory")
+    public TaskLog writeAheadTaskLog(
+            @Value("${todo.persistence.directory}") String directory,
+            @Value("${todo.persistence.fsync-interval-ms:0}") long fsyncIntervalMillis,
+            @Value("${todo.persistence.wait-for-fsync:true}") boolean waitForFsync,
+            @Value("${todo.persistence.snapshot-every-records:100000}") long snapshotEveryRecords,
+            ThreadFactory backgroundThreadFactory) {
+        return new WriteAheadTaskLog(Paths.get(directory), fsyncIntervalMillis, waitForFsync, snapshotEveryRecords, backgroundThreadFactory);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(TaskLog.class)
+    public TaskLog taskLog() {
+        return TaskLog.NONE;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "todo.storage.mode", havingValue = "sql")
+    public DataSource taskDataSource(
+            @Value("${todo.storage.url:jdbc:h2:file:./data/tasks}") String url,
+            @Value("${todo.storage.pool-size:10}") int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("tasks");
+        config.setJdbcUrl(url);
+        config.setMaximumPoolSize(poolSize);
+        return new HikariDataSource(config);
+    }
+}
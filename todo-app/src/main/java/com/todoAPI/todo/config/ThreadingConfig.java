@@ -0,0 +1,71 @@
+package com.todoAPI.todo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class configures the threads of the application. By default Tomcat
+ * serves requests from its pool of platform threads. With
+ * todo.threads.virtual=true, on Java 21 or newer, every request, every
+ * streamed export and every background job such as the log snapshots runs
+ * on its own virtual thread instead, so requests blocked on I/O no longer
+ * hold a pooled thread.
+ * @version: 1.0
+ */
+@Configuration
+public class ThreadingConfig {
+
+    /**
+     * This method returns the factory of the threads of background jobs.
+     * @param: virtual - Whether the virtual thread mode is enabled.
+     * @version: 1.0
+     * @return: factory - The thread factory.
+     */
+    @Bean
+    public ThreadFactory backgroundThreadFactory(@Value("${todo.threads.virtual:false}") boolean virtual) {
+        if (virtual) return VirtualThreads.factory("task-background-");
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "task-background-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * This class holds the beans of the virtual thread mode.
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "todo.threads.virtual", havingValue = "true")
+    static class VirtualThreadConfig {
+
+        @Bean(destroyMethod = "shutdown")
+        public ExecutorService virtualThreadExecutor() {
+            if (!VirtualThreads.isSupported()) {
+                throw new IllegalStateException("todo.threads.virtual needs Java 21 or newer, the JVM is " + System.getProperty("java.version") + ".");
+            }
+            return VirtualThreads.newVirtualThreadPerTaskExecutor();
+        }
+
+        @Bean
+        public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(ExecutorService virtualThreadExecutor) {
+            return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+        }
+
+        // Replaces the pool of Spring MVC for asynchronous requests such as the exports.
+        @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+        public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+            return new TaskExecutorAdapter(virtualThreadExecutor);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.todoAPI.todo.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class creates virtual threads through reflection, so the application
+ * still builds for Java 11 and only needs Java 21 or newer when the virtual
+ * thread mode is enabled.
+ * @version: 1.0
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * This method checks whether the running JVM has virtual threads.
+     * @version: 1.0
+     * @return: supported - Whether virtual threads can be created.
+     */
+    static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * This method returns a factory of virtual threads named prefix0, prefix1...
+     * @param: prefix - The prefix of the thread names.
+     * @version: 1.0
+     * @return: factory - The thread factory.
+     */
+    static ThreadFactory factory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw unsupported(e);
+        }
+    }
+
+    /**
+     * This method returns an executor that runs every task on a new virtual thread.
+     * @version: 1.0
+     * @return: executor - The executor.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw unsupported(e);
+        }
+    }
+
+    private static IllegalStateException unsupported(Exception cause) {
+        return new IllegalStateException("Virtual threads need Java 21 or newer, the JVM is " + System.getProperty("java.version") + ".", cause);
+    }
+}
@@ -0,0 +1,97 @@
+package com.todoAPI.todo.controllers;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+import com.todoAPI.todo.models.TaskImportResult;
+import com.todoAPI.todo.services.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * This class counts the requests that the task controllers reject with a
+ * 400 Bad Request, tagged by reason. The reason is a code from a closed set,
+ * looked up from the message returned to the client; a message that is not
+ * in the set, or a structured body other than the import summary, is counted
+ * as "other", so the body never becomes a tag. It also answers requests
+ * with an invalid owner id.
+ * @version: 1.0
+ */
+@ControllerAdvice(basePackageClasses = BadRequestMetricsAdvice.class)
+public class BadRequestMetricsAdvice implements ResponseBodyAdvice<Object> {
+    static final String OTHER = "other";
+    private static final Map<String, String> REASONS = Map.ofEntries(
+        Map.entry("The page must be greater than 0.", "page"),
+        Map.entry("The page size must be between 1 and " + TaskService.MAX_PAGE_SIZE + ".", "page_size"),
+        Map.entry("The cursor is invalid.", "cursor"),
+        Map.entry("The priority filter is invalid.", "priority_filter"),
+        Map.entry("The batch must have at most " + TaskBatchController.MAX_BATCH_SIZE + " items.", "batch_size"),
+        Map.entry("The task is required.", "task_required"),
+        Map.entry("The name of the task is required.", "name_required"),
+        Map.entry("The name of the task must be less than 121 characters.", "name_length"),
+        Map.entry("The name of the task must be a string.", "name_type"),
+        Map.entry("The priority of the task is invalid.", "priority"),
+        Map.entry("The due date must be greater than today.", "due_date_past"),
+        Map.entry("The done date must not be before the created date.", "done_date"),
+        Map.entry("The due date must be a date or null.", "due_date_type"),
+        Map.entry("The due date is not a valid date.", "due_date_format"),
+        Map.entry("The status of the task must be true or false.", "status_type"),
+        Map.entry("The patch must be a JSON object.", "patch_type"),
+        Map.entry("The patch has a field that cannot be patched.", "patch_field"),
+        Map.entry(TaskOwners.INVALID, "owner")
+    );
+
+    private final MeterRegistry meterRegistry;
+
+    public BadRequestMetricsAdvice(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (body != null && response instanceof ServletServerHttpResponse
+                && ((ServletServerHttpResponse) response).getServletResponse().getStatus() == HttpStatus.BAD_REQUEST.value()) {
+            meterRegistry.counter("tasks.bad.requests", "reason", reasonOf(body)).increment();
+        }
+        return body;
+    }
+
+    /**
+     * This method answers a request with an invalid owner id.
+     * @param: e - The exception.
+     * @version: 1.0
+     * @return: response - The 400 Bad Request.
+     */
+    @ExceptionHandler(TaskOwners.InvalidOwnerException.class)
+    public ResponseEntity<Object> invalidOwner(TaskOwners.InvalidOwnerException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    /**
+     * This method returns the reason code of a rejected request.
+     * @param: body - The body returned to the client.
+     * @version: 1.0
+     * @return: reason - The code of the message, "import" for an import summary, or "other".
+     */
+    static String reasonOf(Object body) {
+        if (body instanceof TaskImportResult) return "import";
+        if (!(body instanceof String)) return OTHER;
+        return REASONS.getOrDefault(body, OTHER);
+    }
+}
@@ -0,0 +1,144 @@
+package com.todoAPI.todo.controllers;
+
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskBatchResult;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskService;
+import com.todoAPI.todo.services.TaskValidator;
+
+/**
+ * This class exposes batch versions of the create, update and delete
+ * endpoints. Every item is validated with the same rules as the single
+ * endpoints, the valid items are written to the repository in one batch, and
+ * the response holds one result per item, in the order of the request.
+ * A batch only works on the partition of the owner of the request.
+ * @version: 1.0
+ */
+@RestController
+@CrossOrigin(origins = "http://localhost:8080")
+@RequestMapping("/api/v1/todo")
+public class TaskBatchController {
+    public static final int MAX_BATCH_SIZE = 10000;
+
+    private final TaskRepository taskRepository;
+    private final TaskValidator taskValidator;
+    private final TaskService taskService;
+
+    public TaskBatchController(TaskRepository taskRepository, TaskValidator taskValidator, TaskService taskService) {
+        this.taskRepository = taskRepository;
+        this.taskValidator = taskValidator;
+        this.taskService = taskService;
+    }
+
+    /**
+     * This method registers several new tasks.
+     * @param: tasks - The tasks to create.
+     * @version: 1.0
+     * @return: results - The result of each task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PostMapping("/task/batch")
+    public ResponseEntity<Object> createTasks(@RequestBody List<Task> tasks,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        if (tasks.size() > MAX_BATCH_SIZE) return ResponseEntity.badRequest().body("The batch must have at most " + MAX_BATCH_SIZE + " items.");
+
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        TaskBatchResult[] results = new TaskBatchResult[tasks.size()];
+        ArrayList<Task> validTasks = new ArrayList<>(tasks.size());
+        ArrayList<Integer> validIndexes = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            String error = taskValidator.validate(tasks.get(i));
+            if (error != null) results[i] = new TaskBatchResult(i, HttpStatus.BAD_REQUEST.value(), null, error);
+            else {
+                validTasks.add(tasks.get(i));
+                validIndexes.add(i);
+            }
+        }
+
+        List<Task> savedTasks = taskService.createTasks(owner, validTasks);
+        for (int i = 0; i < savedTasks.size(); i++) {
+            results[validIndexes.get(i)] = new TaskBatchResult(validIndexes.get(i), HttpStatus.OK.value(), savedTasks.get(i), null);
+        }
+        return ResponseEntity.ok(List.of(results));
+    }
+
+    /**
+     * This method updates several tasks. Each item must carry the id of the
+     * task to update.
+     * @param: tasks - The new values of the tasks.
+     * @version: 1.0
+     * @return: results - The result of each task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PutMapping("/task/batch")
+    public ResponseEntity<Object> updateTasks(@RequestBody List<Task> tasks,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        if (tasks.size() > MAX_BATCH_SIZE) return ResponseEntity.badRequest().body("The batch must have at most " + MAX_BATCH_SIZE + " items.");
+
+        TaskBatchResult[] results = new TaskBatchResult[tasks.size()];
+        LinkedHashMap<Integer, Task> values = new LinkedHashMap<>();
+        LinkedHashMap<Integer, Integer> indexesById = new LinkedHashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String error = (task != null && indexesById.containsKey(task.getId())) ? "The task is repeated in the batch." : taskValidator.validate(task);
+            if (error != null) {
+                results[i] = new TaskBatchResult(i, HttpStatus.BAD_REQUEST.value(), null, error);
+                continue;
+            }
+            indexesById.put(task.getId(), i);
+            values.put(task.getId(), task);
+        }
+
+        Map<Integer, Task> updatedTasks = taskService.updateTasks(TaskOwners.of(taskRepository, ownerId), values);
+        indexesById.forEach((id, i) -> results[i] = updatedTasks.containsKey(id) ?
+                new TaskBatchResult(i, HttpStatus.OK.value(), updatedTasks.get(id), null) :
+                new TaskBatchResult(i, HttpStatus.NOT_FOUND.value(), null, "The task does not exist."));
+        return ResponseEntity.ok(List.of(results));
+    }
+
+    /**
+     * This method deletes several tasks.
+     * @param: ids - The ids of the tasks to delete.
+     * @version: 1.0
+     * @return: results - The result of each id.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @DeleteMapping("/task/batch")
+    public ResponseEntity<Object> deleteTasks(@RequestBody List<Integer> ids,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        if (ids.size() > MAX_BATCH_SIZE) return ResponseEntity.badRequest().body("The batch must have at most " + MAX_BATCH_SIZE + " items.");
+
+        Set<Integer> uniqueIds = new HashSet<>(ids);
+        uniqueIds.remove(null);
+        HashMap<Integer, Task> deletedTasks = new HashMap<>(taskService.deleteTasks(TaskOwners.of(taskRepository, ownerId), uniqueIds));
+
+        ArrayList<TaskBatchResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            // A repeated id is reported as deleted only the first time.
+            Task task = deletedTasks.remove(ids.get(i));
+            results.add(task != null ?
+                    new TaskBatchResult(i, HttpStatus.OK.value(), task, null) :
+                    new TaskBatchResult(i, HttpStatus.NOT_FOUND.value(), null, "The task does not exist."));
+        }
+        return ResponseEntity.ok(results);
+    }
+}
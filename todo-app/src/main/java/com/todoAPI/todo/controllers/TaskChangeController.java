@@ -0,0 +1,198 @@
+package com.todoAPI.todo.controllers;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+
+import com.todoAPI.todo.models.TaskChange;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskChangeFeed;
+
+/**
+ * This class streams the changes of the tasks as server-sent events. Every
+ * event carries the number of the change as its id and the kind of change
+ * as its name, so an EventSource resumes where it stopped by sending the
+ * Last-Event-ID header when it reconnects.
+ *
+ * Writers only flag the subscribers as pending. The subscribers are drained
+ * by a fixed pool of sender threads (todo.changes.sender-threads), at most
+ * one drain per subscriber at a time and a bounded number of events per
+ * drain, so a slow client delays neither the writers nor, for long, the
+ * other clients. The number of open streams is capped as well
+ * (todo.changes.max-subscribers); past it new clients get 503 Service
+ * Unavailable, and a client whose drain cannot be queued is closed, so it
+ * reconnects with Last-Event-ID. A client that falls so far behind that its
+ * changes are no longer kept gets a reset event and has to read the listing
+ * again. A client only receives the changes of the partition of its owner.
+ * @version: 1.0
+ */
+@RestController
+@CrossOrigin(origins = "http://localhost:8080")
+@RequestMapping("/api/v1/todo")
+public class TaskChangeController {
+    private static final int MAX_EVENTS_PER_DRAIN = 256;
+
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskRepository taskRepository;
+    private final ExecutorService senders;
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    /**
+     * This constructor creates the controller with its pool of senders.
+     * @param: taskChangeFeed - The feed of the changes.
+     * @param: taskRepository - The repository of the tasks.
+     * @param: backgroundThreadFactory - The factory of the sender threads.
+     * @param: timeoutMillis - The time after which a stream is closed.
+     * @param: maxSubscribers - The maximum number of open streams.
+     * @param: senderThreads - The number of sender threads.
+     * @version: 1.0
+     */
+    public TaskChangeController(TaskChangeFeed taskChangeFeed, TaskRepository taskRepository, ThreadFactory backgroundThreadFactory,
+            @Value("${todo.changes.timeout-ms:300000}") long timeoutMillis,
+            @Value("${todo.changes.max-subscribers:1000}") int maxSubscribers,
+            @Value("${todo.changes.sender-threads:8}") int senderThreads) {
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskRepository = taskRepository;
+        // Every subscriber has at most one drain queued, so the queue never needs more room than that.
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(maxSubscribers), backgroundThreadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * This method streams the changes published after the given one.
+     * @param: since - The number of the last change the client has seen (optional).
+     * @param: lastEventId - The id of the last event, sent by a reconnecting EventSource (optional).
+     * @param: ownerId - The owner whose changes are streamed (optional).
+     * @version: 1.0
+     * @return: events - The stream of changes. Without since or Last-Event-ID
+     *          it starts with the next change. 503 if too many streams are open.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping(value = "/task/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getChanges(
+            @RequestParam(name="since", required = false) Long since,
+            @RequestHeader(name="Last-Event-ID", required = false) Long lastEventId,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId
+        ) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        long start = since != null ? since : lastEventId != null ? lastEventId : taskChangeFeed.head();
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, start, owner);
+        subscriber.unsubscribe = taskChangeFeed.subscribe(subscriber::schedule);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // Send what the client missed right away.
+        subscriber.schedule();
+        return ResponseEntity.ok(emitter);
+    }
+
+    @PreDestroy
+    public void close() {
+        senders.shutdownNow();
+    }
+
+    /**
+     * This class holds the position of one client in the feed.
+     */
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final String owner;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Runnable unsubscribe;
+        private long sequence;
+
+        Subscriber(SseEmitter emitter, long sequence, String owner) {
+            this.emitter = emitter;
+            this.sequence = sequence;
+            this.owner = owner;
+        }
+
+        // Runs on the writers' threads: at most one drain is queued per subscriber.
+        void schedule() {
+            if (closed.get() || !scheduled.compareAndSet(false, true)) return;
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // The senders are saturated: the client reconnects and resumes from its last event.
+                scheduled.set(false);
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            try {
+                List<TaskChange> changes = taskChangeFeed.since(sequence);
+                if (changes == null) {
+                    emitter.send(SseEmitter.event().name("reset").id(Long.toString(taskChangeFeed.head())).data(taskChangeFeed.head()));
+                    emitter.complete();
+                    close();
+                    return;
+                }
+                int sent = 0;
+                for (TaskChange change : changes) {
+                    // Gives the thread to the other subscribers; the rest is sent by the next drain.
+                    if (sent == MAX_EVENTS_PER_DRAIN) break;
+                    if (!Objects.equals(owner, change.getOwner())) {
+                        sequence = change.getSequence();
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.getSequence()))
+                        .name(change.getType().name().toLowerCase(Locale.ROOT))
+                        .data(change, MediaType.APPLICATION_JSON));
+                    sequence = change.getSequence();
+                    sent++;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away.
+                close();
+            } finally {
+                scheduled.set(false);
+            }
+            // A change published while sending may have found the flag still set.
+            if (taskChangeFeed.head() > sequence) schedule();
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) return;
+            subscribers.decrementAndGet();
+            Runnable action = unsubscribe;
+            if (action != null) action.run();
+        }
+    }
+}
@@ -5,38 +5,46 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
 import java.util.HashMap;
-import java.util.Map;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
-import java.time.temporal.ChronoUnit;
-import java.time.LocalDateTime;
-import java.util.stream.Stream;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 
 import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskCursor;
+import com.todoAPI.todo.models.TaskPatch;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskService;
+import com.todoAPI.todo.services.TaskValidator;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:8080")
 @RequestMapping("/api/v1/todo")
 public class TaskController {
-    private HashMap<Integer, Task> tasks = new HashMap<>();
-    private HashMap<Integer, String> priorities = new HashMap<>();
+    private final TaskRepository taskRepository;
+    private final TaskService taskService;
+    private final TaskValidator taskValidator;
 
-    public TaskController() {
-        priorities.put(1, "Low");
-        priorities.put(2, "Medium");
-        priorities.put(3, "High");
+    public TaskController(TaskRepository taskRepository, TaskService taskService, TaskValidator taskValidator) {
+        this.taskRepository = taskRepository;
+        this.taskService = taskService;
+        this.taskValidator = taskValidator;
     }
 
     @CrossOrigin(origins = "http://localhost:8080")
@@ -46,7 +54,13 @@ public class TaskController {
     }
 
     /**
-     * This method returns all the tasks.
+     * This method returns a page of the tasks.
+     * Pages can be requested by number or by following the nextCursor token
+     * returned with every page that is not the last one.
+     * The response is tagged with the version of the store, and a request
+     * whose If-None-Match lists the current tag gets 304 Not Modified
+     * without running the query. The tag depends on the owner, so the
+     * response varies by X-Owner-Id.
      * @version: 1.0
      * @return: tasks - The tasks.
      */
@@ -58,50 +72,29 @@ public class TaskController {
             @RequestParam(name="isDone", required = false) Boolean isDone,
             @RequestParam(name="sortByDueDate", required = false) String sortByDueDate,
             @RequestParam(name="sortByPriority", required = false) String sortByPriority,
-            @RequestParam(name="page", required = false, defaultValue = "1") Integer page
-        ) {                                
-        ArrayList<Task> taskList = new ArrayList<>(tasks.values());
-
-        // Filter the tasks by name, priority and isDone.
-        if (!name.equals("")) taskList.removeIf(task -> !task.getName().toLowerCase().contains(name.toLowerCase()));   
-        if (priority != 0) taskList.removeIf(task -> task.getPriority() != priority);
-        if (isDone != null) taskList.removeIf(task -> task.getIsDone() != isDone);
-
-        if (sortByDueDate != null && taskList.size() > 1) {
-            ArrayList<Task> dueDatedTasks = new ArrayList<>();
-            ArrayList<Task> noDueDatedTasks = new ArrayList<>();
-            
-            taskList.forEach(task -> {
-                if (task.getDueDate() != null) dueDatedTasks.add(task);
-                else noDueDatedTasks.add(task);
-            });
+            @RequestParam(name="page", required = false, defaultValue = "1") Integer page,
+            @RequestParam(name="size", required = false, defaultValue = "10") Integer size,
+            @RequestParam(name="cursor", required = false) String cursor,
+            @RequestHeader(name=HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId
+        ) {
+        // Pagination validation.
+        if (page < 1) return ResponseEntity.badRequest().body("The page must be greater than 0.");
+        if (size < 1 || size > TaskService.MAX_PAGE_SIZE) return ResponseEntity.badRequest().body("The page size must be between 1 and " + TaskService.MAX_PAGE_SIZE + ".");
+        Task after = (cursor != null) ? TaskCursor.decode(cursor) : null;
+        if (cursor != null && after == null) return ResponseEntity.badRequest().body("The cursor is invalid.");
 
-            if (sortByDueDate.equals("desc") && dueDatedTasks.size() > 1) {
-                dueDatedTasks.sort((task1, task2) -> task2.getDueDate().compareTo(task1.getDueDate()));
-            }
-            else if (sortByDueDate.equals("asc") && dueDatedTasks.size() > 1) {
-                dueDatedTasks.sort((task1, task2) -> task1.getDueDate().compareTo(task2.getDueDate()));
-            }
-
-            taskList = Stream.concat(dueDatedTasks.stream(), noDueDatedTasks.stream()).collect(Collectors.toCollection(ArrayList::new));
-        }
+        // Filter validation.
+        String error = taskValidator.validatePriorityFilter(priority);
+        if (error != null) return ResponseEntity.badRequest().body(error);
 
-        if (sortByPriority != null && taskList.size() > 1) taskList.sort((task1, task2) -> (sortByPriority.equals("desc") ? 
-                                                                                            task2.getPriority() - task1.getPriority() : 
-                                                                                            task1.getPriority() - task2.getPriority()));
+        // Read the version of the partition before the tasks, so the tag is never newer than the page.
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        String etag = TaskETags.ofStore(taskRepository.partition(owner).getVersion());
+        if (TaskETags.matches(ifNoneMatch, etag)) return notModified(etag);
 
-        // Paginate the tasks.
-        int pageSize = 10;
-        int fromIndex = (page - 1) * pageSize;
-        int toIndex = Math.min(fromIndex + pageSize, taskList.size());
-        ArrayList<Task> paginatedTasks = new ArrayList<>(taskList.subList(fromIndex, toIndex));
-        
-        // Return the total tasks and the paginated tasks.
-        HashMap<String, Object> response = new HashMap<>();
-        response.put("totalTasks", taskList.size());
-        response.put("tasks", paginatedTasks);
-        
-        return ResponseEntity.ok(response);
+        TaskQuery query = new TaskQuery(name, priority, isDone, sortByDueDate, sortByPriority, page, size, cursor, owner);
+        return ResponseEntity.ok().eTag(etag).varyBy(TaskOwners.HEADER).body(taskService.getTasks(query, after));
     }
 
     /**
@@ -114,159 +107,187 @@ public class TaskController {
      */
     @CrossOrigin(origins = "http://localhost:8080")
     @PostMapping("/task")
-    public ResponseEntity<Object> createTask(@RequestBody Task task) {
-        // Name and priority validation.
-        if (task.getName().equals("")) return ResponseEntity.badRequest().body("The name of the task is required.");
-        if (task.getName().length() > 120) return ResponseEntity.badRequest().body("The name of the task must be less than 121 characters.");
-        if (this.priorities.get(task.getPriority()) == null) return ResponseEntity.badRequest().body("The priority of the task is invalid.");
-        task.setPriorityName(this.priorities.get(task.getPriority()));
-
-        // Date validation.
-        if (task.getDueDate() != null && 
-        LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
-        .isAfter(task.getDueDate().truncatedTo(ChronoUnit.DAYS)))
-            return ResponseEntity.badRequest().body("The due date must be greater than today.");
+    public ResponseEntity<Object> createTask(@RequestBody Task task,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String error = taskValidator.validate(task);
+        if (error != null) return ResponseEntity.badRequest().body(error);
 
-        // Add the task to the tasks list.
-        tasks.put(task.getId(), task);
-        return ResponseEntity.ok(task);
+        // Add the task to the partition of its owner.
+        return ResponseEntity.ok(taskService.createTask(TaskOwners.of(taskRepository, ownerId), task));
     }
 
     /**
-     * This method returns a task with the given id.
+     * This method returns a task with the given id, tagged with its version.
      * @param: id - The id of the task.
+     * @param: ifNoneMatch - The ETags the client already has (optional).
+     * @param: ownerId - The owner whose partition holds the task (optional).
      * @version: 1.0
-     * @return: task - The task with the given id.
+     * @return: task - The task with the given id, or 304 if it did not change.
      */
     @CrossOrigin(origins = "http://localhost:8080")
     @GetMapping("/task/{id}")
-    public ResponseEntity<Object> getTask(@PathVariable("id") int id) {
-        Task task = tasks.get(id);
+    public ResponseEntity<Object> getTask(@PathVariable("id") int id,
+            @RequestHeader(name=HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        Task task = partitionOf(ownerId).findById(id);
         if (task == null) return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(task);
+
+        String etag = TaskETags.of(task);
+        if (TaskETags.matches(ifNoneMatch, etag)) return notModified(etag);
+        return ResponseEntity.ok().eTag(etag).varyBy(TaskOwners.HEADER).body(task);
     }
 
     /**
-     * This method updates a task with the given id.
+     * This method updates a task with the given id. The change can be made
+     * conditional with If-Match (412 on mismatch) or version (409 on
+     * mismatch), and the response is tagged with the new version.
      * @param: id - The id of the task.
      * @param: name - The name of the task.
      * @param: priority - The priority of the task.
      * @param: dueDate - The due date of the task (optional).
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
      * @version: 1.0
      * @return: task - The task with the given id.
      */
     @CrossOrigin(origins = "http://localhost:8080")
     @PutMapping("/task/{id}")
-    public ResponseEntity<Object> updateTask(@PathVariable("id") int id, @RequestBody Task task) {
-        Task taskToUpdate = tasks.get(id);
-        if (taskToUpdate == null) return ResponseEntity.notFound().build();
-
-        // Name and priority validation.
-        if (task.getName().equals("")) return ResponseEntity.badRequest().body("The name of the task is required.");
-        if (task.getName().length() > 120) return ResponseEntity.badRequest().body("The name of the task must be less than 121 characters.");
-        if (this.priorities.get(task.getPriority()) == null) return ResponseEntity.badRequest().body("The priority of the task is invalid.");
-        task.setPriorityName(this.priorities.get(task.getPriority()));
+    public ResponseEntity<Object> updateTask(@PathVariable("id") int id, @RequestBody Task task,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        if (taskRepository.partition(owner).findById(id) == null) return ResponseEntity.notFound().build();
 
-        // Date validation.
-        if (task.getDueDate() != null && 
-            LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
-            .isAfter(task.getDueDate().truncatedTo(ChronoUnit.DAYS)))
-            return ResponseEntity.badRequest().body("The due date must be greater than today.");
+        String error = taskValidator.validate(task);
+        if (error != null) return ResponseEntity.badRequest().body(error);
 
         // Update the task.
-        taskToUpdate.setName(task.getName());
-        taskToUpdate.setPriority(task.getPriority());
-        taskToUpdate.setPriorityName(task.getPriorityName());
-        taskToUpdate.setDueDate(task.getDueDate());
-        taskToUpdate.setIsDone(task.getIsDone());
-
-        return ResponseEntity.ok(taskToUpdate);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return TaskETags.changed(ifMatch, () -> taskService.updateTask(owner, id, precondition, task));
     }
     
+    /**
+     * This method applies a JSON Merge Patch to the task with the given id.
+     * Only the sent fields are read, validated and changed.
+     * @param: id - The id of the task.
+     * @param: patch - The fields to change.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
+     * @version: 1.0
+     * @return: task - The task with the given id.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PatchMapping(value = "/task/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Object> patchTask(@PathVariable("id") int id, @RequestBody JsonNode patch,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        TaskPatch taskPatch;
+        try {
+            taskPatch = TaskPatch.of(patch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        String error = taskValidator.validatePatch(taskPatch);
+        if (error != null) return ResponseEntity.badRequest().body(error);
+
+        // Patch the task.
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return TaskETags.changed(ifMatch, () -> taskService.patchTask(owner, id, precondition, taskPatch));
+    }
+
     /**
      * This method deletes a task with the given id.
      * @param: id - The id of the task.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
      * @version: 1.0
      * @return: task - The task with the given id.
      */
     @CrossOrigin(origins = "http://localhost:8080")
     @DeleteMapping("/task/{id}")
-    public ResponseEntity<Object> deleteTask(@PathVariable("id") int id) {
-        Task task = tasks.get(id);
-        if (task == null) return ResponseEntity.notFound().build();
-        tasks.remove(id);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<Object> deleteTask(@PathVariable("id") int id,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return TaskETags.changed(ifMatch, () -> taskService.deleteTask(owner, id, precondition));
     }
 
     /**
      * This method marks a task as done.
      * @param: id - The id of the task.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
      * @version: 1.0
      * @return: task - The task with the given id.
      */
     @CrossOrigin(origins = "http://localhost:8080")
     @PostMapping("/task/{id}/done")
-    public ResponseEntity<Object> markTaskAsDone(@PathVariable("id") int id) {
-        Task task = tasks.get(id);
-        if (task == null) return ResponseEntity.notFound().build();
-        task.setIsDone(true);
-        task.setDoneDate(LocalDateTime.now());
-        return ResponseEntity.ok(task);
+    public ResponseEntity<Object> markTaskAsDone(@PathVariable("id") int id,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return TaskETags.changed(ifMatch, () -> taskService.markTaskAsDone(owner, id, precondition));
     }
 
     /**
      * This method marks a task as undone.
      * @param: id - The id of the task.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
      * @version: 1.0
      * @return: task - The task with the given id.
      */
     @CrossOrigin(origins = "http://localhost:8080")
     @PutMapping("/task/{id}/undone")
-    public ResponseEntity<Object> markTaskAsUndone(@PathVariable("id") int id) {
-        Task task = tasks.get(id);
-        if (task == null) return ResponseEntity.notFound().build();
-        task.setIsDone(false);
-        task.setDoneDate(null);
-        return ResponseEntity.ok(task);
+    public ResponseEntity<Object> markTaskAsUndone(@PathVariable("id") int id,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return TaskETags.changed(ifMatch, () -> taskService.markTaskAsUndone(owner, id, precondition));
     }
 
     /**
-     * This method calculates the average time of doing the tasks 
-     * grouped by priority.
+     * This method returns the average time of doing the tasks
+     * grouped by priority, read from the running aggregates.
      * @version: 1.0
      */
     @CrossOrigin(origins = "http://localhost:8080")
     @GetMapping("/task/average")
-    public ResponseEntity<Object> getAverageTime() {
-        // Get the tasks grouped by priority.
-        Map<String, List<Task>> tasksByPriority = tasks.values()
-                                                        .stream()
-                                                        .collect(
-                                                            Collectors.groupingBy(Task::getPriorityName)
-                                                        );
-
-        // Calculate the average time in mintues of doing the tasks grouped by priority.
+    public ResponseEntity<Object> getAverageTime(
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
         HashMap<String, Double> response = new HashMap<>();
-        double totalAverageTime = 0;
-        int finishedTasks = 0;
-        for (Map.Entry<String, List<Task>> entry : tasksByPriority.entrySet()) {
-            double averageTime = 0;
-            int totalTasks = 0;
-            for (Task task : entry.getValue()) {
-                if (task.getDoneDate() != null) {
-                    averageTime += ChronoUnit.MINUTES.between(task.getCreatedDate(), task.getDoneDate());
-                    totalTasks++;
-                    finishedTasks++;
-                }
-            }
-            if (totalTasks > 0) {
-                averageTime /= totalTasks;
-                totalAverageTime += averageTime;
-            }
-            response.put(entry.getKey(), averageTime);
-        }
-
-        response.put("Total", (finishedTasks > 0) ? totalAverageTime / finishedTasks : 0);
+        partitionOf(ownerId).getCompletionTimes().forEach((priorityName, summary) -> response.put(priorityName, summary.getAverage()));
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * This method returns the count, average, standard deviation and
+     * percentiles of the time of doing the tasks grouped by priority.
+     * @version: 1.0
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping("/task/average/details")
+    public ResponseEntity<Object> getCompletionTimeDetails(
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        return ResponseEntity.ok(partitionOf(ownerId).getCompletionTimes());
+    }
+
+    // The partition of the owner of the request, which is all a request sees.
+    private TaskRepository partitionOf(String ownerId) {
+        return taskRepository.partition(TaskOwners.of(taskRepository, ownerId));
+    }
+
+    private static ResponseEntity<Object> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(TaskOwners.HEADER).build();
+    }
 }
@@ -0,0 +1,121 @@
+package com.todoAPI.todo.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.services.TaskConflictException;
+
+/**
+ * This class builds the strong ETags of the task reads and checks them
+ * against the If-None-Match header, so a conditional GET can be answered
+ * with 304 Not Modified before the response is built.
+ * Changes can be made conditional with the If-Match header, answered with
+ * 412 Precondition Failed when the task moved on, or with the version
+ * parameter, answered with 409 Conflict and the current task.
+ * A task is tagged with its version and a listing with the version of the
+ * store. Versions start again when the application restarts, so every tag
+ * also carries an epoch chosen at startup.
+ * @version: 1.0
+ */
+final class TaskETags {
+    private static final String EPOCH = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+
+    private TaskETags() {
+    }
+
+    /**
+     * This method returns the ETag of a task.
+     * @param: task - The task.
+     * @version: 1.0
+     * @return: etag - The quoted ETag.
+     */
+    static String of(Task task) {
+        return "\"" + EPOCH + "-" + task.getId() + "-" + task.getVersion() + "\"";
+    }
+
+    /**
+     * This method returns the ETag of any listing of a version of the store.
+     * The tag only has to tell versions apart, because each listing URL is
+     * cached on its own.
+     * @param: storeVersion - The version of the store.
+     * @version: 1.0
+     * @return: etag - The quoted ETag.
+     */
+    static String ofStore(long storeVersion) {
+        return "\"" + EPOCH + "-" + storeVersion + "\"";
+    }
+
+    /**
+     * This method checks whether an If-None-Match header lists the ETag.
+     * @param: ifNoneMatch - The header, or null if it was not sent.
+     * @param: etag - The current ETag.
+     * @version: 1.0
+     * @return: matches - Whether the client already has the current response.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // GET uses the weak comparison, so a W/ prefix is ignored.
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method returns the precondition of a conditional change: the task
+     * must still have one of the ETags of the If-Match header, and the given
+     * version. Without both, every task passes.
+     * @param: ifMatch - The If-Match header, or null if it was not sent.
+     * @param: version - The expected version of the task, or null.
+     * @version: 1.0
+     * @return: precondition - The check of the current task.
+     */
+    static Predicate<Task> precondition(String ifMatch, Long version) {
+        return task -> (ifMatch == null || matchesStrongly(ifMatch, of(task)))
+            && (version == null || task.getVersion() == version);
+    }
+
+    /**
+     * This method runs a conditional change and answers with the task tagged
+     * with its new ETag, or 404 if the task does not exist. If the
+     * precondition failed, it answers 412 when the If-Match header did not
+     * match, and otherwise 409 with the current task, so the client can merge
+     * its change into it. As with the reads, the tagged responses vary by
+     * owner, since the tag belongs to the task of one partition.
+     * @param: ifMatch - The If-Match header, or null if it was not sent.
+     * @param: change - The change, which returns the changed task or null.
+     * @version: 1.0
+     * @return: response - The response of the change.
+     */
+    static ResponseEntity<Object> changed(String ifMatch, Supplier<Task> change) {
+        try {
+            Task task = change.get();
+            if (task == null) return ResponseEntity.notFound().build();
+            return ResponseEntity.ok().eTag(of(task)).varyBy(TaskOwners.HEADER).body(task);
+        } catch (TaskConflictException e) {
+            return conflict(ifMatch, e.getCurrent());
+        }
+    }
+
+    private static ResponseEntity<Object> conflict(String ifMatch, Task current) {
+        String etag = of(current);
+        if (ifMatch != null && !matchesStrongly(ifMatch, etag)) return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(etag).varyBy(TaskOwners.HEADER).build();
+        return ResponseEntity.status(HttpStatus.CONFLICT).eTag(etag).varyBy(TaskOwners.HEADER).body(current);
+    }
+
+    // Changes use the strong comparison, so weak tags never match.
+    private static boolean matchesStrongly(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+}
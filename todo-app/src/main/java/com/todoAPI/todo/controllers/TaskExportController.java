@@ -0,0 +1,142 @@
+package com.todoAPI.todo.controllers;
+
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskImportResult;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskService;
+import com.todoAPI.todo.services.TaskValidator;
+
+/**
+ * This class exposes the export and import of the whole task set as
+ * newline-delimited JSON (one task per line). Both directions stream: the
+ * export writes each task as it walks the repository, and the import parses
+ * one task at a time and stores them in batches, so neither keeps the whole
+ * task set in memory. Both work on the partition of the owner of the request.
+ * @version: 1.0
+ */
+@RestController
+@CrossOrigin(origins = "http://localhost:8080")
+@RequestMapping("/api/v1/todo")
+public class TaskExportController {
+    public static final String NDJSON = "application/x-ndjson";
+    public static final int IMPORT_BATCH_SIZE = 1000;
+
+    private final TaskRepository taskRepository;
+    private final TaskValidator taskValidator;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader importReader;
+    private final TaskService taskService;
+
+    public TaskExportController(TaskRepository taskRepository, TaskValidator taskValidator, ObjectMapper objectMapper,
+            TaskService taskService) {
+        this.taskRepository = taskRepository;
+        this.taskValidator = taskValidator;
+        this.objectMapper = objectMapper;
+        // Clients cannot send the created date of a task, but an export carries it and has to keep it.
+        this.importReader = objectMapper.copy().addMixIn(Task.class, ImportedTask.class).readerFor(Task.class);
+        this.taskService = taskService;
+    }
+
+    /**
+     * This method streams every task of the partition, one JSON object per line.
+     * @param: ownerId - The owner whose partition is exported (optional).
+     * @version: 1.0
+     * @return: tasks - The tasks as newline-delimited JSON.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping(value = "/task/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        TaskRepository partition = taskRepository.partition(TaskOwners.of(taskRepository, ownerId));
+        ObjectWriter writer = objectMapper.writerFor(Task.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                for (Task task : partition.findAll()) {
+                    writer.writeValue(generator, task);
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * This method imports tasks from newline-delimited JSON. Each task is
+     * validated like a new task, except that its due date may be in the past,
+     * and gets a new id. The created date of the task is kept, so the
+     * completion times of an export are the same once it is imported again.
+     * @param: inputStream - The uploaded tasks.
+     * @param: ownerId - The owner the tasks are imported for (optional).
+     * @version: 1.0
+     * @return: result - The number of imported and rejected tasks.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PostMapping(value = "/task/import", consumes = {NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Object> importTasks(InputStream inputStream,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) throws IOException {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        TaskImportResult result = new TaskImportResult();
+        ArrayList<Task> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+        try (MappingIterator<Task> tasks = importReader.readValues(inputStream)) {
+            while (tasks.hasNextValue()) {
+                long line = tasks.getCurrentLocation().getLineNr();
+                Task task = tasks.nextValue();
+                String error = taskValidator.validateImported(task);
+                if (error != null) {
+                    result.addRejected(line, error);
+                    continue;
+                }
+                batch.add(task);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    result.addImported(save(owner, batch));
+                    batch.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Keep what was imported so far and report where the upload broke.
+            result.addImported(save(owner, batch));
+            result.addRejected(e.getLocation() != null ? e.getLocation().getLineNr() : 0, "The task is not valid JSON.");
+            return ResponseEntity.badRequest().body(result);
+        }
+
+        result.addImported(save(owner, batch));
+        return ResponseEntity.ok(result);
+    }
+
+    private int save(String owner, ArrayList<Task> batch) {
+        return taskService.createTasks(owner, batch).size();
+    }
+
+    /**
+     * This class holds the annotations that let the import read the created
+     * date of a task.
+     */
+    private abstract static class ImportedTask {
+        @JsonProperty
+        abstract void setCreatedDate(LocalDateTime createdDate);
+    }
+}
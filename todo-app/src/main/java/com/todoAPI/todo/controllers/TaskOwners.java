@@ -0,0 +1,50 @@
+package com.todoAPI.todo.controllers;
+
+import java.util.regex.Pattern;
+
+import com.todoAPI.todo.repositories.TaskRepository;
+
+/**
+ * This class reads the owner of a request, the user or list whose partition
+ * of the store it works on, from the X-Owner-Id header. Requests without it
+ * work on the shared partition. Owner ids are at most 64 letters, digits or
+ * any of ".-_@:", so a header cannot grow the store or the metrics.
+ * @version: 1.0
+ */
+final class TaskOwners {
+    static final String HEADER = "X-Owner-Id";
+    static final String INVALID = "The owner id is invalid.";
+    private static final Pattern OWNER_ID = Pattern.compile("[A-Za-z0-9._@:-]{1,64}");
+
+    private TaskOwners() {
+    }
+
+    /**
+     * This method returns the owner of a request. Stores that are not
+     * partitioned keep every task in the shared partition, so their tasks
+     * have no owner.
+     * @param: taskRepository - The store of the tasks.
+     * @param: ownerId - The value of the X-Owner-Id header, or null.
+     * @version: 1.0
+     * @return: owner - The owner, or null for the shared partition.
+     * @throws: InvalidOwnerException - If the owner id is too long or has other characters.
+     */
+    static String of(TaskRepository taskRepository, String ownerId) {
+        if (ownerId == null || ownerId.isBlank() || !taskRepository.isPartitioned()) return null;
+        String owner = ownerId.strip();
+        if (!OWNER_ID.matcher(owner).matches()) throw new InvalidOwnerException();
+        return owner;
+    }
+
+    /**
+     * This exception is thrown for an X-Owner-Id header that is not a valid
+     * owner id, and is answered with a 400 Bad Request.
+     */
+    static final class InvalidOwnerException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        InvalidOwnerException() {
+            super(INVALID, null);
+        }
+    }
+}
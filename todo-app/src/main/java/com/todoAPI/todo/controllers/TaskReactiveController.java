@@ -0,0 +1,282 @@
+package com.todoAPI.todo.controllers;
+
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskCursor;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskPatch;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskService;
+import com.todoAPI.todo.services.TaskValidator;
+
+/**
+ * This class exposes the task API with reactive types under /api/v2/todo,
+ * sharing the store, the listing and the validation of the v1 API.
+ * The listing is a Flux of every matching task: requested as
+ * application/x-ndjson it is streamed one task per line as the client reads
+ * it, and as application/json it is written as an array. It is read one page
+ * of the listing at a time, following the cursors, and the next page is only
+ * read once the client has taken the tasks of the current one, so a slow
+ * client holds one page and a SQL store is never asked for more. Single
+ * tasks and the averages are returned as a Mono. Like in v1, a request only works on the partition of
+ * its owner, from the X-Owner-Id header, and changes can be made conditional
+ * with If-Match or version. The repository may block on the write-ahead log,
+ * so its calls run on the bounded elastic scheduler, never on the request
+ * thread.
+ * @version: 1.0
+ */
+@RestController
+@CrossOrigin(origins = "http://localhost:8080")
+@RequestMapping("/api/v2/todo")
+public class TaskReactiveController {
+    private final TaskRepository taskRepository;
+    private final TaskService taskService;
+    private final TaskValidator taskValidator;
+
+    public TaskReactiveController(TaskRepository taskRepository, TaskService taskService, TaskValidator taskValidator) {
+        this.taskRepository = taskRepository;
+        this.taskService = taskService;
+        this.taskValidator = taskValidator;
+    }
+
+    /**
+     * This method streams the tasks that match the filters, in the order of
+     * the listing.
+     * @version: 1.0
+     * @return: tasks - The tasks.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping(value = "/task", produces = {TaskExportController.NDJSON, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<Task> getTasks(
+            @RequestParam(name="name", required = false, defaultValue = "") String name,
+            @RequestParam(name="priority", required = false, defaultValue = "0") Integer priority,
+            @RequestParam(name="isDone", required = false) Boolean isDone,
+            @RequestParam(name="sortByDueDate", required = false) String sortByDueDate,
+            @RequestParam(name="sortByPriority", required = false) String sortByPriority,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId
+        ) {
+        TaskQuery query = new TaskQuery(name, priority, isDone, sortByDueDate, sortByPriority, 1, TaskService.MAX_PAGE_SIZE, null,
+            TaskOwners.of(taskRepository, ownerId));
+        return page(query, null)
+            .expand(page -> page.getNextCursor() == null ? Mono.empty() : page(query, TaskCursor.decode(page.getNextCursor())))
+            .concatMapIterable(TaskPage::getTasks, 1);
+    }
+
+    /**
+     * This method registers a new task.
+     * @param: task - The task to create.
+     * @version: 1.0
+     * @return: task - The created task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PostMapping("/task")
+    public Mono<ResponseEntity<Object>> createTask(@RequestBody Task task,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        return blocking(() -> {
+            String error = taskValidator.validate(task);
+            if (error != null) return ResponseEntity.badRequest().body(error);
+            return ResponseEntity.ok(taskService.createTask(TaskOwners.of(taskRepository, ownerId), task));
+        });
+    }
+
+    /**
+     * This method returns the task with the given id.
+     * @param: id - The id of the task.
+     * @version: 1.0
+     * @return: task - The task with the given id.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping("/task/{id}")
+    public Mono<ResponseEntity<Task>> getTask(@PathVariable("id") int id,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        return Mono.fromCallable(() -> partitionOf(ownerId).findById(id))
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * This method updates the task with the given id.
+     * @param: id - The id of the task.
+     * @param: task - The new values of the task.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
+     * @version: 1.0
+     * @return: task - The updated task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PutMapping("/task/{id}")
+    public Mono<ResponseEntity<Object>> updateTask(@PathVariable("id") int id, @RequestBody Task task,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        return blocking(() -> {
+            String owner = TaskOwners.of(taskRepository, ownerId);
+            if (taskRepository.partition(owner).findById(id) == null) return ResponseEntity.notFound().build();
+
+            String error = taskValidator.validate(task);
+            if (error != null) return ResponseEntity.badRequest().body(error);
+
+            Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+            return TaskETags.changed(ifMatch, () -> taskService.updateTask(owner, id, precondition, task));
+        });
+    }
+
+    /**
+     * This method applies a JSON Merge Patch to the task with the given id.
+     * Only the sent fields are read, validated and changed.
+     * @param: id - The id of the task.
+     * @param: patch - The fields to change.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
+     * @version: 1.0
+     * @return: task - The patched task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PatchMapping(value = "/task/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public Mono<ResponseEntity<Object>> patchTask(@PathVariable("id") int id, @RequestBody JsonNode patch,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return blocking(() -> {
+            TaskPatch taskPatch;
+            try {
+                taskPatch = TaskPatch.of(patch);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+
+            String error = taskValidator.validatePatch(taskPatch);
+            if (error != null) return ResponseEntity.badRequest().body(error);
+            return TaskETags.changed(ifMatch, () -> taskService.patchTask(owner, id, precondition, taskPatch));
+        });
+    }
+
+    /**
+     * This method deletes the task with the given id.
+     * @param: id - The id of the task.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
+     * @version: 1.0
+     * @return: task - The deleted task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @DeleteMapping("/task/{id}")
+    public Mono<ResponseEntity<Object>> deleteTask(@PathVariable("id") int id,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return blocking(() -> TaskETags.changed(ifMatch, () -> taskService.deleteTask(owner, id, precondition)));
+    }
+
+    /**
+     * This method marks a task as done.
+     * @param: id - The id of the task.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
+     * @version: 1.0
+     * @return: task - The updated task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PostMapping("/task/{id}/done")
+    public Mono<ResponseEntity<Object>> markTaskAsDone(@PathVariable("id") int id,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return blocking(() -> TaskETags.changed(ifMatch, () -> taskService.markTaskAsDone(owner, id, precondition)));
+    }
+
+    /**
+     * This method marks a task as undone.
+     * @param: id - The id of the task.
+     * @param: ifMatch - The ETags the task must still have (optional).
+     * @param: version - The version the task must still have (optional).
+     * @version: 1.0
+     * @return: task - The updated task.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @PutMapping("/task/{id}/undone")
+    public Mono<ResponseEntity<Object>> markTaskAsUndone(@PathVariable("id") int id,
+            @RequestHeader(name=HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestParam(name="version", required = false) Long version,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        String owner = TaskOwners.of(taskRepository, ownerId);
+        Predicate<Task> precondition = TaskETags.precondition(ifMatch, version);
+        return blocking(() -> TaskETags.changed(ifMatch, () -> taskService.markTaskAsUndone(owner, id, precondition)));
+    }
+
+    /**
+     * This method returns the average time of doing the tasks
+     * grouped by priority, read from the running aggregates.
+     * @version: 1.0
+     * @return: averages - The average minutes by priority name.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping("/task/average")
+    public Mono<ResponseEntity<Object>> getAverageTime(
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        return blocking(() -> {
+            HashMap<String, Double> response = new HashMap<>();
+            partitionOf(ownerId).getCompletionTimes().forEach((priorityName, summary) -> response.put(priorityName, summary.getAverage()));
+            return ResponseEntity.ok(response);
+        });
+    }
+
+    /**
+     * This method returns the count, average, standard deviation and
+     * percentiles of the time of doing the tasks grouped by priority.
+     * @version: 1.0
+     * @return: summaries - The summaries by priority name.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping("/task/average/details")
+    public Mono<ResponseEntity<Object>> getCompletionTimeDetails(
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId) {
+        return blocking(() -> ResponseEntity.ok(partitionOf(ownerId).getCompletionTimes()));
+    }
+
+    // Reads a page of the listing on the bounded elastic scheduler, whichever thread asked for it.
+    private Mono<TaskPage> page(TaskQuery query, Task after) {
+        return Mono.fromCallable(() -> taskService.getTasks(query, after)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private TaskRepository partitionOf(String ownerId) {
+        return taskRepository.partition(TaskOwners.of(taskRepository, ownerId));
+    }
+
+    private static Mono<ResponseEntity<Object>> blocking(Callable<ResponseEntity<Object>> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+}
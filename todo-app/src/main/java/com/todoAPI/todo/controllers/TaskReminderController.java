@@ -0,0 +1,53 @@
+package com.todoAPI.todo.controllers;
+
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.http.ResponseEntity;
+
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskReminderScheduler;
+import com.todoAPI.todo.services.TaskService;
+
+/**
+ * This class exposes the tasks past their due date, kept by the reminder
+ * scheduler, so they are listed without scanning the store. The due and
+ * overdue events themselves are published in the change feed.
+ * @version: 1.0
+ */
+@RestController
+@CrossOrigin(origins = "http://localhost:8080")
+@RequestMapping("/api/v1/todo")
+public class TaskReminderController {
+    private final TaskReminderScheduler taskReminderScheduler;
+    private final TaskRepository taskRepository;
+
+    public TaskReminderController(TaskReminderScheduler taskReminderScheduler, TaskRepository taskRepository) {
+        this.taskReminderScheduler = taskReminderScheduler;
+        this.taskRepository = taskRepository;
+    }
+
+    /**
+     * This method returns a page of the undone tasks of the owner past their
+     * due date, the most overdue first.
+     * @param: page - The number of the page, starting at 1 (optional).
+     * @param: size - The number of tasks per page (optional).
+     * @param: ownerId - The owner whose overdue tasks are listed (optional).
+     * @version: 1.0
+     * @return: page - The page of overdue tasks.
+     */
+    @CrossOrigin(origins = "http://localhost:8080")
+    @GetMapping("/task/overdue")
+    public ResponseEntity<Object> getOverdueTasks(
+            @RequestParam(name="page", required = false, defaultValue = "1") Integer page,
+            @RequestParam(name="size", required = false, defaultValue = "10") Integer size,
+            @RequestHeader(name=TaskOwners.HEADER, required = false) String ownerId
+        ) {
+        if (page < 1) return ResponseEntity.badRequest().body("The page must be greater than 0.");
+        if (size < 1 || size > TaskService.MAX_PAGE_SIZE) return ResponseEntity.badRequest().body("The page size must be between 1 and " + TaskService.MAX_PAGE_SIZE + ".");
+        return ResponseEntity.ok(taskReminderScheduler.getOverdueTasks(TaskOwners.of(taskRepository, ownerId), page, size));
+    }
+}
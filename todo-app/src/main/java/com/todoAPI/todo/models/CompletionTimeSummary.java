@@ -0,0 +1,65 @@
+package com.todoAPI.todo.models;
+
+/**
+ * This class summarizes the time between the creation and the completion of
+ * a group of tasks, in minutes.
+ * @version: 1.0
+ */
+public class CompletionTimeSummary {
+    private final long totalTasks;
+    private final long doneTasks;
+    private final double average;
+    private final double standardDeviation;
+    private final double p50;
+    private final double p95;
+    private final double p99;
+
+    /**
+     * This constructor creates a summary with the given values.
+     * @param: totalTasks - The number of tasks in the group.
+     * @param: doneTasks - The number of done tasks in the group.
+     * @param: average - The average completion time.
+     * @param: standardDeviation - The standard deviation of the completion time.
+     * @param: p50 - The median completion time.
+     * @param: p95 - The 95th percentile of the completion time.
+     * @param: p99 - The 99th percentile of the completion time.
+     * @version: 1.0
+     */
+    public CompletionTimeSummary(long totalTasks, long doneTasks, double average, double standardDeviation, double p50, double p95, double p99) {
+        this.totalTasks = totalTasks;
+        this.doneTasks = doneTasks;
+        this.average = average;
+        this.standardDeviation = standardDeviation;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    public long getTotalTasks() {
+        return this.totalTasks;
+    }
+
+    public long getDoneTasks() {
+        return this.doneTasks;
+    }
+
+    public double getAverage() {
+        return this.average;
+    }
+
+    public double getStandardDeviation() {
+        return this.standardDeviation;
+    }
+
+    public double getP50() {
+        return this.p50;
+    }
+
+    public double getP95() {
+        return this.p95;
+    }
+
+    public double getP99() {
+        return this.p99;
+    }
+}
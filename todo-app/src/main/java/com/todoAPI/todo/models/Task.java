@@ -4,6 +4,12 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.io.Serializable; 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonSetter;
+
 /**
  * This class represents a task, and it simulates the model of a task.
  * @author: Edgar Ramirez
@@ -11,9 +17,10 @@ import java.io.Serializable;
  * @param: name - The name of the task.
  * @param: dueDate - The due date of the task.
  */
+// The order written by TaskJsonSerializer.
+@JsonPropertyOrder({"name", "dueDate", "priority", "priorityName", "isDone", "doneDate", "createdDate", "id", "owner"})
 public class Task implements Serializable {
-    public static int id = 0;
-    private int taskId = id;
+    private int taskId;
     private String name;
     private LocalDateTime dueDate;
     private int priority;
@@ -21,11 +28,11 @@ public class Task implements Serializable {
     private boolean isDone;
     private LocalDateTime doneDate;
     private LocalDateTime createdDate;
+    private long version;
+    private String owner;
 
     // Constructors
     public Task() {
-        this.id += 1;
-        this.taskId = id;
         this.createdDate = LocalDateTime.now();
     }
 
@@ -38,8 +45,6 @@ public class Task implements Serializable {
      * @version: 1.0`
     */
     public Task(String name, LocalDateTime dueDate, int priority, String priorityName) {
-        this.id += 1;
-        this.taskId = id;
         this.name = name;
         this.dueDate = dueDate;
         this.priority = priority;
@@ -49,6 +54,24 @@ public class Task implements Serializable {
         this.createdDate = LocalDateTime.now();
     }
 
+    /**
+     * This constructor creates a copy of the given task, keeping its id.
+     * @param: task - The task to copy.
+     * @version: 1.0
+    */
+    public Task(Task task) {
+        this.taskId = task.taskId;
+        this.name = task.name;
+        this.dueDate = task.dueDate;
+        this.priority = task.priority;
+        this.priorityName = task.priorityName;
+        this.isDone = task.isDone;
+        this.doneDate = task.doneDate;
+        this.createdDate = task.createdDate;
+        this.version = task.version;
+        this.owner = task.owner;
+    }
+
     // Getters
 
     /**
@@ -119,12 +142,48 @@ public class Task implements Serializable {
      * @version: 1.0
      * @return: createdDate - The created date of the task.
      */
+    @JsonProperty
     public LocalDateTime getCreatedDate() {
         return this.createdDate;
     }
 
+    /**
+     * This method returns the version of the task, which the repository
+     * increases on every change. It is sent in the ETag header, not in the body.
+     * @version: 1.0
+     * @return: version - The version of the task.
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * This method returns the owner of the task, the user or list whose
+     * partition of the store holds it.
+     * @version: 1.0
+     * @return: owner - The owner of the task, or null for the shared partition.
+     */
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public String getOwner() {
+        return this.owner;
+    }
+
 
     // Setters
+    /**
+     * This method assigns the id of the task. The repository assigns a new id
+     * when the task is stored; an id sent by a client only identifies the task
+     * to change in batch updates.
+     * @param: id - The id of the task.
+     * @version: 1.0
+     */
+    @JsonSetter("id")
+    public void assignId(int id) {
+        this.taskId = id;
+    }
+
     /**
      * This method sets the name of the task.
      * @param: name - The name of the task.
@@ -179,8 +238,54 @@ public class Task implements Serializable {
         this.doneDate = doneDate;
     }
 
+    /**
+     * This method sets the created date of the task. It is only used to
+     * restore stored tasks, so clients cannot send it.
+     * @param: createdDate - The created date of the task.
+     * @version: 1.0
+     */
+    @JsonIgnore
+    public void setCreatedDate(LocalDateTime createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    /**
+     * This method sets the version of the task. It is only used by the
+     * repositories, so clients cannot send it.
+     * @param: version - The version of the task.
+     * @version: 1.0
+     */
+    @JsonIgnore
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * This method sets the owner of the task. The owner comes from the
+     * request, so clients cannot send it in the body.
+     * @param: owner - The owner of the task, or null for the shared partition.
+     * @version: 1.0
+     */
+    @JsonIgnore
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
 
     // Methods
+    /**
+     * This method copies the fields a client can edit from the given task.
+     * @param: task - The task with the new values.
+     * @version: 1.0
+     */
+    public void updateFrom(Task task) {
+        this.name = task.name;
+        this.priority = task.priority;
+        this.priorityName = task.priorityName;
+        this.dueDate = task.dueDate;
+        this.isDone = task.isDone;
+    }
+
     /**
      * This method marks the task as done.
      * @version: 1.0
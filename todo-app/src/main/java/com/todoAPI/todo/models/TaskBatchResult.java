@@ -0,0 +1,46 @@
+package com.todoAPI.todo.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * This class represents the result of one item of a batch request.
+ * @version: 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskBatchResult {
+    private final int index;
+    private final int status;
+    private final Task task;
+    private final String error;
+
+    /**
+     * This constructor creates the result of an item.
+     * @param: index - The position of the item in the request.
+     * @param: status - The HTTP status the item would have had as a single request.
+     * @param: task - The resulting task, or null if the item failed.
+     * @param: error - The reason why the item failed, or null.
+     * @version: 1.0
+     */
+    public TaskBatchResult(int index, int status, Task task, String error) {
+        this.index = index;
+        this.status = status;
+        this.task = task;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return this.index;
+    }
+
+    public int getStatus() {
+        return this.status;
+    }
+
+    public Task getTask() {
+        return this.task;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+}
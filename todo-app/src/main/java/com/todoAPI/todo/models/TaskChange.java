@@ -0,0 +1,62 @@
+package com.todoAPI.todo.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * This class represents one change of a task in the change feed. Changes
+ * are numbered in the order they were published, starting at 1.
+ * @version: 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskChange {
+
+    /**
+     * This enum represents the kinds of change. DUE is published when an
+     * undone task reaches its due date, and OVERDUE when an undone task is
+     * saved with a due date that already passed.
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED, DONE, UNDONE, DUE, OVERDUE
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final int taskId;
+    private final Task task;
+    private final String owner;
+
+    /**
+     * This constructor creates a change.
+     * @param: sequence - The number of the change in the feed.
+     * @param: type - The kind of change.
+     * @param: task - The task after the change, or the deleted task.
+     * @version: 1.0
+     */
+    public TaskChange(long sequence, Type type, Task task) {
+        this.sequence = sequence;
+        this.type = type;
+        this.taskId = task.getId();
+        this.task = type == Type.DELETED ? null : task;
+        this.owner = task.getOwner();
+    }
+
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public int getTaskId() {
+        return this.taskId;
+    }
+
+    public Task getTask() {
+        return this.task;
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+}
@@ -0,0 +1,54 @@
+package com.todoAPI.todo.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * This class encodes and decodes the continuation tokens of the task listing.
+ * A token holds the sort keys of the last task of a page (priority, due date
+ * and id), so the next page starts right after it even if tasks were added or
+ * removed in between. The token is opaque to the clients.
+ * @version: 1.0
+ */
+public final class TaskCursor {
+    private static final String SEPARATOR = "|";
+
+    private TaskCursor() {
+    }
+
+    /**
+     * This method returns the token that points after the given task.
+     * @param: task - The last task of a page.
+     * @version: 1.0
+     * @return: cursor - The continuation token.
+     */
+    public static String encode(Task task) {
+        String key = task.getPriority() + SEPARATOR
+                + (task.getDueDate() == null ? "" : task.getDueDate().toString()) + SEPARATOR
+                + task.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method decodes a token into a task that only carries the sort keys.
+     * @param: cursor - The continuation token.
+     * @version: 1.0
+     * @return: task - The task to start after, or null if the token is invalid.
+     */
+    public static Task decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split("\\|", -1);
+            if (parts.length != 3) return null;
+
+            Task task = new Task();
+            task.setPriority(Integer.parseInt(parts[0]));
+            task.setDueDate(parts[1].isEmpty() ? null : LocalDateTime.parse(parts[1]));
+            task.assignId(Integer.parseInt(parts[2]));
+            return task;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
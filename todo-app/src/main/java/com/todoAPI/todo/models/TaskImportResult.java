@@ -0,0 +1,50 @@
+package com.todoAPI.todo.models;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class summarizes an import: how many tasks were stored, how many were
+ * rejected and why. Only the first errors are kept so that the summary stays
+ * small whatever the size of the upload.
+ * @version: 1.0
+ */
+public class TaskImportResult {
+    public static final int MAX_ERRORS = 100;
+
+    private long imported;
+    private long rejected;
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * This method counts stored tasks.
+     * @param: count - The number of stored tasks.
+     * @version: 1.0
+     */
+    public void addImported(int count) {
+        this.imported += count;
+    }
+
+    /**
+     * This method counts a rejected task.
+     * @param: line - The line of the task in the upload.
+     * @param: error - The reason why it was rejected.
+     * @version: 1.0
+     */
+    public void addRejected(long line, String error) {
+        this.rejected++;
+        if (errors.size() < MAX_ERRORS) errors.add("Line " + line + ": " + error);
+    }
+
+    public long getImported() {
+        return this.imported;
+    }
+
+    public long getRejected() {
+        return this.rejected;
+    }
+
+    public List<String> getErrors() {
+        return this.errors;
+    }
+}
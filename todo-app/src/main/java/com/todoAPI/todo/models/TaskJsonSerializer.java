@@ -0,0 +1,124 @@
+package com.todoAPI.todo.models;
+
+import org.springframework.boot.jackson.JsonComponent;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * This class writes tasks as JSON without reflection. The output is the same
+ * as the one of the bean serializer with the Java time module: the same
+ * properties in the same order and the dates in ISO-8601 without zone, with
+ * as many fraction digits as needed.
+ *
+ * The property names are encoded once, the dates are written digit by digit
+ * from a table of two-digit pairs into a per-thread buffer instead of going
+ * through DateTimeFormatter, and the buffer is handed to the generator
+ * without building a String.
+ * @version: 1.0
+ */
+@JsonComponent
+public class TaskJsonSerializer extends StdSerializer<Task> {
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DUE_DATE = new SerializedString("dueDate");
+    private static final SerializableString PRIORITY = new SerializedString("priority");
+    private static final SerializableString PRIORITY_NAME = new SerializedString("priorityName");
+    private static final SerializableString IS_DONE = new SerializedString("isDone");
+    private static final SerializableString DONE_DATE = new SerializedString("doneDate");
+    private static final SerializableString CREATED_DATE = new SerializedString("createdDate");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString OWNER = new SerializedString("owner");
+
+    // The longest date is yyyy-MM-ddTHH:mm:ss.nnnnnnnnn.
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[29]);
+    private static final char[] DIGIT_PAIRS = new char[200];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            DIGIT_PAIRS[i * 2] = (char) ('0' + i / 10);
+            DIGIT_PAIRS[i * 2 + 1] = (char) ('0' + i % 10);
+        }
+    }
+
+    public TaskJsonSerializer() {
+        super(Task.class);
+    }
+
+    @Override
+    public void serialize(Task task, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(task);
+        generator.writeFieldName(NAME);
+        generator.writeString(task.getName());
+        generator.writeFieldName(DUE_DATE);
+        writeDate(generator, task.getDueDate());
+        generator.writeFieldName(PRIORITY);
+        generator.writeNumber(task.getPriority());
+        generator.writeFieldName(PRIORITY_NAME);
+        generator.writeString(task.getPriorityName());
+        generator.writeFieldName(IS_DONE);
+        generator.writeBoolean(task.getIsDone());
+        generator.writeFieldName(DONE_DATE);
+        writeDate(generator, task.getDoneDate());
+        generator.writeFieldName(CREATED_DATE);
+        writeDate(generator, task.getCreatedDate());
+        generator.writeFieldName(ID);
+        generator.writeNumber(task.getId());
+        if (task.getOwner() != null) {
+            generator.writeFieldName(OWNER);
+            generator.writeString(task.getOwner());
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeDate(JsonGenerator generator, LocalDateTime date) throws IOException {
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        // Years outside 0000-9999 carry a sign in ISO-8601; they are rare enough for the formatter.
+        if (year < 0 || year > 9999) {
+            generator.writeString(date.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            return;
+        }
+        char[] buffer = BUFFERS.get();
+        pair(buffer, 0, year / 100);
+        pair(buffer, 2, year % 100);
+        buffer[4] = '-';
+        pair(buffer, 5, date.getMonthValue());
+        buffer[7] = '-';
+        pair(buffer, 8, date.getDayOfMonth());
+        buffer[10] = 'T';
+        pair(buffer, 11, date.getHour());
+        buffer[13] = ':';
+        pair(buffer, 14, date.getMinute());
+        buffer[16] = ':';
+        pair(buffer, 17, date.getSecond());
+        int length = 19;
+
+        int nano = date.getNano();
+        if (nano != 0) {
+            buffer[19] = '.';
+            for (int i = 28; i >= 20; i--) {
+                buffer[i] = (char) ('0' + nano % 10);
+                nano /= 10;
+            }
+            // Trailing zeros are left out, as DateTimeFormatter does.
+            length = 29;
+            while (buffer[length - 1] == '0') length--;
+        }
+        generator.writeString(buffer, 0, length);
+    }
+
+    private static void pair(char[] buffer, int offset, int value) {
+        buffer[offset] = DIGIT_PAIRS[value * 2];
+        buffer[offset + 1] = DIGIT_PAIRS[value * 2 + 1];
+    }
+}
@@ -0,0 +1,41 @@
+package com.todoAPI.todo.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * This class represents a page of tasks returned by the task listing.
+ * @version: 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskPage {
+    private final int totalTasks;
+    private final List<Task> tasks;
+    private final String nextCursor;
+
+    /**
+     * This constructor creates a page of tasks.
+     * @param: totalTasks - The number of tasks that match the filters.
+     * @param: tasks - The tasks of the page.
+     * @param: nextCursor - The token to request the next page, or null if this is the last one.
+     * @version: 1.0
+     */
+    public TaskPage(int totalTasks, List<Task> tasks, String nextCursor) {
+        this.totalTasks = totalTasks;
+        this.tasks = tasks;
+        this.nextCursor = nextCursor;
+    }
+
+    public int getTotalTasks() {
+        return this.totalTasks;
+    }
+
+    public List<Task> getTasks() {
+        return this.tasks;
+    }
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
+}
@@ -0,0 +1,149 @@
+package com.todoAPI.todo.models;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * This class holds a JSON Merge Patch (RFC 7396) of a task: only the fields
+ * the client sent, each with a flag telling that it was sent. A field set to
+ * null removes the value, which only the due date allows. The other fields
+ * of the task are read-only or derived, so they cannot be patched.
+ * @version: 1.0
+ */
+public final class TaskPatch {
+    private boolean hasName;
+    private String name;
+    private boolean hasDueDate;
+    private LocalDateTime dueDate;
+    private boolean hasPriority;
+    private int priority;
+    private String priorityName;
+    private boolean hasIsDone;
+    private boolean isDone;
+
+    private TaskPatch() {
+    }
+
+    /**
+     * This method reads a patch from the JSON object sent by the client.
+     * @param: patch - The JSON object.
+     * @version: 1.0
+     * @return: patch - The patch.
+     * @throws: IllegalArgumentException - If the patch is not an object, or a field cannot be patched or has the wrong type.
+     */
+    public static TaskPatch of(JsonNode patch) {
+        if (patch == null || !patch.isObject()) throw new IllegalArgumentException("The patch must be a JSON object.");
+
+        TaskPatch taskPatch = new TaskPatch();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "name":
+                    if (!value.isTextual()) throw new IllegalArgumentException("The name of the task must be a string.");
+                    taskPatch.hasName = true;
+                    taskPatch.name = value.textValue();
+                    break;
+                case "dueDate":
+                    if (!value.isNull() && !value.isTextual()) throw new IllegalArgumentException("The due date must be a date or null.");
+                    taskPatch.hasDueDate = true;
+                    taskPatch.dueDate = value.isNull() ? null : parseDate(value.textValue());
+                    break;
+                case "priority":
+                    if (!value.canConvertToExactIntegral() || !value.canConvertToInt()) throw new IllegalArgumentException("The priority of the task is invalid.");
+                    taskPatch.hasPriority = true;
+                    taskPatch.priority = value.intValue();
+                    break;
+                case "isDone":
+                    if (!value.isBoolean()) throw new IllegalArgumentException("The status of the task must be true or false.");
+                    taskPatch.hasIsDone = true;
+                    taskPatch.isDone = value.booleanValue();
+                    break;
+                default:
+                    throw new IllegalArgumentException("The patch has a field that cannot be patched.");
+            }
+        }
+        return taskPatch;
+    }
+
+    /**
+     * This method returns whether applying the patch would change the task.
+     * @param: task - The current task.
+     * @version: 1.0
+     * @return: changes - Whether any sent field differs from the task.
+     */
+    public boolean changes(Task task) {
+        return (hasName && !name.equals(task.getName()))
+            || (hasDueDate && !Objects.equals(dueDate, task.getDueDate()))
+            || (hasPriority && priority != task.getPriority())
+            || (hasIsDone && isDone != task.getIsDone());
+    }
+
+    /**
+     * This method sets the sent fields of a copy of the task, leaving the
+     * others as they are. Changing the status also sets or clears the done
+     * date, like marking the task as done or undone.
+     * @param: task - The copy of the task to change.
+     * @version: 1.0
+     */
+    public void applyTo(Task task) {
+        if (hasName) task.setName(name);
+        if (hasDueDate) task.setDueDate(dueDate);
+        if (hasPriority) {
+            task.setPriority(priority);
+            task.setPriorityName(priorityName);
+        }
+        if (hasIsDone && isDone != task.getIsDone()) {
+            if (isDone) task.markAsDone();
+            else task.markAsUndone();
+        }
+    }
+
+    public boolean hasName() {
+        return this.hasName;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public boolean hasDueDate() {
+        return this.hasDueDate;
+    }
+
+    public LocalDateTime getDueDate() {
+        return this.dueDate;
+    }
+
+    public boolean hasPriority() {
+        return this.hasPriority;
+    }
+
+    public int getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * This method sets the name of the patched priority, which the validator
+     * derives from it.
+     * @param: priorityName - The name of the priority.
+     * @version: 1.0
+     */
+    public void setPriorityName(String priorityName) {
+        this.priorityName = priorityName;
+    }
+
+    private static LocalDateTime parseDate(String text) {
+        try {
+            return LocalDateTime.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("The due date is not a valid date.");
+        }
+    }
+}
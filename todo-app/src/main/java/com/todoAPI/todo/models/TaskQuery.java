@@ -0,0 +1,141 @@
+package com.todoAPI.todo.models;
+
+import java.util.Objects;
+
+/**
+ * This class represents the parameters of a task listing: the partition of
+ * the owner, the filters, the sorting and the page to return. Queries are
+ * values: two queries with the same parameters are equal.
+ * @version: 1.0
+ */
+public class TaskQuery {
+    private final String name;
+    private final int priority;
+    private final Boolean isDone;
+    private final String sortByDueDate;
+    private final String sortByPriority;
+    private final int page;
+    private final int size;
+    private final String cursor;
+    private final String owner;
+
+    /**
+     * This constructor creates a query of the shared partition.
+     * @param: name - The text the name must contain, or "" for any name.
+     * @param: priority - The priority of the tasks, or 0 for any priority.
+     * @param: isDone - The status of the tasks, or null for any status.
+     * @param: sortByDueDate - "asc" or "desc" to sort by due date, or null.
+     * @param: sortByPriority - "asc" or "desc" to sort by priority, or null.
+     * @param: page - The page to return, starting at 1. Ignored when a cursor is given.
+     * @param: size - The number of tasks per page.
+     * @param: cursor - The continuation token of the previous page, or null.
+     * @version: 1.0
+     */
+    public TaskQuery(String name, int priority, Boolean isDone, String sortByDueDate, String sortByPriority, int page, int size, String cursor) {
+        this(name, priority, isDone, sortByDueDate, sortByPriority, page, size, cursor, null);
+    }
+
+    /**
+     * This constructor creates a query with the given parameters.
+     * @param: name - The text the name must contain, or "" for any name.
+     * @param: priority - The priority of the tasks, or 0 for any priority.
+     * @param: isDone - The status of the tasks, or null for any status.
+     * @param: sortByDueDate - "asc" or "desc" to sort by due date, or null.
+     * @param: sortByPriority - "asc" or "desc" to sort by priority, or null.
+     * @param: page - The page to return, starting at 1. Ignored when a cursor is given.
+     * @param: size - The number of tasks per page.
+     * @param: cursor - The continuation token of the previous page, or null.
+     * @param: owner - The owner whose partition is listed, or null for the shared partition.
+     * @version: 1.0
+     */
+    public TaskQuery(String name, int priority, Boolean isDone, String sortByDueDate, String sortByPriority, int page, int size, String cursor,
+            String owner) {
+        this.name = name;
+        this.priority = priority;
+        this.isDone = isDone;
+        this.sortByDueDate = sortByDueDate;
+        this.sortByPriority = sortByPriority;
+        this.page = page;
+        this.size = size;
+        this.cursor = cursor;
+        this.owner = owner;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public int getPriority() {
+        return this.priority;
+    }
+
+    public Boolean getIsDone() {
+        return this.isDone;
+    }
+
+    public String getSortByDueDate() {
+        return this.sortByDueDate;
+    }
+
+    public String getSortByPriority() {
+        return this.sortByPriority;
+    }
+
+    public int getPage() {
+        return this.page;
+    }
+
+    public int getSize() {
+        return this.size;
+    }
+
+    public String getCursor() {
+        return this.cursor;
+    }
+
+    public String getOwner() {
+        return this.owner;
+    }
+
+    /**
+     * This method returns the query with its parameters in a canonical form,
+     * so queries that list the same tasks are equal: the name in lower case,
+     * as it is matched, and any sort direction other than "desc" as "asc".
+     * @version: 1.0
+     * @return: query - The normalized query.
+     */
+    public TaskQuery normalized() {
+        return new TaskQuery(lowerCase(this.name), this.priority, this.isDone,
+            direction(this.sortByDueDate), direction(this.sortByPriority), this.page, this.size, this.cursor, this.owner);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof TaskQuery)) return false;
+        TaskQuery query = (TaskQuery) other;
+        return this.priority == query.priority
+            && this.page == query.page
+            && this.size == query.size
+            && Objects.equals(this.name, query.name)
+            && Objects.equals(this.isDone, query.isDone)
+            && Objects.equals(this.sortByDueDate, query.sortByDueDate)
+            && Objects.equals(this.sortByPriority, query.sortByPriority)
+            && Objects.equals(this.cursor, query.cursor)
+            && Objects.equals(this.owner, query.owner);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.name, this.priority, this.isDone, this.sortByDueDate, this.sortByPriority, this.page, this.size, this.cursor, this.owner);
+    }
+
+    private static String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private static String direction(String sort) {
+        if (sort == null) return null;
+        return sort.equals("desc") ? "desc" : "asc";
+    }
+}
@@ -0,0 +1,93 @@
+package com.todoAPI.todo.repositories;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class is a log-linear histogram of completion times in minutes.
+ * Values below 64 get their own bucket; larger values share buckets whose
+ * width is 1/32 of their power of two, so any percentile is off by at most
+ * about 3%. Unlike HDR histograms or t-digests it supports removing values,
+ * which is needed when a task is marked as undone, updated or deleted.
+ * Histograms of the same layout can be merged by adding their buckets.
+ * @version: 1.0
+ */
+class CompletionTimeHistogram {
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = LINEAR_BUCKETS + (62 - 6 + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * This method records a completion time.
+     * @param: minutes - The completion time in minutes.
+     * @version: 1.0
+     */
+    void record(long minutes) {
+        counts.incrementAndGet(indexOf(minutes));
+    }
+
+    /**
+     * This method removes a previously recorded completion time.
+     * @param: minutes - The completion time in minutes.
+     * @version: 1.0
+     */
+    void remove(long minutes) {
+        counts.decrementAndGet(indexOf(minutes));
+    }
+
+    /**
+     * This method adds the counts of this histogram to the given buckets.
+     * @param: buckets - The buckets to merge into.
+     * @version: 1.0
+     */
+    void mergeInto(long[] buckets) {
+        for (int i = 0; i < BUCKETS; i++) buckets[i] += counts.get(i);
+    }
+
+    /**
+     * This method returns empty buckets with the layout of this histogram.
+     * @version: 1.0
+     * @return: buckets - The empty buckets.
+     */
+    static long[] emptyBuckets() {
+        return new long[BUCKETS];
+    }
+
+    /**
+     * This method returns the value at the given percentile of the buckets.
+     * @param: buckets - The bucket counts.
+     * @param: total - The sum of the bucket counts.
+     * @param: percentile - The percentile, between 0 and 100.
+     * @version: 1.0
+     * @return: minutes - The value at the percentile, or 0 if there are no values.
+     */
+    static double percentile(long[] buckets, long total, double percentile) {
+        if (total <= 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) return middleOf(i);
+        }
+        return middleOf(BUCKETS - 1);
+    }
+
+    private static int indexOf(long minutes) {
+        long value = Math.max(0, minutes);
+        if (value < LINEAR_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return LINEAR_BUCKETS + (exponent - 6) * SUB_BUCKETS + subBucket;
+    }
+
+    private static double middleOf(int index) {
+        if (index < LINEAR_BUCKETS) return index;
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 6;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        long lowest = (long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lowest + (width - 1) / 2.0;
+    }
+}
@@ -0,0 +1,163 @@
+package com.todoAPI.todo.repositories;
+
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class keeps running aggregates of the completion time of the tasks,
+ * grouped by priority: the number of tasks, and the count, sum, sum of squares
+ * and histogram of the minutes between creation and done date.
+ * Every change adjusts the aggregates in O(1), so summaries never scan tasks.
+ * @version: 1.0
+ */
+class CompletionTimeStats implements TaskIndex {
+    static final String TOTAL = "Total";
+
+    private final ConcurrentHashMap<Integer, PriorityStats> byPriority = new ConcurrentHashMap<>();
+
+    @Override
+    public void add(Task task) {
+        PriorityStats stats = stats(task);
+        stats.name = task.getPriorityName();
+        stats.tasks.increment();
+        if (isCompleted(task)) stats.record(completionMinutes(task), 1);
+    }
+
+    @Override
+    public void update(Task previous, Task current) {
+        boolean sameCompletion = isCompleted(previous) ?
+                isCompleted(current) && completionMinutes(previous) == completionMinutes(current) :
+                !isCompleted(current);
+        if (previous.getPriority() == current.getPriority() && sameCompletion) return;
+        remove(previous);
+        add(current);
+    }
+
+    @Override
+    public void remove(Task task) {
+        PriorityStats stats = stats(task);
+        stats.tasks.decrement();
+        if (isCompleted(task)) stats.record(completionMinutes(task), -1);
+    }
+
+    /**
+     * This method returns the completion time summary of every priority that
+     * has tasks, ordered by priority, followed by the summary of all of them
+     * under the "Total" key.
+     * @version: 1.0
+     * @return: summaries - The summaries by priority name.
+     */
+    Map<String, CompletionTimeSummary> summaries() {
+        return summaries(List.of(this));
+    }
+
+    /**
+     * This method returns the summaries of the tasks of several aggregates
+     * together, as if they were one, by adding their counters and buckets.
+     * @param: aggregates - The aggregates to combine.
+     * @version: 1.0
+     * @return: summaries - The summaries by priority name.
+     */
+    static Map<String, CompletionTimeSummary> summaries(Iterable<CompletionTimeStats> aggregates) {
+        TreeMap<Integer, Totals> byPriority = new TreeMap<>();
+        for (CompletionTimeStats aggregate : aggregates) {
+            aggregate.byPriority.forEach((priority, stats) -> byPriority.computeIfAbsent(priority, key -> new Totals()).add(stats));
+        }
+
+        LinkedHashMap<String, CompletionTimeSummary> summaries = new LinkedHashMap<>();
+        Totals total = new Totals();
+        for (Totals totals : byPriority.values()) {
+            if (totals.tasks <= 0) continue;
+            summaries.put(totals.name, summary(totals));
+            total.tasks += totals.tasks;
+            total.done += totals.done;
+            total.minutes += totals.minutes;
+            total.squaredMinutes += totals.squaredMinutes;
+            for (int i = 0; i < total.buckets.length; i++) total.buckets[i] += totals.buckets[i];
+        }
+
+        summaries.put(TOTAL, summary(total));
+        return summaries;
+    }
+
+    private PriorityStats stats(Task task) {
+        return byPriority.computeIfAbsent(task.getPriority(), key -> new PriorityStats());
+    }
+
+    private static CompletionTimeSummary summary(Totals totals) {
+        long done = totals.done;
+        if (done <= 0) return new CompletionTimeSummary(totals.tasks, 0, 0, 0, 0, 0, 0);
+        double average = (double) totals.minutes / done;
+        double variance = Math.max(0, totals.squaredMinutes / done - average * average);
+        return new CompletionTimeSummary(
+            totals.tasks,
+            done,
+            average,
+            Math.sqrt(variance),
+            CompletionTimeHistogram.percentile(totals.buckets, done, 50),
+            CompletionTimeHistogram.percentile(totals.buckets, done, 95),
+            CompletionTimeHistogram.percentile(totals.buckets, done, 99)
+        );
+    }
+
+    private static boolean isCompleted(Task task) {
+        return task.getDoneDate() != null && task.getCreatedDate() != null;
+    }
+
+    private static long completionMinutes(Task task) {
+        return ChronoUnit.MINUTES.between(task.getCreatedDate(), task.getDoneDate());
+    }
+
+    /**
+     * This class holds the aggregates of one priority.
+     * @version: 1.0
+     */
+    private static final class PriorityStats {
+        private volatile String name;
+        private final LongAdder tasks = new LongAdder();
+        private final LongAdder done = new LongAdder();
+        private final LongAdder minutes = new LongAdder();
+        private final DoubleAdder squaredMinutes = new DoubleAdder();
+        private final CompletionTimeHistogram histogram = new CompletionTimeHistogram();
+
+        private void record(long completionMinutes, int sign) {
+            done.add(sign);
+            minutes.add(sign * completionMinutes);
+            squaredMinutes.add(sign * (double) completionMinutes * completionMinutes);
+            if (sign > 0) histogram.record(completionMinutes);
+            else histogram.remove(completionMinutes);
+        }
+    }
+
+    /**
+     * This class adds up the aggregates of one priority for a summary.
+     * @version: 1.0
+     */
+    private static final class Totals {
+        private String name;
+        private long tasks;
+        private long done;
+        private long minutes;
+        private double squaredMinutes;
+        private final long[] buckets = CompletionTimeHistogram.emptyBuckets();
+
+        private void add(PriorityStats stats) {
+            long priorityTasks = stats.tasks.sum();
+            if (name == null || priorityTasks > 0) name = stats.name;
+            tasks += priorityTasks;
+            done += stats.done.sum();
+            minutes += stats.minutes.sum();
+            squaredMinutes += stats.squaredMinutes.sum();
+            stats.histogram.mergeInto(buckets);
+        }
+    }
+}
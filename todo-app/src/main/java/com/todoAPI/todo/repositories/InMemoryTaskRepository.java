@@ -0,0 +1,334 @@
+package com.todoAPI.todo.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class stores the tasks in memory.
+ * The tasks live in a ConcurrentHashMap, which locks per hash bin instead of
+ * using a global lock. Stored tasks are never modified in place: updates copy
+ * the task, apply the changes and swap the copy in atomically.
+ * Filters on name, priority, status and due date are answered from secondary
+ * indexes, and completion times from running aggregates, all of them updated
+ * together with every change.
+ * Every change is also appended to a TaskLog, which is a no-op unless
+ * persistence is enabled.
+ * Each change increases the version of its task and, once the change is
+ * visible, the version of the store, and then notifies the change listeners.
+ * It is enabled with todo.storage.mode=heap, and it is also the store of
+ * every partition of a PartitionedTaskRepository.
+ * @version: 1.0
+ */
+@Repository
+@ConditionalOnProperty(name = "todo.storage.mode", havingValue = "heap")
+public class InMemoryTaskRepository implements TaskRepository {
+    private static final Comparator<Task> BY_DUE_DATE = Comparator.comparing(Task::getDueDate);
+    private static final Consumer<Task> NO_PRECONDITION = task -> { };
+    static final List<String> INDEX_NAMES = List.of("name.trigrams", "status.done", "status.undone");
+
+    private final ConcurrentHashMap<Integer, Task> tasks = new ConcurrentHashMap<>();
+    private final TaskAttributeIndex attributeIndex = new TaskAttributeIndex();
+    private final TaskNameIndex nameIndex = new TaskNameIndex();
+    private final CompletionTimeStats completionTimeStats = new CompletionTimeStats();
+    private final List<TaskIndex> indexes = List.of(attributeIndex, nameIndex, completionTimeStats);
+    private final TaskIdGenerator idGenerator;
+    private final TaskLog taskLog;
+    private final AtomicLong version = new AtomicLong();
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public InMemoryTaskRepository(TaskIdGenerator idGenerator) {
+        this(idGenerator, TaskLog.NONE);
+    }
+
+    /**
+     * This constructor creates a repository whose changes are recorded in the
+     * given log. The tasks persisted in the log are loaded first.
+     * @param: idGenerator - The generator of the task ids.
+     * @param: taskLog - The log of the changes.
+     * @version: 1.0
+     */
+    @Autowired
+    public InMemoryTaskRepository(TaskIdGenerator idGenerator, TaskLog taskLog) {
+        this.idGenerator = idGenerator;
+        this.taskLog = taskLog;
+
+        idGenerator.advancePast(taskLog.recover(tasks));
+        for (Task task : tasks.values()) {
+            for (TaskIndex index : indexes) index.add(task);
+        }
+    }
+
+    /**
+     * This constructor creates a repository that starts with tasks already
+     * recovered from the log, used for the partitions of a store that share
+     * one log and one id generator.
+     * @param: idGenerator - The generator of the task ids.
+     * @param: taskLog - The log of the changes.
+     * @param: recoveredTasks - The tasks to start with.
+     * @version: 1.0
+     */
+    InMemoryTaskRepository(TaskIdGenerator idGenerator, TaskLog taskLog, Collection<Task> recoveredTasks) {
+        this.idGenerator = idGenerator;
+        this.taskLog = taskLog;
+        for (Task task : recoveredTasks) {
+            tasks.put(task.getId(), task);
+            for (TaskIndex index : indexes) index.add(task);
+        }
+    }
+
+    @Override
+    public Task save(Task task) {
+        taskLog.awaitDurable(insert(task));
+        return task;
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasksToSave) {
+        long sequence = 0;
+        for (Task task : tasksToSave) sequence = insert(task);
+        taskLog.awaitDurable(sequence);
+        return tasksToSave;
+    }
+
+    @Override
+    public Task findById(int id) {
+        return tasks.get(id);
+    }
+
+    @Override
+    public Collection<Task> findAll() {
+        return Collections.unmodifiableCollection(tasks.values());
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDone(String name, int priority, Boolean isDone) {
+        ArrayList<Task> result = new ArrayList<>();
+        forEachMatching(name, priority, isDone, result::add);
+        return result;
+    }
+
+    @Override
+    public Spliterator<Task> matching(String name, int priority, Boolean isDone) {
+        String lowerCaseName = TaskNameIndex.lowerCase(name);
+        Collection<Integer> candidates = candidates(lowerCaseName, priority, isDone);
+        if (candidates == null) {
+            // Without a narrowing index, walk the tasks themselves instead of looking up every id.
+            return new MatchingSpliterator<>(tasks.values().spliterator(),
+                task -> matches(task, lowerCaseName, priority, isDone) ? task : null);
+        }
+        return new MatchingSpliterator<>(candidates.spliterator(), id -> {
+            Task task = tasks.get(id);
+            return task != null && matches(task, lowerCaseName, priority, isDone) ? task : null;
+        });
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDoneOrderByDueDate(String name, int priority, Boolean isDone, boolean descending) {
+        String lowerCaseName = TaskNameIndex.lowerCase(name);
+        Collection<Integer> candidates = candidates(lowerCaseName, priority, isDone);
+        ArrayList<Task> result = new ArrayList<>(candidates != null ? candidates.size() : 16);
+
+        // Walk the due date index unless the filter leaves few enough tasks to sort them directly.
+        if (candidates == null || candidates.size() * 4L > tasks.size()) {
+            for (TaskAttributeIndex.DueDateKey key : attributeIndex.dueDates(descending)) {
+                Task task = tasks.get(key.getTaskId());
+                // Skip entries left behind by a due date that is being changed right now.
+                if (task != null && key.getDueDate().equals(task.getDueDate()) && matches(task, lowerCaseName, priority, isDone)) result.add(task);
+            }
+            for (int id : attributeIndex.withoutDueDate()) {
+                Task task = tasks.get(id);
+                if (task != null && task.getDueDate() == null && matches(task, lowerCaseName, priority, isDone)) result.add(task);
+            }
+            return result;
+        }
+
+        ArrayList<Task> noDueDatedTasks = new ArrayList<>();
+        for (int id : candidates) {
+            Task task = tasks.get(id);
+            if (task == null || !matches(task, lowerCaseName, priority, isDone)) continue;
+            if (task.getDueDate() != null) result.add(task);
+            else noDueDatedTasks.add(task);
+        }
+        Comparator<Task> byDueDate = descending ? BY_DUE_DATE.reversed() : BY_DUE_DATE;
+        result.sort(byDueDate.thenComparing(Task::getId));
+        noDueDatedTasks.sort(Comparator.comparing(Task::getId));
+        result.addAll(noDueDatedTasks);
+        return result;
+    }
+
+    @Override
+    public Task update(int id, UnaryOperator<Task> updater) {
+        long[] sequence = new long[1];
+        Task updated = replace(id, updater, sequence);
+        taskLog.awaitDurable(sequence[0]);
+        return updated;
+    }
+
+    @Override
+    public Map<Integer, Task> updateAll(Map<Integer, UnaryOperator<Task>> updaters) {
+        long[] sequence = new long[1];
+        LinkedHashMap<Integer, Task> updated = new LinkedHashMap<>();
+        updaters.forEach((id, updater) -> {
+            Task task = replace(id, updater, sequence);
+            if (task != null) updated.put(id, task);
+        });
+        taskLog.awaitDurable(sequence[0]);
+        return updated;
+    }
+
+    @Override
+    public Task deleteById(int id, Consumer<Task> precondition) {
+        long[] sequence = new long[1];
+        Task deleted = remove(id, precondition, sequence);
+        taskLog.awaitDurable(sequence[0]);
+        return deleted;
+    }
+
+    @Override
+    public Map<Integer, Task> deleteAllById(Collection<Integer> ids) {
+        long[] sequence = new long[1];
+        LinkedHashMap<Integer, Task> deleted = new LinkedHashMap<>();
+        for (int id : ids) {
+            Task task = remove(id, NO_PRECONDITION, sequence);
+            if (task != null) deleted.put(id, task);
+        }
+        taskLog.awaitDurable(sequence[0]);
+        return deleted;
+    }
+
+    @Override
+    public int count() {
+        return tasks.size();
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public Map<String, CompletionTimeSummary> getCompletionTimes() {
+        return completionTimeStats.summaries();
+    }
+
+    // The running aggregates, which a partitioned store combines.
+    CompletionTimeStats completionTimeStats() {
+        return completionTimeStats;
+    }
+
+    @Override
+    public Map<String, Integer> getIndexSizes() {
+        LinkedHashMap<String, Integer> sizes = new LinkedHashMap<>();
+        sizes.put(INDEX_NAMES.get(0), nameIndex.size());
+        sizes.put(INDEX_NAMES.get(1), attributeIndex.status(true).size());
+        sizes.put(INDEX_NAMES.get(2), attributeIndex.status(false).size());
+        return sizes;
+    }
+
+    /**
+     * This method stores a new task, logging it and adding it to the indexes
+     * while holding its lock. The log record comes first so that a failing
+     * log leaves the indexes untouched.
+     * @return: sequence - The sequence number of the log record.
+     */
+    private long insert(Task task) {
+        task.assignId(idGenerator.nextId());
+        task.setVersion(1);
+        long[] sequence = new long[1];
+        tasks.compute(task.getId(), (key, current) -> {
+            sequence[0] = taskLog.append(task);
+            for (TaskIndex index : indexes) index.add(task);
+            return task;
+        });
+        changed(null, task);
+        return sequence[0];
+    }
+
+    /**
+     * This method swaps a task for an updated copy, logging it and moving it
+     * in the indexes while holding its lock.
+     * @return: task - The updated task, or null if it does not exist.
+     */
+    private Task replace(int id, UnaryOperator<Task> updater, long[] sequence) {
+        Task[] before = new Task[1];
+        Task replaced = tasks.computeIfPresent(id, (key, current) -> {
+            before[0] = current;
+            Task updated = updater.apply(new Task(current));
+            updated.setVersion(current.getVersion() + 1);
+            sequence[0] = taskLog.append(updated);
+            for (TaskIndex index : indexes) index.update(current, updated);
+            return updated;
+        });
+        if (replaced != null) changed(before[0], replaced);
+        return replaced;
+    }
+
+    /**
+     * This method deletes a task, logging it and removing it from the indexes
+     * while holding its lock.
+     * @return: task - The deleted task, or null if it does not exist.
+     */
+    private Task remove(int id, Consumer<Task> precondition, long[] sequence) {
+        Task[] deleted = new Task[1];
+        tasks.computeIfPresent(id, (key, current) -> {
+            precondition.accept(current);
+            sequence[0] = taskLog.appendDelete(id);
+            for (TaskIndex index : indexes) index.remove(current);
+            deleted[0] = current;
+            return null;
+        });
+        if (deleted[0] != null) changed(deleted[0], null);
+        return deleted[0];
+    }
+
+    // Runs once the change is visible, outside of the lock of the task.
+    private void changed(Task before, Task after) {
+        version.incrementAndGet();
+        for (TaskChangeListener listener : listeners) listener.changed(before, after);
+    }
+
+    /**
+     * This method picks the smallest index set that covers the filter.
+     * The other conditions are checked on each task afterwards.
+     * @return: ids - The candidate ids, or null when no index narrows the filter.
+     */
+    private Collection<Integer> candidates(String lowerCaseName, int priority, Boolean isDone) {
+        Collection<Integer> smallest = lowerCaseName.isEmpty() ? null : nameIndex.candidates(lowerCaseName);
+        if (priority != 0) smallest = smaller(smallest, attributeIndex.priority(priority));
+        if (isDone != null) smallest = smaller(smallest, attributeIndex.status(isDone));
+        return smallest;
+    }
+
+    private static Collection<Integer> smaller(Collection<Integer> first, Collection<Integer> second) {
+        return (first == null || second.size() < first.size()) ? second : first;
+    }
+
+    private boolean matches(Task task, String lowerCaseName, int priority, Boolean isDone) {
+        return (priority == 0 || task.getPriority() == priority)
+            && (isDone == null || task.getIsDone() == isDone)
+            && (lowerCaseName.isEmpty() || nameIndex.contains(task.getId(), lowerCaseName));
+    }
+}
@@ -0,0 +1,347 @@
+package com.todoAPI.todo.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class stores the tasks off the heap, in the memory-mapped columns of
+ * a MappedTaskStore. It is enabled with todo.storage.mode=mapped, and the
+ * files live in todo.storage.directory.
+ *
+ * No Task objects are kept: reads build them from the columns, and scans
+ * move a flyweight view over the slots, testing the priority, status and
+ * name columns before building the tasks they return. Restarting only maps
+ * the files again and counts the live slots; the write-ahead log is not used
+ * because the mapped files are the storage themselves.
+ *
+ * Slots are guarded by striped StampedLocks. Writers take the write lock of
+ * the slot, and readers read optimistically and fall back to the read lock
+ * when a writer got in the way.
+ *
+ * Dates are stored with a precision of seconds.
+ * @version: 1.0
+ */
+@Repository
+@ConditionalOnProperty(name = "todo.storage.mode", havingValue = "mapped")
+public class MappedTaskRepository implements TaskRepository, Closeable {
+    private static final int STRIPES = 1024;
+    private static final Comparator<Task> BY_DUE_DATE = Comparator.comparing(Task::getDueDate);
+
+    private final MappedTaskStore store;
+    private final StampedLock[] locks = new StampedLock[STRIPES];
+    private final CompletionTimeStats completionTimeStats = new CompletionTimeStats();
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicLong version = new AtomicLong();
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final TaskIdGenerator idGenerator;
+
+    @Autowired
+    public MappedTaskRepository(TaskIdGenerator idGenerator, @Value("${todo.storage.directory:data}") String directory) {
+        this(idGenerator, Paths.get(directory));
+    }
+
+    /**
+     * This constructor opens the store in the given directory and rebuilds
+     * the completion time aggregates from it.
+     * @param: idGenerator - The generator of the task ids.
+     * @param: directory - The directory of the mapped files.
+     * @version: 1.0
+     */
+    public MappedTaskRepository(TaskIdGenerator idGenerator, Path directory) {
+        this.idGenerator = idGenerator;
+        this.store = new MappedTaskStore(directory);
+        for (int i = 0; i < STRIPES; i++) locks[i] = new StampedLock();
+
+        idGenerator.advancePast(store.highestId());
+        MappedTaskView view = new MappedTaskView(store);
+        int end = Math.min(store.highestId(), store.capacity());
+        for (int slot = 0; slot < end; slot++) {
+            if (!view.moveTo(slot).isLive()) continue;
+            completionTimeStats.add(view.toTask());
+            count.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Task save(Task task) {
+        task.assignId(idGenerator.nextId());
+        task.setVersion(1);
+        truncateDates(task);
+        int slot = task.getId() - 1;
+        StampedLock lock = lockOf(slot);
+        long stamp = lock.writeLock();
+        try {
+            write(slot, task, null);
+            completionTimeStats.add(task);
+            count.incrementAndGet();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        changed(null, task);
+        return task;
+    }
+
+    @Override
+    public Task findById(int id) {
+        int slot = id - 1;
+        if (slot < 0) return null;
+        return read(new MappedTaskView(store), slot, "", 0, null);
+    }
+
+    @Override
+    public Collection<Task> findAll() {
+        return scan("", 0, null);
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDone(String name, int priority, Boolean isDone) {
+        return scan(TaskNameIndex.lowerCase(name), priority, isDone);
+    }
+
+    @Override
+    public Spliterator<Task> matching(String name, int priority, Boolean isDone) {
+        return new SlotSpliterator(0, Math.min(store.highestId(), store.capacity()), TaskNameIndex.lowerCase(name), priority, isDone);
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDoneOrderByDueDate(String name, int priority, Boolean isDone, boolean descending) {
+        ArrayList<Task> result = new ArrayList<>();
+        ArrayList<Task> noDueDatedTasks = new ArrayList<>();
+        for (Task task : scan(TaskNameIndex.lowerCase(name), priority, isDone)) {
+            if (task.getDueDate() != null) result.add(task);
+            else noDueDatedTasks.add(task);
+        }
+        // Scans return the tasks by id, and the sort is stable, so ties stay ordered by id.
+        result.sort(descending ? BY_DUE_DATE.reversed() : BY_DUE_DATE);
+        result.addAll(noDueDatedTasks);
+        return result;
+    }
+
+    @Override
+    public Task update(int id, UnaryOperator<Task> updater) {
+        int slot = id - 1;
+        if (slot < 0) return null;
+        StampedLock lock = lockOf(slot);
+        long stamp = lock.writeLock();
+        Task current;
+        Task updated;
+        try {
+            MappedTaskView view = new MappedTaskView(store).moveTo(slot);
+            if (!view.isLive()) return null;
+            current = view.toTask();
+            updated = updater.apply(new Task(current));
+            updated.setVersion(current.getVersion() + 1);
+            truncateDates(updated);
+            write(slot, updated, current);
+            completionTimeStats.update(current, updated);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        changed(current, updated);
+        return updated;
+    }
+
+    @Override
+    public Task deleteById(int id, Consumer<Task> precondition) {
+        int slot = id - 1;
+        if (slot < 0) return null;
+        StampedLock lock = lockOf(slot);
+        long stamp = lock.writeLock();
+        Task deleted;
+        try {
+            MappedTaskView view = new MappedTaskView(store).moveTo(slot);
+            if (!view.isLive()) return null;
+            deleted = view.toTask();
+            precondition.accept(deleted);
+            store.clear(slot);
+            completionTimeStats.remove(deleted);
+            count.decrementAndGet();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        changed(deleted, null);
+        return deleted;
+    }
+
+    @Override
+    public int count() {
+        return count.get();
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public Map<String, CompletionTimeSummary> getCompletionTimes() {
+        return completionTimeStats.summaries();
+    }
+
+    /**
+     * This method writes the mapped pages to disk.
+     * @version: 1.0
+     */
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    /**
+     * This method returns the tasks that match a filter, ordered by id.
+     */
+    private List<Task> scan(String lowerCaseName, int priority, Boolean isDone) {
+        ArrayList<Task> result = new ArrayList<>();
+        new SlotSpliterator(0, Math.min(store.highestId(), store.capacity()), lowerCaseName, priority, isDone).forEachRemaining(result::add);
+        return result;
+    }
+
+    /**
+     * This class walks a range of slots in order, returning the tasks that
+     * match a filter. Ranges split in halves, each part with its own view.
+     */
+    private final class SlotSpliterator implements Spliterator<Task> {
+        private final MappedTaskView view = new MappedTaskView(store);
+        private final String lowerCaseName;
+        private final int priority;
+        private final Boolean isDone;
+        private int slot;
+        private final int end;
+
+        SlotSpliterator(int slot, int end, String lowerCaseName, int priority, Boolean isDone) {
+            this.slot = slot;
+            this.end = end;
+            this.lowerCaseName = lowerCaseName;
+            this.priority = priority;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Task> action) {
+            while (slot < end) {
+                Task task = read(view, slot++, lowerCaseName, priority, isDone);
+                if (task != null) {
+                    action.accept(task);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Task> action) {
+            for (; slot < end; slot++) {
+                Task task = read(view, slot, lowerCaseName, priority, isDone);
+                if (task != null) action.accept(task);
+            }
+        }
+
+        @Override
+        public Spliterator<Task> trySplit() {
+            int middle = (slot + end) >>> 1;
+            if (middle <= slot) return null;
+            SlotSpliterator prefix = new SlotSpliterator(slot, middle, lowerCaseName, priority, isDone);
+            slot = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - slot;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | DISTINCT | CONCURRENT;
+        }
+    }
+
+    /**
+     * This method builds the task of a slot if it matches the filter. The
+     * columns are read without locking first, and read again under the read
+     * lock if a writer changed them meanwhile. A torn read may even point
+     * outside the name arena, so its errors are handled the same way.
+     * @return: task - The task, or null if the slot is empty or does not match.
+     */
+    private Task read(MappedTaskView view, int slot, String lowerCaseName, int priority, Boolean isDone) {
+        view.moveTo(slot);
+        StampedLock lock = lockOf(slot);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Task task = view.matches(lowerCaseName, priority, isDone) ? view.toTask() : null;
+                if (lock.validate(stamp)) return task;
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) throw e;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return view.matches(lowerCaseName, priority, isDone) ? view.toTask() : null;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method writes a task to its slot, appending its name to the arena
+     * only if it is new or changed.
+     */
+    private void write(int slot, Task task, Task previous) {
+        String name = previous != null && previous.getName().equals(task.getName()) ? null : task.getName();
+        store.write(slot, name, task.getPriority(), task.getPriorityName(), task.getIsDone(),
+            MappedTaskView.toEpochSecond(task.getDueDate()),
+            MappedTaskView.toEpochSecond(task.getDoneDate()),
+            MappedTaskView.toEpochSecond(task.getCreatedDate()),
+            task.getVersion());
+    }
+
+    // Runs once the change is visible, after the lock of the slot is released.
+    private void changed(Task before, Task after) {
+        version.incrementAndGet();
+        for (TaskChangeListener listener : listeners) listener.changed(before, after);
+    }
+
+    // The returned tasks carry the dates as they are stored.
+    private static void truncateDates(Task task) {
+        task.setDueDate(truncate(task.getDueDate()));
+        task.setDoneDate(truncate(task.getDoneDate()));
+        task.setCreatedDate(truncate(task.getCreatedDate()));
+    }
+
+    private static LocalDateTime truncate(LocalDateTime date) {
+        return date == null ? null : date.withNano(0);
+    }
+
+    // All the slots of a bitset word share a lock, so bit updates never race.
+    private StampedLock lockOf(int slot) {
+        return locks[MappedTaskStore.wordOf(slot) & (STRIPES - 1)];
+    }
+}
@@ -0,0 +1,319 @@
+package com.todoAPI.todo.repositories;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * This class keeps the fields of the tasks in memory-mapped files, one column
+ * per field, so the tasks take no heap and survive a restart without being
+ * loaded again.
+ *
+ * The task with id N lives in slot N - 1. Slots are grouped in chunk files
+ * (tasks-K.col) of CHUNK_SLOTS slots, each of them laid out by column: the
+ * due, done and created dates as epoch seconds in UTC (NO_DATE for null),
+ * the offset and length of the name in the name arena, the version of the
+ * task, the priority as a byte, and two bitsets that tell whether the slot holds a task and whether
+ * the task is done.
+ *
+ * Names are appended as UTF-8 to the arena files (names-K.arena). A renamed
+ * task gets new bytes and the old ones are not reclaimed. The priority names
+ * are kept once per priority in a dictionary in the header file, together
+ * with the highest id ever stored and the end of the arena.
+ *
+ * The class does no locking. Writers of slots that share a word of the
+ * bitsets must be serialized by the caller, see wordOf().
+ * @version: 1.0
+ */
+class MappedTaskStore implements Closeable {
+    static final long NO_DATE = Long.MIN_VALUE;
+    static final int CHUNK_SLOTS = 1 << 20;
+    static final int ARENA_CHUNK_BYTES = 1 << 26;
+
+    private static final long DUE_DATES = 0;
+    private static final long DONE_DATES = DUE_DATES + 8L * CHUNK_SLOTS;
+    private static final long CREATED_DATES = DONE_DATES + 8L * CHUNK_SLOTS;
+    private static final long NAME_OFFSETS = CREATED_DATES + 8L * CHUNK_SLOTS;
+    private static final long NAME_LENGTHS = NAME_OFFSETS + 8L * CHUNK_SLOTS;
+    private static final long VERSIONS = NAME_LENGTHS + 4L * CHUNK_SLOTS;
+    private static final long PRIORITIES = VERSIONS + 8L * CHUNK_SLOTS;
+    private static final long LIVE_BITS = PRIORITIES + CHUNK_SLOTS;
+    private static final long DONE_BITS = LIVE_BITS + CHUNK_SLOTS / 8;
+    private static final long CHUNK_BYTES = DONE_BITS + CHUNK_SLOTS / 8;
+
+    // Header: highest id, end of the arena, then an (offset, length) per priority.
+    private static final int HIGHEST_ID = 0;
+    private static final int ARENA_END = 8;
+    private static final int PRIORITY_NAMES = 16;
+    private static final int HEADER_BYTES = PRIORITY_NAMES + 256 * 12;
+
+    private final Path directory;
+    private final MappedByteBuffer header;
+    private volatile MappedByteBuffer[] chunks;
+    private volatile MappedByteBuffer[] arena;
+    private final String[] priorityNames = new String[256];
+    private long arenaEnd;
+
+    /**
+     * This constructor opens the store in the given directory, mapping the
+     * files that already exist.
+     * @param: directory - The directory of the mapped files.
+     * @version: 1.0
+     */
+    MappedTaskStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            header = map(directory.resolve("tasks.meta"), HEADER_BYTES);
+            arenaEnd = header.getLong(ARENA_END);
+
+            int chunkCount = 0;
+            while (Files.exists(chunkFile(chunkCount))) chunkCount++;
+            MappedByteBuffer[] mappedChunks = new MappedByteBuffer[chunkCount];
+            for (int i = 0; i < chunkCount; i++) mappedChunks[i] = map(chunkFile(i), CHUNK_BYTES);
+            chunks = mappedChunks;
+
+            int arenaCount = (int) ((arenaEnd + ARENA_CHUNK_BYTES - 1) / ARENA_CHUNK_BYTES);
+            MappedByteBuffer[] mappedArena = new MappedByteBuffer[arenaCount];
+            for (int i = 0; i < arenaCount; i++) mappedArena[i] = map(arenaFile(i), ARENA_CHUNK_BYTES);
+            arena = mappedArena;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (int priority = 0; priority < 256; priority++) {
+            int entry = PRIORITY_NAMES + priority * 12;
+            int length = header.getInt(entry + 8);
+            if (length > 0) priorityNames[priority] = readString(header.getLong(entry), length);
+        }
+    }
+
+    /**
+     * This method returns the number of slots that are mapped.
+     * @version: 1.0
+     * @return: capacity - The number of slots.
+     */
+    int capacity() {
+        return chunks.length * CHUNK_SLOTS;
+    }
+
+    int highestId() {
+        return (int) header.getLong(HIGHEST_ID);
+    }
+
+    /**
+     * This method returns the index of the bitset word of a slot. Slots with
+     * the same word must not be written at the same time.
+     * @param: slot - The slot.
+     * @version: 1.0
+     * @return: word - The index of the word.
+     */
+    static int wordOf(int slot) {
+        return slot >>> 6;
+    }
+
+    boolean isLive(int slot) {
+        return slot < capacity() && bit(slot, LIVE_BITS);
+    }
+
+    boolean isDone(int slot) {
+        return bit(slot, DONE_BITS);
+    }
+
+    int priority(int slot) {
+        return chunk(slot).get(index(slot, PRIORITIES, 1)) & 0xFF;
+    }
+
+    String priorityName(int priority) {
+        return priorityNames[priority];
+    }
+
+    long dueDate(int slot) {
+        return chunk(slot).getLong(index(slot, DUE_DATES, 8));
+    }
+
+    long doneDate(int slot) {
+        return chunk(slot).getLong(index(slot, DONE_DATES, 8));
+    }
+
+    long createdDate(int slot) {
+        return chunk(slot).getLong(index(slot, CREATED_DATES, 8));
+    }
+
+    long version(int slot) {
+        return chunk(slot).getLong(index(slot, VERSIONS, 8));
+    }
+
+    String name(int slot) {
+        MappedByteBuffer chunk = chunk(slot);
+        return readString(chunk.getLong(index(slot, NAME_OFFSETS, 8)), chunk.getInt(index(slot, NAME_LENGTHS, 4)));
+    }
+
+    /**
+     * This method writes every column of a slot and marks it as live.
+     * @param: slot - The slot.
+     * @param: name - The name, or null to keep the current one.
+     * @version: 1.0
+     */
+    void write(int slot, String name, int priority, String priorityName, boolean isDone, long dueDate, long doneDate, long createdDate, long version) {
+        ensureCapacity(slot);
+        MappedByteBuffer chunk = chunk(slot);
+        if (name != null) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            chunk.putLong(index(slot, NAME_OFFSETS, 8), appendToArena(bytes));
+            chunk.putInt(index(slot, NAME_LENGTHS, 4), bytes.length);
+        }
+        if (priorityNames[priority] == null && priorityName != null) definePriority(priority, priorityName);
+        chunk.put(index(slot, PRIORITIES, 1), (byte) priority);
+        chunk.putLong(index(slot, DUE_DATES, 8), dueDate);
+        chunk.putLong(index(slot, DONE_DATES, 8), doneDate);
+        chunk.putLong(index(slot, CREATED_DATES, 8), createdDate);
+        chunk.putLong(index(slot, VERSIONS, 8), version);
+        setBit(slot, DONE_BITS, isDone);
+        setBit(slot, LIVE_BITS, true);
+        raiseHighestId(slot + 1);
+    }
+
+    /**
+     * This method marks a slot as empty. The columns keep their values until
+     * the slot is written again.
+     * @param: slot - The slot.
+     * @version: 1.0
+     */
+    void clear(int slot) {
+        setBit(slot, LIVE_BITS, false);
+    }
+
+    /**
+     * This method counts the live slots.
+     * @version: 1.0
+     * @return: count - The number of stored tasks.
+     */
+    int countLive() {
+        int count = 0;
+        for (MappedByteBuffer chunk : chunks) {
+            for (int word = 0; word < CHUNK_SLOTS / 64; word++) count += Long.bitCount(chunk.getLong((int) LIVE_BITS + word * 8));
+        }
+        return count;
+    }
+
+    /**
+     * This method writes the mapped pages to disk.
+     * @version: 1.0
+     */
+    @Override
+    public synchronized void close() {
+        for (MappedByteBuffer chunk : chunks) chunk.force();
+        for (MappedByteBuffer arenaChunk : arena) arenaChunk.force();
+        header.force();
+    }
+
+    private void raiseHighestId(int id) {
+        if (id <= header.getLong(HIGHEST_ID)) return;
+        synchronized (this) {
+            if (id > header.getLong(HIGHEST_ID)) header.putLong(HIGHEST_ID, id);
+        }
+    }
+
+    private synchronized void definePriority(int priority, String priorityName) {
+        if (priorityNames[priority] != null) return;
+        byte[] bytes = priorityName.getBytes(StandardCharsets.UTF_8);
+        int entry = PRIORITY_NAMES + priority * 12;
+        header.putLong(entry, appendToArena(bytes));
+        header.putInt(entry + 8, bytes.length);
+        priorityNames[priority] = priorityName;
+    }
+
+    /**
+     * This method copies bytes to the end of the arena. A name never spans
+     * two arena files, so it starts in the next file if it does not fit.
+     * @return: offset - The offset of the bytes in the arena.
+     */
+    private synchronized long appendToArena(byte[] bytes) {
+        long offset = arenaEnd;
+        if (offset % ARENA_CHUNK_BYTES + bytes.length > ARENA_CHUNK_BYTES) offset = (offset / ARENA_CHUNK_BYTES + 1) * ARENA_CHUNK_BYTES;
+        int file = (int) (offset / ARENA_CHUNK_BYTES);
+        if (file >= arena.length) {
+            MappedByteBuffer[] grown = Arrays.copyOf(arena, file + 1);
+            try {
+                for (int i = arena.length; i <= file; i++) grown[i] = map(arenaFile(i), ARENA_CHUNK_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            arena = grown;
+        }
+        ByteBuffer target = arena[file].duplicate();
+        target.position((int) (offset % ARENA_CHUNK_BYTES));
+        target.put(bytes);
+        arenaEnd = offset + bytes.length;
+        header.putLong(ARENA_END, arenaEnd);
+        return offset;
+    }
+
+    private String readString(long offset, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer source = arena[(int) (offset / ARENA_CHUNK_BYTES)].duplicate();
+        source.position((int) (offset % ARENA_CHUNK_BYTES));
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int slot) {
+        if (slot < capacity()) return;
+        synchronized (this) {
+            int needed = slot / CHUNK_SLOTS + 1;
+            if (needed <= chunks.length) return;
+            MappedByteBuffer[] grown = Arrays.copyOf(chunks, needed);
+            try {
+                for (int i = chunks.length; i < needed; i++) grown[i] = map(chunkFile(i), CHUNK_BYTES);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            chunks = grown;
+        }
+    }
+
+    private boolean bit(int slot, long bitset) {
+        int within = slot % CHUNK_SLOTS;
+        long word = chunk(slot).getLong((int) bitset + (within >>> 6) * 8);
+        return (word & (1L << within)) != 0;
+    }
+
+    private void setBit(int slot, long bitset, boolean value) {
+        int within = slot % CHUNK_SLOTS;
+        int position = (int) bitset + (within >>> 6) * 8;
+        MappedByteBuffer chunk = chunk(slot);
+        long word = chunk.getLong(position);
+        chunk.putLong(position, value ? word | (1L << within) : word & ~(1L << within));
+    }
+
+    private MappedByteBuffer chunk(int slot) {
+        return chunks[slot / CHUNK_SLOTS];
+    }
+
+    private static int index(int slot, long column, int width) {
+        return (int) column + (slot % CHUNK_SLOTS) * width;
+    }
+
+    private Path chunkFile(int number) {
+        return directory.resolve("tasks-" + number + ".col");
+    }
+
+    private Path arenaFile(int number) {
+        return directory.resolve("names-" + number + ".arena");
+    }
+
+    private static MappedByteBuffer map(Path path, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
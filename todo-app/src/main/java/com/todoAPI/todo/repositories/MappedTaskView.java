@@ -0,0 +1,114 @@
+package com.todoAPI.todo.repositories;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class is a flyweight view of one slot of a MappedTaskStore. It has the
+ * same accessors as Task but reads every field straight from the mapped
+ * columns, so a scan can move a single view over millions of slots and only
+ * build Task objects for the ones it returns.
+ * A view is not thread-safe and its values are only consistent while the
+ * caller holds, or later validates, the lock of the slot.
+ * @version: 1.0
+ */
+class MappedTaskView {
+    private final MappedTaskStore store;
+    private int slot;
+
+    MappedTaskView(MappedTaskStore store) {
+        this.store = store;
+    }
+
+    /**
+     * This method points the view to another slot.
+     * @param: slot - The slot.
+     * @version: 1.0
+     * @return: view - This view.
+     */
+    MappedTaskView moveTo(int slot) {
+        this.slot = slot;
+        return this;
+    }
+
+    boolean isLive() {
+        return store.isLive(slot);
+    }
+
+    public int getId() {
+        return slot + 1;
+    }
+
+    public String getName() {
+        return store.name(slot);
+    }
+
+    public LocalDateTime getDueDate() {
+        return toDate(store.dueDate(slot));
+    }
+
+    public int getPriority() {
+        return store.priority(slot);
+    }
+
+    public String getPriorityName() {
+        return store.priorityName(getPriority());
+    }
+
+    public boolean getIsDone() {
+        return store.isDone(slot);
+    }
+
+    public LocalDateTime getDoneDate() {
+        return toDate(store.doneDate(slot));
+    }
+
+    public LocalDateTime getCreatedDate() {
+        return toDate(store.createdDate(slot));
+    }
+
+    public long getVersion() {
+        return store.version(slot);
+    }
+
+    /**
+     * This method checks a live task against a filter, reading the name
+     * only when the cheaper columns match.
+     * @param: lowerCaseName - The lower case text the name must contain, or an empty string.
+     * @param: priority - The priority, or 0 for any.
+     * @param: isDone - The status, or null for any.
+     * @version: 1.0
+     * @return: matches - Whether the task matches.
+     */
+    boolean matches(String lowerCaseName, int priority, Boolean isDone) {
+        return isLive()
+            && (priority == 0 || getPriority() == priority)
+            && (isDone == null || getIsDone() == isDone)
+            && (lowerCaseName.isEmpty() || TaskNameIndex.lowerCase(getName()).contains(lowerCaseName));
+    }
+
+    /**
+     * This method copies the task of the slot into a new Task.
+     * @version: 1.0
+     * @return: task - The task.
+     */
+    Task toTask() {
+        Task task = new Task(getName(), getDueDate(), getPriority(), getPriorityName());
+        task.assignId(getId());
+        task.setIsDone(getIsDone());
+        task.setDoneDate(getDoneDate());
+        task.setCreatedDate(getCreatedDate());
+        task.setVersion(getVersion());
+        return task;
+    }
+
+    static long toEpochSecond(LocalDateTime date) {
+        return date == null ? MappedTaskStore.NO_DATE : date.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toDate(long epochSecond) {
+        return epochSecond == MappedTaskStore.NO_DATE ? null : LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,72 @@
+package com.todoAPI.todo.repositories;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class turns a spliterator of stored entries, such as the ids of an
+ * index or the tasks of a map, into a spliterator of the matching tasks. It
+ * splits wherever its source splits, so a parallel scan can hand the parts
+ * of a store to different threads.
+ * @version: 1.0
+ */
+final class MatchingSpliterator<E> implements Spliterator<Task> {
+    private final Spliterator<E> source;
+    private final Function<E, Task> matcher;
+    private Task next;
+
+    /**
+     * This constructor wraps a source of entries.
+     * @param: source - The entries.
+     * @param: matcher - The function that returns the task of an entry if it matches, or null.
+     * @version: 1.0
+     */
+    MatchingSpliterator(Spliterator<E> source, Function<E, Task> matcher) {
+        this.source = source;
+        this.matcher = matcher;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Task> action) {
+        while (source.tryAdvance(this::match)) {
+            if (next == null) continue;
+            Task task = next;
+            next = null;
+            action.accept(task);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Task> action) {
+        source.forEachRemaining(entry -> {
+            Task task = matcher.apply(entry);
+            if (task != null) action.accept(task);
+        });
+    }
+
+    @Override
+    public Spliterator<Task> trySplit() {
+        Spliterator<E> prefix = source.trySplit();
+        return prefix == null ? null : new MatchingSpliterator<>(prefix, matcher);
+    }
+
+    // The size of the source is an upper bound: some entries do not match.
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return (source.characteristics() & (CONCURRENT | IMMUTABLE)) | NONNULL | DISTINCT;
+    }
+
+    private void match(E entry) {
+        next = matcher.apply(entry);
+    }
+}
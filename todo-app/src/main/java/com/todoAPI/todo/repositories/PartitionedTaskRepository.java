@@ -0,0 +1,390 @@
+package com.todoAPI.todo.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.StreamSupport;
+
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class stores the tasks in memory, partitioned by owner. Every owner
+ * gets an InMemoryTaskRepository of its own, with its own map, indexes,
+ * aggregates and version, so the tasks of one owner never slow down the
+ * queries of another: a query of a partition only touches that partition.
+ *
+ * The partitions are spread across a fixed number of in-process shards
+ * (todo.storage.shards) by a consistent-hash ring of the owners, so looking
+ * up or creating a partition only contends with the owners of the same
+ * shard. Partitions are created with the first task of their owner and are
+ * kept when they become empty. Until then, partition() returns a view of the
+ * owner that reads as empty and creates the partition on the first save, so
+ * reads of unknown owners never allocate one.
+ *
+ * The partitions share the id generator and the TaskLog, so ids are unique
+ * across owners and the log is recovered once and split by owner. The store
+ * itself answers for every owner at once, which the reminders, the metrics
+ * and the export of all tasks use; it finds the partition of a task by id in
+ * a directory kept up to date by the changes of the partitions.
+ * It is the default store, or todo.storage.mode=partitioned.
+ * @version: 1.0
+ */
+@Repository
+@ConditionalOnProperty(name = "todo.storage.mode", havingValue = "partitioned", matchIfMissing = true)
+public class PartitionedTaskRepository implements TaskRepository {
+    private static final int POINTS_PER_SHARD = 64;
+
+    private final TaskIdGenerator idGenerator;
+    private final TaskLog taskLog;
+    private final List<Shard> shards = new ArrayList<>();
+    private final TaskShardRouter<Shard> router;
+    private final ConcurrentHashMap<Integer, InMemoryTaskRepository> partitionsById = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final InMemoryTaskRepository emptyPartition;
+
+    public PartitionedTaskRepository(TaskIdGenerator idGenerator, int shardCount) {
+        this(idGenerator, TaskLog.NONE, shardCount);
+    }
+
+    /**
+     * This constructor creates a store with the given number of shards whose
+     * changes are recorded in the given log. The tasks persisted in the log
+     * are loaded into the partitions of their owners first.
+     * @param: idGenerator - The generator of the task ids.
+     * @param: taskLog - The log of the changes.
+     * @param: shardCount - The number of shards.
+     * @version: 1.0
+     */
+    @Autowired
+    public PartitionedTaskRepository(TaskIdGenerator idGenerator, TaskLog taskLog, @Value("${todo.storage.shards:8}") int shardCount) {
+        this.idGenerator = idGenerator;
+        this.taskLog = taskLog;
+        for (int i = 0; i < shardCount; i++) shards.add(new Shard());
+        this.router = new TaskShardRouter<>(shards, POINTS_PER_SHARD);
+        this.emptyPartition = new InMemoryTaskRepository(idGenerator, TaskLog.NONE, Collections.emptyList());
+
+        ConcurrentHashMap<Integer, Task> recovered = new ConcurrentHashMap<>();
+        idGenerator.advancePast(taskLog.recover(recovered));
+        HashMap<String, List<Task>> byOwner = new HashMap<>();
+        for (Task task : recovered.values()) byOwner.computeIfAbsent(keyOf(task.getOwner()), key -> new ArrayList<>()).add(task);
+        byOwner.forEach((key, tasks) -> {
+            InMemoryTaskRepository partition = newPartition(tasks);
+            router.route(key).partitions.put(key, partition);
+            for (Task task : tasks) partitionsById.put(task.getId(), partition);
+        });
+    }
+
+    @Override
+    public boolean isPartitioned() {
+        return true;
+    }
+
+    @Override
+    public TaskRepository partition(String owner) {
+        String key = keyOf(owner);
+        InMemoryTaskRepository partition = router.route(key).partitions.get(key);
+        return partition != null ? partition : new OwnerView(owner, key);
+    }
+
+    @Override
+    public Task save(Task task) {
+        return partitionOf(task.getOwner()).save(task);
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        LinkedHashMap<String, List<Task>> byOwner = new LinkedHashMap<>();
+        for (Task task : tasks) byOwner.computeIfAbsent(keyOf(task.getOwner()), key -> new ArrayList<>()).add(task);
+        byOwner.values().forEach(ownerTasks -> partitionOf(ownerTasks.get(0).getOwner()).saveAll(ownerTasks));
+        return tasks;
+    }
+
+    @Override
+    public Task findById(int id) {
+        InMemoryTaskRepository partition = partitionsById.get(id);
+        return partition != null ? partition.findById(id) : null;
+    }
+
+    @Override
+    public Collection<Task> findAll() {
+        List<InMemoryTaskRepository> partitions = partitions();
+        return new AbstractCollection<Task>() {
+            @Override
+            public Iterator<Task> iterator() {
+                return partitions.stream().flatMap(partition -> partition.findAll().stream()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return partitions.stream().mapToInt(InMemoryTaskRepository::count).sum();
+            }
+        };
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDone(String name, int priority, Boolean isDone) {
+        ArrayList<Task> result = new ArrayList<>();
+        forEachMatching(name, priority, isDone, result::add);
+        return result;
+    }
+
+    @Override
+    public void forEachMatching(String name, int priority, Boolean isDone, Consumer<Task> action) {
+        for (InMemoryTaskRepository partition : partitions()) partition.forEachMatching(name, priority, isDone, action);
+    }
+
+    @Override
+    public Spliterator<Task> matching(String name, int priority, Boolean isDone) {
+        return partitions().stream()
+            .flatMap(partition -> StreamSupport.stream(partition.matching(name, priority, isDone), false))
+            .spliterator();
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDoneOrderByDueDate(String name, int priority, Boolean isDone, boolean descending) {
+        List<Task> result = findByNameAndPriorityAndIsDone(name, priority, isDone);
+        Comparator<LocalDateTime> byDueDate = descending ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        result.sort(Comparator.comparing(Task::getDueDate, Comparator.nullsLast(byDueDate)).thenComparingInt(Task::getId));
+        return result;
+    }
+
+    @Override
+    public Task update(int id, UnaryOperator<Task> updater) {
+        InMemoryTaskRepository partition = partitionsById.get(id);
+        return partition != null ? partition.update(id, updater) : null;
+    }
+
+    @Override
+    public Map<Integer, Task> updateAll(Map<Integer, UnaryOperator<Task>> updaters) {
+        HashMap<InMemoryTaskRepository, Map<Integer, UnaryOperator<Task>>> byPartition = new HashMap<>();
+        updaters.forEach((id, updater) -> {
+            InMemoryTaskRepository partition = partitionsById.get(id);
+            if (partition != null) byPartition.computeIfAbsent(partition, key -> new LinkedHashMap<>()).put(id, updater);
+        });
+        Map<Integer, Task> updated = new HashMap<>();
+        byPartition.forEach((partition, partitionUpdaters) -> updated.putAll(partition.updateAll(partitionUpdaters)));
+        return inOrder(updaters.keySet(), updated);
+    }
+
+    @Override
+    public Task deleteById(int id, Consumer<Task> precondition) {
+        InMemoryTaskRepository partition = partitionsById.get(id);
+        return partition != null ? partition.deleteById(id, precondition) : null;
+    }
+
+    @Override
+    public Map<Integer, Task> deleteAllById(Collection<Integer> ids) {
+        HashMap<InMemoryTaskRepository, List<Integer>> byPartition = new HashMap<>();
+        for (int id : ids) {
+            InMemoryTaskRepository partition = partitionsById.get(id);
+            if (partition != null) byPartition.computeIfAbsent(partition, key -> new ArrayList<>()).add(id);
+        }
+        Map<Integer, Task> deleted = new HashMap<>();
+        byPartition.forEach((partition, partitionIds) -> deleted.putAll(partition.deleteAllById(partitionIds)));
+        return inOrder(ids, deleted);
+    }
+
+    @Override
+    public int count() {
+        int count = 0;
+        for (InMemoryTaskRepository partition : partitions()) count += partition.count();
+        return count;
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public Map<String, CompletionTimeSummary> getCompletionTimes() {
+        List<CompletionTimeStats> aggregates = new ArrayList<>();
+        for (InMemoryTaskRepository partition : partitions()) aggregates.add(partition.completionTimeStats());
+        return CompletionTimeStats.summaries(aggregates);
+    }
+
+    @Override
+    public Map<String, Integer> getIndexSizes() {
+        LinkedHashMap<String, Integer> sizes = new LinkedHashMap<>();
+        for (String index : InMemoryTaskRepository.INDEX_NAMES) sizes.put(index, 0);
+        for (InMemoryTaskRepository partition : partitions()) partition.getIndexSizes().forEach((index, size) -> sizes.merge(index, size, Integer::sum));
+        return sizes;
+    }
+
+    private InMemoryTaskRepository partitionOf(String owner) {
+        String key = keyOf(owner);
+        return router.route(key).partitions.computeIfAbsent(key, newKey -> newPartition(Collections.emptyList()));
+    }
+
+    private InMemoryTaskRepository newPartition(Collection<Task> tasks) {
+        InMemoryTaskRepository partition = new InMemoryTaskRepository(idGenerator, taskLog, tasks);
+        partition.addChangeListener((before, after) -> changed(partition, before, after));
+        return partition;
+    }
+
+    // Runs once the change is visible in the partition, before the partition returns.
+    private void changed(InMemoryTaskRepository partition, Task before, Task after) {
+        if (before == null) partitionsById.put(after.getId(), partition);
+        else if (after == null) partitionsById.remove(before.getId(), partition);
+        version.incrementAndGet();
+        for (TaskChangeListener listener : listeners) listener.changed(before, after);
+    }
+
+    private List<InMemoryTaskRepository> partitions() {
+        ArrayList<InMemoryTaskRepository> partitions = new ArrayList<>();
+        for (Shard shard : shards) partitions.addAll(shard.partitions.values());
+        return partitions;
+    }
+
+    private static Map<Integer, Task> inOrder(Collection<Integer> ids, Map<Integer, Task> tasks) {
+        LinkedHashMap<Integer, Task> ordered = new LinkedHashMap<>();
+        for (int id : ids) {
+            Task task = tasks.get(id);
+            if (task != null) ordered.put(id, task);
+        }
+        return ordered;
+    }
+
+    // The shared partition of the tasks without owner has the empty key.
+    private static String keyOf(String owner) {
+        return owner == null ? "" : owner;
+    }
+
+    /**
+     * This class is the partition of an owner that has none yet. Reads and
+     * changes of existing tasks go to the partition once it exists, and to an
+     * empty one until then; saves create it.
+     */
+    private final class OwnerView implements TaskRepository {
+        private final String owner;
+        private final String key;
+
+        private OwnerView(String owner, String key) {
+            this.owner = owner;
+            this.key = key;
+        }
+
+        private InMemoryTaskRepository current() {
+            InMemoryTaskRepository partition = router.route(key).partitions.get(key);
+            return partition != null ? partition : emptyPartition;
+        }
+
+        @Override
+        public Task save(Task task) {
+            return partitionOf(owner).save(task);
+        }
+
+        @Override
+        public List<Task> saveAll(List<Task> tasks) {
+            return partitionOf(owner).saveAll(tasks);
+        }
+
+        @Override
+        public Task findById(int id) {
+            return current().findById(id);
+        }
+
+        @Override
+        public Collection<Task> findAll() {
+            return current().findAll();
+        }
+
+        @Override
+        public List<Task> findByNameAndPriorityAndIsDone(String name, int priority, Boolean isDone) {
+            return current().findByNameAndPriorityAndIsDone(name, priority, isDone);
+        }
+
+        @Override
+        public void forEachMatching(String name, int priority, Boolean isDone, Consumer<Task> action) {
+            current().forEachMatching(name, priority, isDone, action);
+        }
+
+        @Override
+        public Spliterator<Task> matching(String name, int priority, Boolean isDone) {
+            return current().matching(name, priority, isDone);
+        }
+
+        @Override
+        public List<Task> findByNameAndPriorityAndIsDoneOrderByDueDate(String name, int priority, Boolean isDone, boolean descending) {
+            return current().findByNameAndPriorityAndIsDoneOrderByDueDate(name, priority, isDone, descending);
+        }
+
+        @Override
+        public Task update(int id, UnaryOperator<Task> updater) {
+            return current().update(id, updater);
+        }
+
+        @Override
+        public Map<Integer, Task> updateAll(Map<Integer, UnaryOperator<Task>> updaters) {
+            return current().updateAll(updaters);
+        }
+
+        @Override
+        public Task deleteById(int id, Consumer<Task> precondition) {
+            return current().deleteById(id, precondition);
+        }
+
+        @Override
+        public Map<Integer, Task> deleteAllById(Collection<Integer> ids) {
+            return current().deleteAllById(ids);
+        }
+
+        @Override
+        public int count() {
+            return current().count();
+        }
+
+        @Override
+        public void addChangeListener(TaskChangeListener listener) {
+            partitionOf(owner).addChangeListener(listener);
+        }
+
+        @Override
+        public long getVersion() {
+            return current().getVersion();
+        }
+
+        @Override
+        public Map<String, CompletionTimeSummary> getCompletionTimes() {
+            return current().getCompletionTimes();
+        }
+
+        @Override
+        public Map<String, Integer> getIndexSizes() {
+            return current().getIndexSizes();
+        }
+    }
+
+    /**
+     * This class holds the partitions of the owners routed to one shard.
+     */
+    private static final class Shard {
+        private final ConcurrentHashMap<String, InMemoryTaskRepository> partitions = new ConcurrentHashMap<>();
+    }
+}
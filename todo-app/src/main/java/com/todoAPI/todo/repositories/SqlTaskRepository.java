@@ -0,0 +1,546 @@
+package com.todoAPI.todo.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskCursor;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+
+/**
+ * This class stores the tasks in a table of an embedded SQL database, H2 by
+ * default, through the pooled DataSource of PersistenceConfig. It is enabled
+ * with todo.storage.mode=sql.
+ *
+ * The listing runs in the database: the filters, the sort, the page and the
+ * cursor become one query over the indexes, with the count, so no task is
+ * loaded unless it is on the page. The completion time summaries are grouped
+ * by priority in SQL as well, from a column with the completion minutes of
+ * each task.
+ *
+ * A LIKE with a leading wildcard cannot use an index, so the name filter
+ * goes through a side table with the trigrams of each lower-case name, as
+ * in TaskNameIndex: the tasks holding the rarest trigram of the text come
+ * from its primary key, and the LIKE only confirms them. Texts shorter
+ * than a trigram, and texts whose trigrams are all common, still scan the
+ * table. All the tasks are read in pages of ids, so no more than a page is
+ * in memory.
+ *
+ * Updates lock the row of the task in a transaction, so the updater runs
+ * once on the current task, and write only the columns that changed, so the
+ * indexes over the others are left alone. Batches of new tasks are inserted
+ * with one JDBC batch in a single transaction. The listeners are called
+ * after the change is committed. Ids still come from the TaskIdGenerator,
+ * which moves past the highest stored or deleted id on start.
+ * @version: 1.0
+ */
+@Repository
+@ConditionalOnProperty(name = "todo.storage.mode", havingValue = "sql")
+public class SqlTaskRepository implements TaskRepository {
+    private static final String COLUMNS = "id, name, due_date, priority, priority_name, is_done, done_date, created_date, version, owner";
+    private static final String INSERT = "INSERT INTO tasks (" + COLUMNS + ", name_lower, completion_minutes) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // The columns after the id, in the order of the insert arguments.
+    private static final String[] UPDATE_COLUMNS = {
+        "name", "due_date", "priority", "priority_name", "is_done", "done_date", "created_date", "version", "owner", "name_lower", "completion_minutes"
+    };
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS tasks ("
+            + "id INT PRIMARY KEY, name VARCHAR, name_lower VARCHAR NOT NULL, due_date TIMESTAMP(9), priority INT NOT NULL,"
+            + " priority_name VARCHAR, is_done BOOLEAN NOT NULL, done_date TIMESTAMP(9), created_date TIMESTAMP(9),"
+            + " completion_minutes BIGINT, version BIGINT NOT NULL, owner VARCHAR)",
+        // The listing filters on priority and status and sorts by due date; the id keeps the order total.
+        "CREATE INDEX IF NOT EXISTS tasks_priority_done_due ON tasks (priority, is_done, due_date, id)",
+        "CREATE INDEX IF NOT EXISTS tasks_done_due ON tasks (is_done, due_date, id)",
+        "CREATE INDEX IF NOT EXISTS tasks_due ON tasks (due_date, id)",
+        // The summaries are computed from this index alone.
+        "CREATE INDEX IF NOT EXISTS tasks_priority_completion ON tasks (priority, completion_minutes, priority_name)",
+        // The highest deleted id, so the ids of deleted tasks are not given again after a restart.
+        "CREATE TABLE IF NOT EXISTS task_deleted_ids (highest_id INT NOT NULL)",
+        "INSERT INTO task_deleted_ids SELECT 0 WHERE NOT EXISTS (SELECT * FROM task_deleted_ids)",
+        // The trigrams of each lower-case name, packed as in TaskNameIndex.
+        "CREATE TABLE IF NOT EXISTS task_name_grams (gram BIGINT NOT NULL, task_id INT NOT NULL, PRIMARY KEY (gram, task_id))",
+        "CREATE INDEX IF NOT EXISTS task_name_grams_task ON task_name_grams (task_id)"
+    };
+    // One statement for all the trigrams of a name, given as an array.
+    private static final String INSERT_GRAMS = "INSERT INTO task_name_grams (gram, task_id) SELECT gram, ? FROM UNNEST(CAST(? AS BIGINT ARRAY)) AS t(gram)";
+    // The task and its trigrams in one statement, so a single save needs no transaction.
+    private static final String INSERT_WITH_GRAMS = "INSERT INTO task_name_grams (gram, task_id) SELECT t.gram, i.id"
+            + " FROM FINAL TABLE (" + INSERT + ") i, UNNEST(CAST(? AS BIGINT ARRAY)) AS t(gram)";
+    private static final int SCAN_PAGE_SIZE = 1000;
+    // A trigram held by more tasks than this filters too little to be worth the side table.
+    private static final int SELECTIVE_GRAM_TASKS = 1000;
+    private static final RowMapper<Task> TASK_MAPPER = (resultSet, row) -> toTask(resultSet);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLong version = new AtomicLong();
+    private final List<TaskChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final TaskIdGenerator idGenerator;
+
+    /**
+     * This constructor creates the table and its indexes if they do not
+     * exist, and moves the id generator past the stored ids.
+     * @param: idGenerator - The generator of the task ids.
+     * @param: dataSource - The pooled connections to the database.
+     * @version: 1.0
+     */
+    @Autowired
+    public SqlTaskRepository(TaskIdGenerator idGenerator, DataSource dataSource) {
+        this.idGenerator = idGenerator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbcTemplate.batchUpdate(SCHEMA);
+        indexNames();
+
+        Integer highestId = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(COALESCE(MAX(id), 0), (SELECT highest_id FROM task_deleted_ids)) FROM tasks", Integer.class);
+        idGenerator.advancePast(highestId);
+    }
+
+    @Override
+    public Task save(Task task) {
+        task.assignId(idGenerator.nextId());
+        task.setVersion(1);
+        Object[] insertArguments = insertArguments(task);
+        Object[] arguments = Arrays.copyOf(insertArguments, insertArguments.length + 1);
+        arguments[insertArguments.length] = gramArguments(task)[1];
+        jdbcTemplate.update(INSERT_WITH_GRAMS, arguments);
+        changed(null, task);
+        return task;
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        ArrayList<Object[]> batch = new ArrayList<>(tasks.size());
+        ArrayList<Object[]> gramBatch = new ArrayList<>();
+        for (Task task : tasks) {
+            task.assignId(idGenerator.nextId());
+            task.setVersion(1);
+            batch.add(insertArguments(task));
+            gramBatch.add(gramArguments(task));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+            jdbcTemplate.batchUpdate(INSERT_GRAMS, gramBatch);
+        });
+        for (Task task : tasks) changed(null, task);
+        return new ArrayList<>(tasks);
+    }
+
+    @Override
+    public Task findById(int id) {
+        List<Task> tasks = jdbcTemplate.query("SELECT " + COLUMNS + " FROM tasks WHERE id = ?", TASK_MAPPER, id);
+        return tasks.isEmpty() ? null : tasks.get(0);
+    }
+
+    /**
+     * This method returns a view of all the tasks, read in pages of ids by
+     * its iterator, so the export and the reminders do not load the table.
+     * @version: 1.0
+     * @return: tasks - A weakly consistent view of the stored tasks, by id.
+     */
+    @Override
+    public Collection<Task> findAll() {
+        return new AbstractCollection<Task>() {
+            @Override
+            public Iterator<Task> iterator() {
+                return new TaskScan();
+            }
+
+            @Override
+            public int size() {
+                return count();
+            }
+        };
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDone(String name, int priority, Boolean isDone) {
+        ArrayList<Object> arguments = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM tasks" + where(name, priority, isDone, arguments) + " ORDER BY id";
+        return jdbcTemplate.query(sql, TASK_MAPPER, arguments.toArray());
+    }
+
+    @Override
+    public void forEachMatching(String name, int priority, Boolean isDone, Consumer<Task> action) {
+        ArrayList<Object> arguments = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM tasks" + where(name, priority, isDone, arguments);
+        jdbcTemplate.query(sql, resultSet -> {
+            action.accept(toTask(resultSet));
+        }, arguments.toArray());
+    }
+
+    @Override
+    public List<Task> findByNameAndPriorityAndIsDoneOrderByDueDate(String name, int priority, Boolean isDone, boolean descending) {
+        ArrayList<Object> arguments = new ArrayList<>();
+        String sql = "SELECT " + COLUMNS + " FROM tasks" + where(name, priority, isDone, arguments)
+                + " ORDER BY due_date " + (descending ? "DESC" : "ASC") + " NULLS LAST, id";
+        return jdbcTemplate.query(sql, TASK_MAPPER, arguments.toArray());
+    }
+
+    /**
+     * This method runs the whole listing in the database. The order is the
+     * one of the service: priority, then due date with the tasks without one
+     * last, then id. One more task than the page holds is fetched to know
+     * whether there is a next page. The total is counted by a subquery of
+     * the same statement, so it is read from the same snapshot as the page
+     * and a concurrent write cannot make them disagree.
+     * @param: query - The filters, sorting and page to return.
+     * @param: after - The task decoded from the cursor, or null.
+     * @version: 1.0
+     * @return: page - The tasks of the page and the total of matching tasks.
+     */
+    @Override
+    public TaskPage findPage(TaskQuery query, Task after) {
+        int priorityDirection = direction(query.getSortByPriority());
+        int dueDateDirection = direction(query.getSortByDueDate());
+
+        ArrayList<Object> filterArguments = new ArrayList<>();
+        String filter = where(query.getName(), query.getPriority(), query.getIsDone(), filterArguments);
+        // The filter is given twice, first to the count and then to the page.
+        ArrayList<Object> arguments = new ArrayList<>(filterArguments);
+        arguments.addAll(filterArguments);
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS)
+                .append(", (SELECT COUNT(*) FROM tasks").append(filter).append(") FROM tasks").append(filter);
+        if (after != null) {
+            sql.append(filter.isEmpty() ? " WHERE " : " AND ");
+            appendAfter(sql, arguments, priorityDirection, dueDateDirection, after);
+        }
+        sql.append(" ORDER BY ");
+        if (priorityDirection != 0) sql.append("priority ").append(priorityDirection > 0 ? "ASC" : "DESC").append(", ");
+        if (dueDateDirection != 0) sql.append("due_date ").append(dueDateDirection > 0 ? "ASC" : "DESC").append(" NULLS LAST, ");
+        sql.append("id LIMIT ? OFFSET ?");
+        arguments.add(query.getSize() + 1);
+        arguments.add(after != null ? 0 : (long) (query.getPage() - 1) * query.getSize());
+
+        List<Task> tasks = new ArrayList<>();
+        long[] total = { -1 };
+        jdbcTemplate.query(sql.toString(), resultSet -> {
+            tasks.add(toTask(resultSet));
+            total[0] = resultSet.getLong(11);
+        }, arguments.toArray());
+        if (total[0] < 0) {
+            // Past the last page there is no row to carry the count.
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks" + filter, Long.class, filterArguments.toArray());
+            total[0] = count == null ? 0 : count;
+        }
+        String nextCursor = null;
+        List<Task> pageTasks = tasks;
+        if (tasks.size() > query.getSize()) {
+            pageTasks = new ArrayList<>(tasks.subList(0, query.getSize()));
+            if (!pageTasks.isEmpty()) nextCursor = TaskCursor.encode(pageTasks.get(pageTasks.size() - 1));
+        }
+        return new TaskPage((int) total[0], pageTasks, nextCursor);
+    }
+
+    @Override
+    public Task update(int id, UnaryOperator<Task> updater) {
+        Task[] change = transactionTemplate.execute(status -> {
+            List<Task> tasks = jdbcTemplate.query("SELECT " + COLUMNS + " FROM tasks WHERE id = ? FOR UPDATE", TASK_MAPPER, id);
+            if (tasks.isEmpty()) return null;
+            Task current = tasks.get(0);
+            Task updated = updater.apply(new Task(current));
+            updated.setVersion(current.getVersion() + 1);
+            update(current, updated, id);
+            return new Task[] { current, updated };
+        });
+        if (change == null) return null;
+        changed(change[0], change[1]);
+        return change[1];
+    }
+
+    @Override
+    public Task deleteById(int id, Consumer<Task> precondition) {
+        Task deleted = transactionTemplate.execute(status -> {
+            // The delta table returns the row as it was deleted, in the same statement; a failed check rolls it back.
+            List<Task> tasks = jdbcTemplate.query("SELECT " + COLUMNS + " FROM OLD TABLE (DELETE FROM tasks WHERE id = ?)", TASK_MAPPER, id);
+            if (tasks.isEmpty()) return null;
+            precondition.accept(tasks.get(0));
+            jdbcTemplate.update("DELETE FROM task_name_grams WHERE task_id = ?", id);
+            jdbcTemplate.update("UPDATE task_deleted_ids SET highest_id = ? WHERE highest_id < ?", id, id);
+            return tasks.get(0);
+        });
+        if (deleted == null) return null;
+        changed(deleted, null);
+        return deleted;
+    }
+
+    @Override
+    public int count() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tasks", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void addChangeListener(TaskChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * This method groups the tasks by priority in SQL. The totals of each
+     * priority are added up for the "Total" key, and the percentiles of all
+     * of them come from one more query, since they cannot be added up.
+     * Unlike the histograms of the in-memory stores, the percentiles are exact.
+     * @version: 1.0
+     * @return: summaries - The summaries by priority name.
+     */
+    @Override
+    public Map<String, CompletionTimeSummary> getCompletionTimes() {
+        String aggregates = "COUNT(*), COUNT(completion_minutes), SUM(completion_minutes), SUM(CAST(completion_minutes AS DOUBLE PRECISION) * completion_minutes),"
+                + " PERCENTILE_DISC(0.5) WITHIN GROUP (ORDER BY completion_minutes),"
+                + " PERCENTILE_DISC(0.95) WITHIN GROUP (ORDER BY completion_minutes),"
+                + " PERCENTILE_DISC(0.99) WITHIN GROUP (ORDER BY completion_minutes)";
+        LinkedHashMap<String, CompletionTimeSummary> summaries = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT MAX(priority_name), " + aggregates + " FROM tasks GROUP BY priority ORDER BY priority",
+                resultSet -> {
+                    summaries.put(resultSet.getString(1), toSummary(resultSet, 2));
+                });
+        CompletionTimeSummary total = jdbcTemplate.queryForObject("SELECT " + aggregates + " FROM tasks", (resultSet, row) -> toSummary(resultSet, 1));
+        summaries.put(CompletionTimeStats.TOTAL, total);
+        return summaries;
+    }
+
+    // Runs once the change is committed.
+    private void changed(Task before, Task after) {
+        version.incrementAndGet();
+        for (TaskChangeListener listener : listeners) listener.changed(before, after);
+    }
+
+    /**
+     * This method returns the WHERE clause of the filters, adding their
+     * values to the arguments. The name is matched against a lower-case
+     * copy of it, with the wildcards of the text escaped. As in TaskNameIndex,
+     * the rarest trigram of the text is looked up first; if it is held by
+     * fewer than SELECTIVE_GRAM_TASKS tasks, only those are matched,
+     * otherwise the LIKE alone is cheaper.
+     * @return: where - The clause, or "" if nothing is filtered.
+     */
+    private String where(String name, int priority, Boolean isDone, List<Object> arguments) {
+        ArrayList<String> conditions = new ArrayList<>(3);
+        if (priority != 0) {
+            conditions.add("priority = ?");
+            arguments.add(priority);
+        }
+        if (isDone != null) {
+            conditions.add("is_done = ?");
+            arguments.add(isDone);
+        }
+        String lowerCaseName = TaskNameIndex.lowerCase(name);
+        Long rarestGram = rarestGram(lowerCaseName);
+        if (rarestGram != null) {
+            conditions.add("id IN (SELECT task_id FROM task_name_grams WHERE gram = ?)");
+            arguments.add(rarestGram);
+        }
+        if (!lowerCaseName.isEmpty()) {
+            conditions.add("name_lower LIKE ? ESCAPE '\\'");
+            arguments.add("%" + lowerCaseName.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    /**
+     * This method returns the trigram of the text held by the fewest tasks,
+     * or null if the text has none held by few enough. The tasks of every
+     * trigram are counted in one query, each count stopping at
+     * SELECTIVE_GRAM_TASKS, so the common trigrams cost no more than that.
+     */
+    private Long rarestGram(String lowerCaseText) {
+        Set<Long> grams = TaskNameIndex.grams(lowerCaseText);
+        if (grams.isEmpty()) return null;
+        StringBuilder sql = new StringBuilder("SELECT gram FROM (");
+        ArrayList<Object> arguments = new ArrayList<>(grams.size() * 3 + 1);
+        for (long gram : grams) {
+            if (!arguments.isEmpty()) sql.append(" UNION ALL ");
+            sql.append("SELECT CAST(? AS BIGINT) gram, (SELECT COUNT(*) FROM (SELECT 1 FROM task_name_grams WHERE gram = ? LIMIT ?)) tasks");
+            arguments.add(gram);
+            arguments.add(gram);
+            arguments.add(SELECTIVE_GRAM_TASKS);
+        }
+        sql.append(") WHERE tasks < ? ORDER BY tasks LIMIT 1");
+        arguments.add(SELECTIVE_GRAM_TASKS);
+        List<Long> rarest = jdbcTemplate.queryForList(sql.toString(), Long.class, arguments.toArray());
+        return rarest.isEmpty() ? null : rarest.get(0);
+    }
+
+    /**
+     * This method appends the condition of the tasks that come after the
+     * given one in the order of the listing, one sort key at a time: a task
+     * is after it if its key is after, or if the key is the same and the
+     * next keys are after.
+     */
+    private static void appendAfter(StringBuilder sql, List<Object> arguments, int priorityDirection, int dueDateDirection, Task after) {
+        if (priorityDirection != 0) {
+            sql.append("(priority ").append(priorityDirection > 0 ? ">" : "<").append(" ? OR (priority = ? AND ");
+            arguments.add(after.getPriority());
+            arguments.add(after.getPriority());
+            appendAfter(sql, arguments, 0, dueDateDirection, after);
+            sql.append("))");
+        } else if (dueDateDirection != 0 && after.getDueDate() == null) {
+            // Tasks without a due date come last, so only those can follow one of them.
+            sql.append("(due_date IS NULL AND ");
+            appendAfter(sql, arguments, 0, 0, after);
+            sql.append(")");
+        } else if (dueDateDirection != 0) {
+            sql.append("(due_date IS NULL OR due_date ").append(dueDateDirection > 0 ? ">" : "<").append(" ? OR (due_date = ? AND ");
+            arguments.add(after.getDueDate());
+            arguments.add(after.getDueDate());
+            appendAfter(sql, arguments, 0, 0, after);
+            sql.append("))");
+        } else {
+            sql.append("id > ?");
+            arguments.add(after.getId());
+        }
+    }
+
+    // 0 keeps the key out of the order, 1 sorts it ascending and -1 descending, as in TaskQueryPlan.
+    private static int direction(String sort) {
+        if (sort == null) return 0;
+        return sort.equals("desc") ? -1 : 1;
+    }
+
+    private static Object[] insertArguments(Task task) {
+        return new Object[] {
+            task.getId(), task.getName(), task.getDueDate(), task.getPriority(), task.getPriorityName(), task.getIsDone(),
+            task.getDoneDate(), task.getCreatedDate(), task.getVersion(), task.getOwner(),
+            TaskNameIndex.lowerCase(task.getName()), completionMinutes(task)
+        };
+    }
+
+    // Sets only the columns that changed, so the indexes over the others are not touched.
+    private void update(Task current, Task updated, int id) {
+        Object[] currentValues = insertArguments(current);
+        Object[] updatedValues = insertArguments(updated);
+        StringBuilder sql = new StringBuilder("UPDATE tasks SET ");
+        List<Object> arguments = new ArrayList<>();
+        for (int column = 0; column < UPDATE_COLUMNS.length; column++) {
+            if (Objects.equals(currentValues[column + 1], updatedValues[column + 1])) continue;
+            if (!arguments.isEmpty()) sql.append(", ");
+            sql.append(UPDATE_COLUMNS[column]).append(" = ?");
+            arguments.add(updatedValues[column + 1]);
+        }
+        sql.append(" WHERE id = ?");
+        arguments.add(id);
+        jdbcTemplate.update(sql.toString(), arguments.toArray());
+        if (!Objects.equals(TaskNameIndex.lowerCase(current.getName()), TaskNameIndex.lowerCase(updated.getName()))) {
+            jdbcTemplate.update("DELETE FROM task_name_grams WHERE task_id = ?", id);
+            jdbcTemplate.update(INSERT_GRAMS, gramArguments(updated));
+        }
+    }
+
+    private static Object[] gramArguments(Task task) {
+        Set<Long> grams = TaskNameIndex.grams(TaskNameIndex.lowerCase(task.getName()));
+        return new Object[] { task.getId(), grams.toArray(new Long[0]) };
+    }
+
+    // Fills the trigrams of the tasks stored before the side table existed, a page of ids at a time.
+    private void indexNames() {
+        Boolean missing = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT * FROM tasks) AND NOT EXISTS (SELECT * FROM task_name_grams)", Boolean.class);
+        if (!Boolean.TRUE.equals(missing)) return;
+        TaskScan scan = new TaskScan();
+        while (scan.hasNext()) jdbcTemplate.update(INSERT_GRAMS, gramArguments(scan.next()));
+    }
+
+    /**
+     * This class iterates over all the tasks by id, fetching the next page
+     * of them after the last id when the current one runs out.
+     */
+    private final class TaskScan implements Iterator<Task> {
+        private List<Task> page = Collections.emptyList();
+        private int position;
+        private int lastId;
+        private boolean last;
+
+        @Override
+        public boolean hasNext() {
+            if (position < page.size()) return true;
+            if (last) return false;
+            page = jdbcTemplate.query("SELECT " + COLUMNS + " FROM tasks WHERE id > ? ORDER BY id LIMIT ?",
+                    TASK_MAPPER, lastId, SCAN_PAGE_SIZE);
+            position = 0;
+            last = page.size() < SCAN_PAGE_SIZE;
+            if (!page.isEmpty()) lastId = page.get(page.size() - 1).getId();
+            return !page.isEmpty();
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            return page.get(position++);
+        }
+    }
+
+    // The minutes between creation and completion, or null if the task is not completed.
+    private static Long completionMinutes(Task task) {
+        if (task.getDoneDate() == null || task.getCreatedDate() == null) return null;
+        return ChronoUnit.MINUTES.between(task.getCreatedDate(), task.getDoneDate());
+    }
+
+    private static Task toTask(ResultSet resultSet) throws SQLException {
+        Task task = new Task();
+        task.assignId(resultSet.getInt(1));
+        task.setName(resultSet.getString(2));
+        task.setDueDate(resultSet.getObject(3, LocalDateTime.class));
+        task.setPriority(resultSet.getInt(4));
+        task.setPriorityName(resultSet.getString(5));
+        task.setIsDone(resultSet.getBoolean(6));
+        task.setDoneDate(resultSet.getObject(7, LocalDateTime.class));
+        task.setCreatedDate(resultSet.getObject(8, LocalDateTime.class));
+        task.setVersion(resultSet.getLong(9));
+        task.setOwner(resultSet.getString(10));
+        return task;
+    }
+
+    // Reads the aggregates of a summary, starting at the given column.
+    private static CompletionTimeSummary toSummary(ResultSet resultSet, int column) throws SQLException {
+        long tasks = resultSet.getLong(column);
+        long done = resultSet.getLong(column + 1);
+        if (done <= 0) return new CompletionTimeSummary(tasks, 0, 0, 0, 0, 0, 0);
+        double average = (double) resultSet.getLong(column + 2) / done;
+        double variance = Math.max(0, resultSet.getDouble(column + 3) / done - average * average);
+        return new CompletionTimeSummary(
+            tasks,
+            done,
+            average,
+            Math.sqrt(variance),
+            resultSet.getDouble(column + 4),
+            resultSet.getDouble(column + 5),
+            resultSet.getDouble(column + 6)
+        );
+    }
+}
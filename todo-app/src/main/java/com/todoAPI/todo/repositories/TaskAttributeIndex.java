@@ -0,0 +1,173 @@
+package com.todoAPI.todo.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class keeps the secondary indexes of the tasks: the ids per priority,
+ * the done/undone partition and the tasks ordered by due date.
+ * It is updated by the repository while it holds the lock of the task being
+ * changed, so the entries of one task never race with each other. Readers may
+ * still see an index a moment ahead of or behind the stored task, so callers
+ * must check the task itself before returning it.
+ * @version: 1.0
+ */
+class TaskAttributeIndex implements TaskIndex {
+    private final ConcurrentHashMap<Integer, Set<Integer>> byPriority = new ConcurrentHashMap<>();
+    private final Set<Integer> done = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> undone = ConcurrentHashMap.newKeySet();
+    private final ConcurrentSkipListSet<DueDateKey> byDueDate = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<Integer> withoutDueDate = new ConcurrentSkipListSet<>();
+
+    /**
+     * This method adds a new task to the indexes.
+     * @param: task - The stored task.
+     * @version: 1.0
+     */
+    @Override
+    public void add(Task task) {
+        prioritySet(task.getPriority()).add(task.getId());
+        status(task.getIsDone()).add(task.getId());
+        addDueDate(task);
+    }
+
+    /**
+     * This method moves a task in the indexes, touching only the attributes that changed.
+     * @param: previous - The task before the change.
+     * @param: current - The task after the change.
+     * @version: 1.0
+     */
+    @Override
+    public void update(Task previous, Task current) {
+        if (previous.getPriority() != current.getPriority()) {
+            priority(previous.getPriority()).remove(previous.getId());
+            prioritySet(current.getPriority()).add(current.getId());
+        }
+        if (previous.getIsDone() != current.getIsDone()) {
+            status(previous.getIsDone()).remove(previous.getId());
+            status(current.getIsDone()).add(current.getId());
+        }
+        if (!sameDueDate(previous.getDueDate(), current.getDueDate())) {
+            removeDueDate(previous);
+            addDueDate(current);
+        }
+    }
+
+    /**
+     * This method removes a deleted task from the indexes.
+     * @param: task - The deleted task.
+     * @version: 1.0
+     */
+    @Override
+    public void remove(Task task) {
+        priority(task.getPriority()).remove(task.getId());
+        status(task.getIsDone()).remove(task.getId());
+        removeDueDate(task);
+    }
+
+    /**
+     * This method returns the ids of the tasks with the given priority.
+     * Reading a priority no task has does not add it to the index.
+     * @param: priority - The priority of the tasks.
+     * @version: 1.0
+     * @return: ids - The ids of the tasks.
+     */
+    Set<Integer> priority(int priority) {
+        return byPriority.getOrDefault(priority, Collections.emptySet());
+    }
+
+    /**
+     * This method returns the ids of the done or undone tasks.
+     * @param: isDone - The status of the tasks.
+     * @version: 1.0
+     * @return: ids - The ids of the tasks.
+     */
+    Set<Integer> status(boolean isDone) {
+        return isDone ? done : undone;
+    }
+
+    /**
+     * This method returns the ids of the tasks with a due date, ordered by due
+     * date and then by id.
+     * @param: descending - Whether the latest due date comes first.
+     * @version: 1.0
+     * @return: dueDates - The ordered due date entries.
+     */
+    NavigableSet<DueDateKey> dueDates(boolean descending) {
+        return descending ? byDueDate.descendingSet() : byDueDate;
+    }
+
+    /**
+     * This method returns the ids of the tasks without a due date, ordered by id.
+     * @version: 1.0
+     * @return: ids - The ids of the tasks.
+     */
+    NavigableSet<Integer> withoutDueDate() {
+        return withoutDueDate;
+    }
+
+    // Only the writers create the set of a priority.
+    private Set<Integer> prioritySet(int priority) {
+        return byPriority.computeIfAbsent(priority, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private void addDueDate(Task task) {
+        if (task.getDueDate() == null) withoutDueDate.add(task.getId());
+        else byDueDate.add(new DueDateKey(task.getDueDate(), task.getId()));
+    }
+
+    private void removeDueDate(Task task) {
+        if (task.getDueDate() == null) withoutDueDate.remove(task.getId());
+        else byDueDate.remove(new DueDateKey(task.getDueDate(), task.getId()));
+    }
+
+    private static boolean sameDueDate(LocalDateTime first, LocalDateTime second) {
+        return first == null ? second == null : first.equals(second);
+    }
+
+    /**
+     * This class is an entry of the due date index. Tasks that share a due date
+     * are ordered by id, so every entry is unique.
+     * @version: 1.0
+     */
+    static final class DueDateKey implements Comparable<DueDateKey> {
+        private final LocalDateTime dueDate;
+        private final int taskId;
+
+        DueDateKey(LocalDateTime dueDate, int taskId) {
+            this.dueDate = dueDate;
+            this.taskId = taskId;
+        }
+
+        LocalDateTime getDueDate() {
+            return this.dueDate;
+        }
+
+        int getTaskId() {
+            return this.taskId;
+        }
+
+        @Override
+        public int compareTo(DueDateKey other) {
+            int byDate = this.dueDate.compareTo(other.dueDate);
+            return byDate != 0 ? byDate : Integer.compare(this.taskId, other.taskId);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof DueDateKey)) return false;
+            return compareTo((DueDateKey) other) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.dueDate.hashCode() + this.taskId;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.todoAPI.todo.repositories;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This interface represents a listener of the changes of the stored tasks,
+ * such as a cache of query results. Unlike a TaskIndex, it is called after
+ * the change is visible to readers and outside of the locks of the
+ * repository, so it may run for several changes at once.
+ * @version: 1.0
+ */
+@FunctionalInterface
+public interface TaskChangeListener {
+
+    /**
+     * This method is called after a task was created, updated or deleted.
+     * @param: before - The task before the change, or null if it was created.
+     * @param: after - The task after the change, or null if it was deleted.
+     * @version: 1.0
+     */
+    void changed(Task before, Task after);
+}
@@ -0,0 +1,57 @@
+package com.todoAPI.todo.repositories;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class hands out unique task ids.
+ * Ids come from a shared atomic counter. With a block size greater than one,
+ * every thread reserves a range of ids at once and allocates from it without
+ * touching the shared counter, at the cost of ids not being consecutive.
+ * @version: 1.0
+ */
+@Component
+public class TaskIdGenerator {
+    private final AtomicLong nextBlock = new AtomicLong(1);
+    private final int blockSize;
+    private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * This constructor creates a generator with the given block size.
+     * @param: blockSize - The number of ids each thread reserves at once.
+     * @version: 1.0
+     */
+    public TaskIdGenerator(@Value("${todo.ids.block-size:1}") int blockSize) {
+        if (blockSize < 1) throw new IllegalArgumentException("The id block size must be greater than 0.");
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * This method makes sure the next ids are greater than the given one.
+     * It is used after recovering persisted tasks, before any id is handed out.
+     * @param: id - The greatest id in use.
+     * @version: 1.0
+     */
+    public void advancePast(int id) {
+        nextBlock.accumulateAndGet(id + 1L, Math::max);
+    }
+
+    /**
+     * This method returns a new unique id.
+     * @version: 1.0
+     * @return: id - The new id.
+     */
+    public int nextId() {
+        if (blockSize == 1) return Math.toIntExact(nextBlock.getAndIncrement());
+
+        // The block holds the next free id and the end of the reserved range.
+        long[] block = blocks.get();
+        if (block[0] == block[1]) {
+            block[0] = nextBlock.getAndAdd(blockSize);
+            block[1] = block[0] + blockSize;
+        }
+        return Math.toIntExact(block[0]++);
+    }
+}
@@ -0,0 +1,35 @@
+package com.todoAPI.todo.repositories;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This interface represents a structure derived from the stored tasks, such
+ * as a secondary index or an aggregate, that the repository keeps up to date.
+ * The methods are called while the repository holds the lock of the task
+ * being changed, so they must be quick and must not call the repository.
+ * @version: 1.0
+ */
+interface TaskIndex {
+
+    /**
+     * This method adds a new task.
+     * @param: task - The stored task.
+     * @version: 1.0
+     */
+    void add(Task task);
+
+    /**
+     * This method replaces a task with its new version.
+     * @param: previous - The task before the change.
+     * @param: current - The task after the change.
+     * @version: 1.0
+     */
+    void update(Task previous, Task current);
+
+    /**
+     * This method removes a deleted task.
+     * @param: task - The deleted task.
+     * @version: 1.0
+     */
+    void remove(Task task);
+}
@@ -0,0 +1,72 @@
+package com.todoAPI.todo.repositories;
+
+import java.util.concurrent.ConcurrentMap;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This interface represents the durable log of the changes made to the
+ * tasks. The repository appends a record for every change while it holds the
+ * lock of the task, so the records of a task are in the order of its changes,
+ * and waits for the record to be durable after releasing the lock.
+ * @version: 1.0
+ */
+public interface TaskLog {
+
+    /**
+     * A log that keeps nothing, used when persistence is disabled.
+     */
+    TaskLog NONE = new TaskLog() {
+        @Override
+        public int recover(ConcurrentMap<Integer, Task> tasks) {
+            return 0;
+        }
+
+        @Override
+        public long append(Task task) {
+            return 0;
+        }
+
+        @Override
+        public long appendDelete(int taskId) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long sequence) {
+        }
+    };
+
+    /**
+     * This method loads the persisted tasks into the given map and starts
+     * logging.
+     * @param: tasks - The map of the repository.
+     * @version: 1.0
+     * @return: highestId - The highest task id ever logged, including deleted tasks.
+     */
+    int recover(ConcurrentMap<Integer, Task> tasks);
+
+    /**
+     * This method appends the new state of a created or updated task.
+     * @param: task - The task.
+     * @version: 1.0
+     * @return: sequence - The sequence number of the record.
+     */
+    long append(Task task);
+
+    /**
+     * This method appends the deletion of a task.
+     * @param: taskId - The id of the deleted task.
+     * @version: 1.0
+     * @return: sequence - The sequence number of the record.
+     */
+    long appendDelete(int taskId);
+
+    /**
+     * This method waits until the record with the given sequence number, and
+     * every record before it, is durable.
+     * @param: sequence - The sequence number of the record.
+     * @version: 1.0
+     */
+    void awaitDurable(long sequence);
+}
@@ -0,0 +1,127 @@
+package com.todoAPI.todo.repositories;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class is an inverted trigram index over the task names, used to find
+ * the tasks whose name contains a given text.
+ * Names are lowercased once when a task is written. A search only checks the
+ * tasks that contain every trigram of the text, instead of every task.
+ * Like the attribute index, it is updated while the repository holds the lock
+ * of the task being changed.
+ * @version: 1.0
+ */
+class TaskNameIndex implements TaskIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final ConcurrentHashMap<Long, Set<Integer>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, String> lowerCaseNames = new ConcurrentHashMap<>();
+
+    /**
+     * This method adds the name of a new task to the index.
+     * @param: task - The stored task.
+     * @version: 1.0
+     */
+    @Override
+    public void add(Task task) {
+        String lowerCaseName = lowerCase(task.getName());
+        lowerCaseNames.put(task.getId(), lowerCaseName);
+        for (long gram : grams(lowerCaseName)) {
+            postings.compute(gram, (key, ids) -> {
+                if (ids == null) ids = ConcurrentHashMap.newKeySet();
+                ids.add(task.getId());
+                return ids;
+            });
+        }
+    }
+
+    /**
+     * This method reindexes a task if its name changed.
+     * @param: previous - The task before the change.
+     * @param: current - The task after the change.
+     * @version: 1.0
+     */
+    @Override
+    public void update(Task previous, Task current) {
+        if (Objects.equals(previous.getName(), current.getName())) return;
+        remove(previous);
+        add(current);
+    }
+
+    /**
+     * This method removes the name of a deleted task from the index.
+     * @param: task - The deleted task.
+     * @version: 1.0
+     */
+    @Override
+    public void remove(Task task) {
+        String lowerCaseName = lowerCaseNames.remove(task.getId());
+        if (lowerCaseName == null) return;
+        for (long gram : grams(lowerCaseName)) {
+            postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(task.getId());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * This method returns the ids of the tasks that may contain the given text.
+     * Every candidate must still be checked with contains().
+     * @param: lowerCaseText - The lowercased text to search.
+     * @version: 1.0
+     * @return: ids - The candidate ids, or null if the text is shorter than a trigram.
+     */
+    Collection<Integer> candidates(String lowerCaseText) {
+        if (lowerCaseText.length() < GRAM_LENGTH) return null;
+
+        Set<Integer> smallest = null;
+        for (long gram : grams(lowerCaseText)) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids == null) return Collections.emptySet();
+            if (smallest == null || ids.size() < smallest.size()) smallest = ids;
+        }
+        return smallest;
+    }
+
+    /**
+     * This method checks whether the name of a task contains the given text.
+     * @param: id - The id of the task.
+     * @param: lowerCaseText - The lowercased text to search.
+     * @version: 1.0
+     * @return: contains - Whether the name contains the text.
+     */
+    boolean contains(int id, String lowerCaseText) {
+        String lowerCaseName = lowerCaseNames.get(id);
+        return lowerCaseName != null && lowerCaseName.contains(lowerCaseText);
+    }
+
+    /**
+     * This method returns the number of distinct trigrams in the index.
+     * @version: 1.0
+     * @return: size - The number of trigrams.
+     */
+    int size() {
+        return postings.size();
+    }
+
+    static String lowerCase(String name) {
+        return name == null ? "" : name.toLowerCase();
+    }
+
+    // Each trigram is packed into a long, three 16 bit chars, so no substrings are created.
+    static Set<Long> grams(String text) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,183 @@
+package com.todoAPI.todo.repositories;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class encodes the records of the write-ahead log and of the snapshots.
+ * Every record is framed as [payload length][CRC32 of the payload][payload],
+ * so a record that was only partly written before a crash is detected and
+ * dropped on recovery. The payload starts with the record type: a PUT holds
+ * the whole task, a DELETE only its id. Fields added later, like the owner,
+ * go at the end of the PUT payload, so older records still decode.
+ * @version: 1.0
+ */
+final class TaskRecordCodec {
+    static final byte PUT = 1;
+    static final byte DELETE = 2;
+
+    private static final int HEADER_LENGTH = 8;
+    private static final int MAX_PAYLOAD_LENGTH = 1 << 20;
+
+    private TaskRecordCodec() {
+    }
+
+    /**
+     * This method encodes the new state of a task.
+     * @param: task - The task.
+     * @version: 1.0
+     * @return: record - The framed record.
+     */
+    static byte[] encodePut(Task task) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(128);
+            DataOutputStream output = new DataOutputStream(payload);
+            output.writeByte(PUT);
+            output.writeInt(task.getId());
+            writeString(output, task.getName());
+            writeDate(output, task.getDueDate());
+            output.writeInt(task.getPriority());
+            writeString(output, task.getPriorityName());
+            output.writeBoolean(task.getIsDone());
+            writeDate(output, task.getDoneDate());
+            writeDate(output, task.getCreatedDate());
+            output.writeLong(task.getVersion());
+            writeString(output, task.getOwner());
+            return frame(payload.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * This method encodes the deletion of a task.
+     * @param: taskId - The id of the task.
+     * @version: 1.0
+     * @return: record - The framed record.
+     */
+    static byte[] encodeDelete(int taskId) {
+        byte[] payload = new byte[5];
+        payload[0] = DELETE;
+        payload[1] = (byte) (taskId >>> 24);
+        payload[2] = (byte) (taskId >>> 16);
+        payload[3] = (byte) (taskId >>> 8);
+        payload[4] = (byte) taskId;
+        return frame(payload);
+    }
+
+    /**
+     * This method reads the next complete and valid record.
+     * @param: input - The stream of records.
+     * @version: 1.0
+     * @return: payload - The payload of the record, or null at the end of the
+     *          valid records (end of the stream or a torn record).
+     */
+    static byte[] read(DataInputStream input) throws IOException {
+        try {
+            int length = input.readInt();
+            int crc = input.readInt();
+            if (length <= 0 || length > MAX_PAYLOAD_LENGTH) return null;
+            byte[] payload = new byte[length];
+            input.readFully(payload);
+            return crcOf(payload) == crc ? payload : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This method returns the number of bytes a record takes in the log.
+     * @param: payload - The payload of the record.
+     * @version: 1.0
+     * @return: length - The length of the framed record.
+     */
+    static int framedLength(byte[] payload) {
+        return HEADER_LENGTH + payload.length;
+    }
+
+    /**
+     * This method decodes the task of a PUT payload.
+     * @param: payload - The payload of the record.
+     * @version: 1.0
+     * @return: task - The task.
+     */
+    static Task decodeTask(byte[] payload) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1));
+        int id = input.readInt();
+        String name = readString(input);
+        LocalDateTime dueDate = readDate(input);
+        int priority = input.readInt();
+        String priorityName = readString(input);
+        Task task = new Task(name, dueDate, priority, priorityName);
+        task.assignId(id);
+        task.setIsDone(input.readBoolean());
+        task.setDoneDate(readDate(input));
+        task.setCreatedDate(readDate(input));
+        task.setVersion(input.readLong());
+        // Records written before tasks had owners end here.
+        if (input.available() > 0) task.setOwner(readString(input));
+        return task;
+    }
+
+    /**
+     * This method decodes the task id of a DELETE payload.
+     * @param: payload - The payload of the record.
+     * @version: 1.0
+     * @return: taskId - The id of the deleted task.
+     */
+    static int decodeDeletedId(byte[] payload) {
+        return ((payload[1] & 0xff) << 24) | ((payload[2] & 0xff) << 16) | ((payload[3] & 0xff) << 8) | (payload[4] & 0xff);
+    }
+
+    private static byte[] frame(byte[] payload) {
+        byte[] record = new byte[HEADER_LENGTH + payload.length];
+        writeInt(record, 0, payload.length);
+        writeInt(record, 4, crcOf(payload));
+        System.arraycopy(payload, 0, record, HEADER_LENGTH, payload.length);
+        return record;
+    }
+
+    private static int crcOf(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) output.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void writeDate(DataOutputStream output, LocalDateTime value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value == null) return;
+        output.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        output.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDate(DataInputStream input) throws IOException {
+        if (!input.readBoolean()) return null;
+        return LocalDateTime.ofEpochSecond(input.readLong(), input.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,256 @@
+package com.todoAPI.todo.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+
+/**
+ * This interface represents the persistence layer of the tasks.
+ * Implementations must be safe to use from many request threads at once.
+ * @version: 1.0
+ */
+public interface TaskRepository {
+
+    /**
+     * This method stores a new task.
+     * @param: task - The task to store.
+     * @version: 1.0
+     * @return: task - The stored task.
+     */
+    Task save(Task task);
+
+    /**
+     * This method returns the task with the given id.
+     * @param: id - The id of the task.
+     * @version: 1.0
+     * @return: task - The task with the given id, or null if it does not exist.
+     */
+    Task findById(int id);
+
+    /**
+     * This method returns all the stored tasks.
+     * @version: 1.0
+     * @return: tasks - A weakly consistent view of the stored tasks.
+     */
+    Collection<Task> findAll();
+
+    /**
+     * This method returns the tasks whose name contains the given text and that
+     * have the given priority and status.
+     * @param: name - The text the name must contain (ignoring case), or "" for any name.
+     * @param: priority - The priority of the tasks, or 0 for any priority.
+     * @param: isDone - The status of the tasks, or null for any status.
+     * @version: 1.0
+     * @return: tasks - The matching tasks.
+     */
+    List<Task> findByNameAndPriorityAndIsDone(String name, int priority, Boolean isDone);
+
+    /**
+     * This method hands every task that matches the filters to an action, in
+     * no particular order, without collecting them first.
+     * @param: name - The text the name must contain (ignoring case), or "" for any name.
+     * @param: priority - The priority of the tasks, or 0 for any priority.
+     * @param: isDone - The status of the tasks, or null for any status.
+     * @param: action - The action to run on each matching task.
+     * @version: 1.0
+     */
+    default void forEachMatching(String name, int priority, Boolean isDone, Consumer<Task> action) {
+        matching(name, priority, isDone).forEachRemaining(action);
+    }
+
+    /**
+     * This method returns the tasks that match the filters as a spliterator,
+     * in no particular order, which a parallel scan can split into parts.
+     * Tasks are tested as the spliterator reaches them, so a concurrent
+     * change may or may not be seen.
+     * @param: name - The text the name must contain (ignoring case), or "" for any name.
+     * @param: priority - The priority of the tasks, or 0 for any priority.
+     * @param: isDone - The status of the tasks, or null for any status.
+     * @version: 1.0
+     * @return: tasks - The matching tasks.
+     */
+    default Spliterator<Task> matching(String name, int priority, Boolean isDone) {
+        return findByNameAndPriorityAndIsDone(name, priority, isDone).spliterator();
+    }
+
+    /**
+     * This method returns the tasks whose name contains the given text and that
+     * have the given priority and status, ordered by due date. Tasks without a
+     * due date come last.
+     * @param: name - The text the name must contain (ignoring case), or "" for any name.
+     * @param: priority - The priority of the tasks, or 0 for any priority.
+     * @param: isDone - The status of the tasks, or null for any status.
+     * @param: descending - Whether the latest due date comes first.
+     * @version: 1.0
+     * @return: tasks - The matching tasks.
+     */
+    List<Task> findByNameAndPriorityAndIsDoneOrderByDueDate(String name, int priority, Boolean isDone, boolean descending);
+
+    /**
+     * This method returns a page of the listing if the store can compute it
+     * on its own, the way a database does with its indexes. The tasks follow
+     * the order of the listing: priority, then due date with the tasks
+     * without one last, then id. Stores that cannot return null, and the
+     * service scans the matching tasks instead.
+     * @param: query - The filters, sorting and page to return.
+     * @param: after - The task decoded from the cursor, or null.
+     * @version: 1.0
+     * @return: page - The page, or null if the store does not compute pages.
+     */
+    default TaskPage findPage(TaskQuery query, Task after) {
+        return null;
+    }
+
+    /**
+     * This method atomically updates the task with the given id.
+     * The updater receives a private copy of the current task, so readers never
+     * observe a task that is being modified. If the updater throws, the task
+     * is left unchanged and the exception is passed on, which is how a
+     * conditional change gives up.
+     * @param: id - The id of the task.
+     * @param: updater - The function that modifies the copy of the task.
+     * @version: 1.0
+     * @return: task - The updated task, or null if it does not exist.
+     */
+    Task update(int id, UnaryOperator<Task> updater);
+
+    /**
+     * This method deletes the task with the given id.
+     * @param: id - The id of the task.
+     * @version: 1.0
+     * @return: task - The deleted task, or null if it does not exist.
+     */
+    default Task deleteById(int id) {
+        return deleteById(id, task -> { });
+    }
+
+    /**
+     * This method deletes the task with the given id after running a check
+     * on it, while no one else can change it. If the check throws, the task
+     * is kept and the exception is passed on.
+     * @param: id - The id of the task.
+     * @param: precondition - The check of the current task.
+     * @version: 1.0
+     * @return: task - The deleted task, or null if it does not exist.
+     */
+    Task deleteById(int id, Consumer<Task> precondition);
+
+    /**
+     * This method stores several new tasks in one operation.
+     * @param: tasks - The tasks to store.
+     * @version: 1.0
+     * @return: tasks - The stored tasks, in the same order.
+     */
+    default List<Task> saveAll(List<Task> tasks) {
+        ArrayList<Task> saved = new ArrayList<>(tasks.size());
+        for (Task task : tasks) saved.add(save(task));
+        return saved;
+    }
+
+    /**
+     * This method atomically updates several tasks in one operation. Each task
+     * is updated atomically on its own; the batch as a whole is not.
+     * @param: updaters - The function that modifies each task, by id.
+     * @version: 1.0
+     * @return: tasks - The updated tasks by id. Missing tasks are left out.
+     */
+    default Map<Integer, Task> updateAll(Map<Integer, UnaryOperator<Task>> updaters) {
+        LinkedHashMap<Integer, Task> updated = new LinkedHashMap<>();
+        updaters.forEach((id, updater) -> {
+            Task task = update(id, updater);
+            if (task != null) updated.put(id, task);
+        });
+        return updated;
+    }
+
+    /**
+     * This method deletes several tasks in one operation.
+     * @param: ids - The ids of the tasks.
+     * @version: 1.0
+     * @return: tasks - The deleted tasks by id. Missing tasks are left out.
+     */
+    default Map<Integer, Task> deleteAllById(Collection<Integer> ids) {
+        LinkedHashMap<Integer, Task> deleted = new LinkedHashMap<>();
+        for (int id : ids) {
+            Task task = deleteById(id);
+            if (task != null) deleted.put(id, task);
+        }
+        return deleted;
+    }
+
+    /**
+     * This method returns the number of stored tasks.
+     * @version: 1.0
+     * @return: count - The number of stored tasks.
+     */
+    int count();
+
+    /**
+     * This method registers a listener that is called after every change of
+     * a task.
+     * @param: listener - The listener.
+     * @version: 1.0
+     */
+    void addChangeListener(TaskChangeListener listener);
+
+    /**
+     * This method returns the version of the store, which increases after
+     * every change of any task. It is read before a response is built, so a
+     * response never carries a version newer than its data.
+     * @version: 1.0
+     * @return: version - The version of the store.
+     */
+    long getVersion();
+
+    /**
+     * This method returns the completion time summary of every priority that
+     * has tasks, followed by the summary of all of them under the "Total" key.
+     * @version: 1.0
+     * @return: summaries - The summaries by priority name.
+     */
+    Map<String, CompletionTimeSummary> getCompletionTimes();
+
+    /**
+     * This method returns whether the store keeps the tasks of each owner in
+     * a partition of their own.
+     * @version: 1.0
+     * @return: partitioned - Whether partition() isolates the owners.
+     */
+    default boolean isPartitioned() {
+        return false;
+    }
+
+    /**
+     * This method returns the partition of the store that holds the tasks of
+     * the given owner. Queries on a partition only see its tasks, and the
+     * tasks saved in it must belong to its owner. Stores that are not
+     * partitioned have a single partition shared by everyone: themselves.
+     * @param: owner - The owner, or null for the shared partition.
+     * @version: 1.0
+     * @return: partition - The partition of the owner.
+     */
+    default TaskRepository partition(String owner) {
+        return this;
+    }
+
+    /**
+     * This method returns the number of entries of each secondary index, for
+     * monitoring. Every size must be cheap to compute.
+     * @version: 1.0
+     * @return: sizes - The number of entries by index name, empty if there are no indexes.
+     */
+    default Map<String, Integer> getIndexSizes() {
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,75 @@
+package com.todoAPI.todo.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class spreads keys across shards with consistent hashing. Every shard
+ * owns many points of a ring of 64-bit hashes, and a key goes to the shard of
+ * the first point at or after its own hash, so the keys are spread evenly and
+ * adding a shard only moves the keys that land on its points.
+ * The ring is fixed once built, so routing takes no lock: a binary search
+ * over the sorted points.
+ * @version: 1.0
+ */
+final class TaskShardRouter<S> {
+    private final long[] points;
+    private final Object[] shardsByPoint;
+
+    /**
+     * This constructor builds the ring of the given shards.
+     * @param: shards - The shards.
+     * @param: pointsPerShard - The number of points of every shard on the ring.
+     * @version: 1.0
+     */
+    TaskShardRouter(List<S> shards, int pointsPerShard) {
+        int count = shards.size() * pointsPerShard;
+        long[][] ring = new long[count][];
+        for (int shard = 0; shard < shards.size(); shard++) {
+            for (int point = 0; point < pointsPerShard; point++) {
+                ring[shard * pointsPerShard + point] = new long[] {hash("shard-" + shard + "#" + point), shard};
+            }
+        }
+        Arrays.sort(ring, (first, second) -> Long.compare(first[0], second[0]));
+
+        this.points = new long[count];
+        this.shardsByPoint = new Object[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = ring[i][0];
+            shardsByPoint[i] = shards.get((int) ring[i][1]);
+        }
+    }
+
+    /**
+     * This method returns the shard of a key.
+     * @param: key - The key.
+     * @version: 1.0
+     * @return: shard - The shard that owns the key.
+     */
+    @SuppressWarnings("unchecked")
+    S route(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) index = -index - 1;
+        // Past the last point the ring wraps around to the first one.
+        return (S) shardsByPoint[index == points.length ? 0 : index];
+    }
+
+    /**
+     * This method hashes a key with 64-bit FNV-1a over its UTF-8 bytes,
+     * followed by the finalizer of MurmurHash3 to spread similar keys.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte value : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= value & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
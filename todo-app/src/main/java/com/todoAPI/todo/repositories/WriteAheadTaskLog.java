@@ -0,0 +1,342 @@
+package com.todoAPI.todo.repositories;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class is an append-only write-ahead log of the task changes, stored in
+ * a directory of numbered segment files (wal-N.log) and snapshots
+ * (snapshot-N.bin).
+ *
+ * Appends only copy the record into a shared buffer. A single writer thread
+ * drains the buffer, writes it to the current segment with a FileChannel and
+ * forces it to disk, so every fsync commits all the records that arrived in
+ * the meantime (group commit). The fsync interval lets the writer wait to
+ * gather bigger groups, and callers can choose not to wait for the fsync.
+ *
+ * Every so many records the writer starts a new segment N and a background
+ * thread compacts the older files into snapshot-N: it replays the previous
+ * snapshot and the closed segments into a temporary map, writes the live
+ * tasks and then deletes the files it replaced. Building the snapshot from
+ * the log rather than from the live store means it never misses a change
+ * that was logged but not yet applied to the store. Recovery loads the
+ * newest snapshot and replays the segments from its number on, dropping a
+ * record torn by a crash at the end of the last segment.
+ * @version: 1.0
+ */
+public class WriteAheadTaskLog implements TaskLog, Closeable {
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final Path directory;
+    private final long fsyncIntervalMillis;
+    private final boolean waitForFsync;
+    private final long snapshotEveryRecords;
+    private final ExecutorService snapshotExecutor;
+
+    // Appenders and the writer share the pending buffer under appendLock.
+    private final Object appendLock = new Object();
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private long appendedSequence;
+    private boolean closed;
+
+    // Callers waiting for their record to be durable wait on durableLock.
+    private final Object durableLock = new Object();
+    private volatile long durableSequence;
+    private volatile IOException failure;
+
+    // Only used by the writer thread.
+    private FileChannel segment;
+    private long segmentNumber;
+    private long recordsSinceSnapshot;
+
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final AtomicInteger highestId = new AtomicInteger();
+    private Thread writer;
+
+    /**
+     * This constructor creates a log in the given directory.
+     * @param: directory - The directory of the log files.
+     * @param: fsyncIntervalMillis - How long the writer gathers records before each fsync, 0 to sync as soon as possible.
+     * @param: waitForFsync - Whether changes wait for their record to be on disk before returning.
+     * @param: snapshotEveryRecords - The number of records after which a snapshot is taken.
+     * @param: snapshotThreads - The factory of the thread that writes the snapshots.
+     * @version: 1.0
+     */
+    public WriteAheadTaskLog(Path directory, long fsyncIntervalMillis, boolean waitForFsync, long snapshotEveryRecords, ThreadFactory snapshotThreads) {
+        this.directory = directory;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.waitForFsync = waitForFsync;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(snapshotThreads);
+    }
+
+    @Override
+    public int recover(ConcurrentMap<Integer, Task> tasks) {
+        try {
+            Files.createDirectories(directory);
+            long snapshot = newestNumber(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+            if (snapshot > 0) replay(file(SNAPSHOT_PREFIX, snapshot, SNAPSHOT_SUFFIX), tasks, false);
+
+            long lastSegment = snapshot;
+            for (long number : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                if (number < snapshot) continue;
+                replay(file(SEGMENT_PREFIX, number, SEGMENT_SUFFIX), tasks, true);
+                lastSegment = number;
+            }
+
+            // New records always go to a fresh segment.
+            segmentNumber = lastSegment + 1;
+            segment = openSegment(segmentNumber);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        writer = new Thread(this::writeLoop, "task-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        return highestId.get();
+    }
+
+    @Override
+    public long append(Task task) {
+        highestId.accumulateAndGet(task.getId(), Math::max);
+        return appendRecord(TaskRecordCodec.encodePut(task));
+    }
+
+    @Override
+    public long appendDelete(int taskId) {
+        highestId.accumulateAndGet(taskId, Math::max);
+        return appendRecord(TaskRecordCodec.encodeDelete(taskId));
+    }
+
+    @Override
+    public void awaitDurable(long sequence) {
+        checkFailure();
+        if (!waitForFsync || durableSequence >= sequence) return;
+        synchronized (durableLock) {
+            while (durableSequence < sequence) {
+                checkFailure();
+                try {
+                    durableLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the task log.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * This method writes the pending records, stops the writer, lets a
+     * running snapshot finish and closes the current segment.
+     * @version: 1.0
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            closed = true;
+            appendLock.notifyAll();
+        }
+        try {
+            if (writer != null) writer.join();
+            snapshotExecutor.shutdown();
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (segment != null) segment.close();
+    }
+
+    private long appendRecord(byte[] record) {
+        checkFailure();
+        synchronized (appendLock) {
+            if (closed) throw new IllegalStateException("The task log is closed.");
+            pending.write(record, 0, record.length);
+            appendLock.notifyAll();
+            return ++appendedSequence;
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                synchronized (appendLock) {
+                    while (pending.size() == 0 && !closed) appendLock.wait();
+                    if (pending.size() == 0) break;
+                }
+                if (fsyncIntervalMillis > 0) Thread.sleep(fsyncIntervalMillis);
+
+                byte[] batch;
+                long sequence;
+                synchronized (appendLock) {
+                    batch = pending.toByteArray();
+                    pending = new ByteArrayOutputStream();
+                    sequence = appendedSequence;
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) segment.write(buffer);
+                segment.force(false);
+                recordsSinceSnapshot += sequence - durableSequence;
+                markDurable(sequence);
+
+                if (recordsSinceSnapshot >= snapshotEveryRecords && snapshotRunning.compareAndSet(false, true)) {
+                    recordsSinceSnapshot = 0;
+                    startSnapshot();
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            markDurable(durableSequence);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void markDurable(long sequence) {
+        synchronized (durableLock) {
+            durableSequence = sequence;
+            durableLock.notifyAll();
+        }
+    }
+
+    private void startSnapshot() throws IOException {
+        segment.close();
+        segmentNumber++;
+        segment = openSegment(segmentNumber);
+
+        long snapshot = segmentNumber;
+        snapshotExecutor.execute(() -> {
+            try {
+                writeSnapshot(snapshot);
+            } catch (IOException e) {
+                // The segments are only deleted once a snapshot is complete, so nothing is lost.
+            } finally {
+                snapshotRunning.set(false);
+            }
+        });
+    }
+
+    /**
+     * This method compacts the previous snapshot and the segments before N
+     * into snapshot-N and deletes the files that it makes unnecessary. The
+     * snapshot starts with the deletion of the highest id logged so far, so
+     * ids of deleted tasks are not reused after the older segments are gone.
+     */
+    private void writeSnapshot(long number) throws IOException {
+        HashMap<Integer, Task> tasks = new HashMap<>();
+        long previous = 0;
+        for (long old : numbers(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (old < number) previous = old;
+        }
+        if (previous > 0) replay(file(SNAPSHOT_PREFIX, previous, SNAPSHOT_SUFFIX), tasks, false);
+        for (long segment : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (segment >= previous && segment < number) replay(file(SEGMENT_PREFIX, segment, SEGMENT_SUFFIX), tasks, false);
+        }
+
+        Path temporary = directory.resolve(SNAPSHOT_PREFIX + number + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16);
+            output.write(TaskRecordCodec.encodeDelete(highestId.get()));
+            for (Task task : tasks.values()) output.write(TaskRecordCodec.encodePut(task));
+            output.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file(SNAPSHOT_PREFIX, number, SNAPSHOT_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+
+        for (long old : numbers(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (old < number) Files.deleteIfExists(file(SEGMENT_PREFIX, old, SEGMENT_SUFFIX));
+        }
+        for (long old : numbers(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (old < number) Files.deleteIfExists(file(SNAPSHOT_PREFIX, old, SNAPSHOT_SUFFIX));
+        }
+    }
+
+    /**
+     * This method applies the records of a file to the given tasks. If asked
+     * to, the file is cut right after its last valid record.
+     */
+    private void replay(Path path, Map<Integer, Task> tasks, boolean truncateTornTail) throws IOException {
+        long validLength = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            byte[] payload;
+            while ((payload = TaskRecordCodec.read(input)) != null) {
+                if (payload[0] == TaskRecordCodec.PUT) {
+                    Task task = TaskRecordCodec.decodeTask(payload);
+                    tasks.put(task.getId(), task);
+                    highestId.accumulateAndGet(task.getId(), Math::max);
+                } else if (payload[0] == TaskRecordCodec.DELETE) {
+                    int taskId = TaskRecordCodec.decodeDeletedId(payload);
+                    tasks.remove(taskId);
+                    highestId.accumulateAndGet(taskId, Math::max);
+                }
+                validLength += TaskRecordCodec.framedLength(payload);
+            }
+        }
+        if (truncateTornTail && validLength < Files.size(path)) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(validLength);
+                channel.force(true);
+            }
+        }
+    }
+
+    private FileChannel openSegment(long number) throws IOException {
+        return FileChannel.open(file(SEGMENT_PREFIX, number, SEGMENT_SUFFIX), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path file(String prefix, long number, String suffix) {
+        return directory.resolve(prefix + number + suffix);
+    }
+
+    private long newestNumber(String prefix, String suffix) throws IOException {
+        List<Long> numbers = numbers(prefix, suffix);
+        return numbers.isEmpty() ? 0 : numbers.get(numbers.size() - 1);
+    }
+
+    private List<Long> numbers(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(prefix) && name.endsWith(suffix))
+                .map(name -> Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())))
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) throw new UncheckedIOException("The task log failed.", failure);
+    }
+}
@@ -0,0 +1,87 @@
+package com.todoAPI.todo.services;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class keeps the first tasks of the listing, up to a limit, as the
+ * repository hands out the matching tasks, and counts them. Parts of a
+ * parallel scan each fill their own and merge them afterwards.
+ * @version: 1.0
+ */
+final class FirstTasks implements Consumer<Task> {
+    private final Comparator<Task> order;
+    private final Task after;
+    private final int limit;
+    private final PriorityQueue<Task> heap;
+    private int total;
+    private int remaining;
+
+    /**
+     * This constructor creates an empty selection.
+     * @param: plan - The plan with the order of the listing.
+     * @param: after - The task decoded from the cursor, or null.
+     * @param: limit - The number of tasks to keep.
+     * @version: 1.0
+     */
+    FirstTasks(TaskQueryPlan plan, Task after, int limit) {
+        this.order = plan.order();
+        this.after = after;
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, plan.reversedOrder());
+    }
+
+    @Override
+    public void accept(Task task) {
+        total++;
+        if (after != null && order.compare(task, after) <= 0) return;
+        remaining++;
+        keep(task);
+    }
+
+    /**
+     * This method adds the tasks and counts of another selection of the same
+     * query to this one.
+     * @param: other - The other selection.
+     * @version: 1.0
+     * @return: selection - This selection.
+     */
+    FirstTasks merge(FirstTasks other) {
+        total += other.total;
+        remaining += other.remaining;
+        for (Task task : other.heap) keep(task);
+        return this;
+    }
+
+    /**
+     * This method returns the heap of the kept tasks, whose head is the last
+     * one in the order of the listing.
+     * @version: 1.0
+     * @return: heap - The kept tasks.
+     */
+    PriorityQueue<Task> heap() {
+        return heap;
+    }
+
+    // The number of matching tasks.
+    int total() {
+        return total;
+    }
+
+    // The number of matching tasks after the cursor.
+    int remaining() {
+        return remaining;
+    }
+
+    // Once the heap is full, only a task before its last one gets in.
+    private void keep(Task task) {
+        if (heap.size() == limit) {
+            if (limit == 0 || order.compare(task, heap.peek()) >= 0) return;
+            heap.poll();
+        }
+        heap.offer(task);
+    }
+}
@@ -0,0 +1,113 @@
+package com.todoAPI.todo.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+import javax.annotation.PreDestroy;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This class runs the scan of the task listing in parallel once the store
+ * holds more than todo.query.parallel-threshold tasks. The matching tasks
+ * are split into segments along the spliterator of the repository, each
+ * segment selects its own first tasks on a dedicated ForkJoinPool of
+ * todo.query.parallelism threads, and the selections are merged pairwise.
+ * The pool is separate from the common pool, so parallel streams elsewhere
+ * in the JVM cannot starve the listings, nor the other way round.
+ * @version: 1.0
+ */
+@Component
+public class ParallelTaskScan {
+    // Segments smaller than this are not worth a task of their own.
+    private static final long MIN_SEGMENT_SIZE = 4096;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    /**
+     * This constructor creates the pool of the scans.
+     * @param: parallelism - The number of threads, or 0 for one per processor.
+     * @param: threshold - The number of stored tasks from which scans run in parallel.
+     * @version: 1.0
+     */
+    public ParallelTaskScan(@Value("${todo.query.parallelism:0}") int parallelism,
+            @Value("${todo.query.parallel-threshold:200000}") int threshold) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("task-query-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        this.threshold = threshold;
+    }
+
+    /**
+     * This method tells whether a scan over a store of the given size runs
+     * in parallel.
+     * @param: storedTasks - The number of stored tasks.
+     * @version: 1.0
+     * @return: parallel - Whether to use the parallel scan.
+     */
+    public boolean engages(int storedTasks) {
+        return pool.getParallelism() > 1 && storedTasks >= threshold;
+    }
+
+    /**
+     * This method selects the first tasks of the listing in parallel.
+     * @param: tasks - The matching tasks.
+     * @param: plan - The plan with the order of the listing.
+     * @param: after - The task decoded from the cursor, or null.
+     * @param: limit - The number of tasks to keep.
+     * @version: 1.0
+     * @return: selection - The first tasks and the counts of the listing.
+     */
+    FirstTasks select(Spliterator<Task> tasks, TaskQueryPlan plan, Task after, int limit) {
+        long segmentSize = Math.max(MIN_SEGMENT_SIZE, tasks.estimateSize() / (pool.getParallelism() * 4L));
+        return pool.invoke(new Segment(tasks, segmentSize, plan, after, limit));
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * This class selects the first tasks of one segment, splitting it while
+     * it is larger than the segment size.
+     */
+    private static final class Segment extends RecursiveTask<FirstTasks> {
+        private final Spliterator<Task> tasks;
+        private final long segmentSize;
+        private final TaskQueryPlan plan;
+        private final Task after;
+        private final int limit;
+
+        Segment(Spliterator<Task> tasks, long segmentSize, TaskQueryPlan plan, Task after, int limit) {
+            this.tasks = tasks;
+            this.segmentSize = segmentSize;
+            this.plan = plan;
+            this.after = after;
+            this.limit = limit;
+        }
+
+        @Override
+        protected FirstTasks compute() {
+            Spliterator<Task> prefix;
+            if (tasks.estimateSize() > segmentSize && (prefix = tasks.trySplit()) != null) {
+                Segment left = new Segment(prefix, segmentSize, plan, after, limit);
+                left.fork();
+                FirstTasks right = new Segment(tasks, segmentSize, plan, after, limit).compute();
+                return left.join().merge(right);
+            }
+            FirstTasks firstTasks = new FirstTasks(plan, after, limit);
+            tasks.forEachRemaining(firstTasks);
+            return firstTasks;
+        }
+    }
+}
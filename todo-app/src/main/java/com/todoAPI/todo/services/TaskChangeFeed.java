@@ -0,0 +1,120 @@
+package com.todoAPI.todo.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskChange;
+
+/**
+ * This class keeps the latest changes of the tasks in a ring buffer, so
+ * clients can follow the changes instead of polling the listing, and resume
+ * from the last change they saw after a disconnection.
+ *
+ * Publishing takes a short lock to number the change and store it in its
+ * slot, then notifies the listeners, which must not block. Reading takes no
+ * lock: a reader that falls more than the capacity of the buffer behind
+ * finds its next change overwritten and has to start over from the listing.
+ *
+ * Changes are published after the repository applied them, so concurrent
+ * changes of the same task may be published in another order; the version
+ * of the task tells which one is the latest.
+ * @version: 1.0
+ */
+@Service
+public class TaskChangeFeed {
+    private final int capacity;
+    private final AtomicReferenceArray<TaskChange> changes;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile long head;
+
+    /**
+     * This constructor creates a feed that keeps the given number of changes.
+     * @param: capacity - The number of changes kept for readers that fall behind.
+     * @version: 1.0
+     */
+    public TaskChangeFeed(@Value("${todo.changes.capacity:4096}") int capacity) {
+        this.capacity = capacity;
+        this.changes = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * This method publishes a change and notifies the listeners.
+     * @param: type - The kind of change.
+     * @param: task - The task after the change, or the deleted task.
+     * @version: 1.0
+     */
+    public void publish(TaskChange.Type type, Task task) {
+        synchronized (this) {
+            long sequence = head + 1;
+            changes.set(slotOf(sequence), new TaskChange(sequence, type, task));
+            // Readers read the head first, so the change is visible to them once it moves.
+            head = sequence;
+        }
+        for (Runnable listener : listeners) listener.run();
+    }
+
+    /**
+     * This method publishes the same kind of change for several tasks.
+     * @param: type - The kind of change.
+     * @param: tasks - The tasks after the change, or the deleted tasks.
+     * @version: 1.0
+     */
+    public void publishAll(TaskChange.Type type, Iterable<Task> tasks) {
+        for (Task task : tasks) publish(type, task);
+    }
+
+    /**
+     * This method returns the number of the latest change.
+     * @version: 1.0
+     * @return: sequence - The number of the latest change, or 0 if there is none.
+     */
+    public long head() {
+        return head;
+    }
+
+    /**
+     * This method returns the changes published after the given one.
+     * @param: sequence - The number of the last change the reader has seen.
+     * @version: 1.0
+     * @return: changes - The newer changes in order, or null if some of them
+     *          are no longer kept or the number is unknown.
+     */
+    public List<TaskChange> since(long sequence) {
+        long latest = head;
+        if (sequence < 0 || sequence > latest) return null;
+        if (sequence == latest) return Collections.emptyList();
+        if (latest - sequence > capacity) return null;
+
+        ArrayList<TaskChange> result = new ArrayList<>((int) (latest - sequence));
+        for (long next = sequence + 1; next <= latest; next++) {
+            TaskChange change = changes.get(slotOf(next));
+            // A writer got around the ring while we were reading.
+            if (change == null || change.getSequence() != next) return null;
+            result.add(change);
+        }
+        return result;
+    }
+
+    /**
+     * This method registers a listener that runs on the publishing thread
+     * after every change, so it must only schedule work.
+     * @param: listener - The listener.
+     * @version: 1.0
+     * @return: unsubscribe - The action that removes the listener.
+     */
+    public Runnable subscribe(Runnable listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % capacity);
+    }
+}
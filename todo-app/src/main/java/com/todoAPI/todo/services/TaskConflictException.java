@@ -0,0 +1,36 @@
+package com.todoAPI.todo.services;
+
+import com.todoAPI.todo.models.Task;
+
+/**
+ * This exception is thrown when a conditional change finds the task in a
+ * version other than the one the client expected. It is thrown while the
+ * repository holds the task, so the task is left unchanged, and it carries
+ * the current version for the response.
+ * It is expected under contention, so it does not fill in a stack trace.
+ * @version: 1.0
+ */
+public class TaskConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Task current;
+
+    /**
+     * This constructor creates the exception for the current task.
+     * @param: current - The task as it is stored.
+     * @version: 1.0
+     */
+    public TaskConflictException(Task current) {
+        super("The task " + current.getId() + " is at version " + current.getVersion() + ".", null, false, false);
+        this.current = current;
+    }
+
+    /**
+     * This method returns the task as it is stored.
+     * @version: 1.0
+     * @return: task - The current task.
+     */
+    public Task getCurrent() {
+        return this.current;
+    }
+}
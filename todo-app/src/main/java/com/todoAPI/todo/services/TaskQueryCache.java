@@ -0,0 +1,258 @@
+package com.todoAPI.todo.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+
+/**
+ * This class caches the pages of the task listing by normalized query.
+ *
+ * The cache is bounded both by the number of pages and by their weight, the
+ * number of tasks they hold, and evicts the oldest pages first. The pages
+ * live in a concurrent map with a queue of insertion order, so lookups and
+ * stores of different queries never wait on each other.
+ *
+ * Every shape of filter, an owner with a priority or any and a status or
+ * any, has a generation. A change increments the generations of the shapes
+ * the task matched before and after it, at most eight counters, which is
+ * all a write costs. A page is stamped with the generation of the shape of
+ * its query read before its computation started, and a lookup that finds an
+ * older stamp drops the page as stale. So a change never scans the cache,
+ * and only drops the pages whose filters the task passed or passes: a
+ * renamed done task leaves the pages of undone tasks cached. The name
+ * filter is left out of the shape, so a change to a task of the shape drops
+ * its pages whatever their name filter.
+ *
+ * Hits, misses and evictions are counted in tasks.query.cache.requests and
+ * tasks.query.cache.evictions.
+ * @version: 1.0
+ */
+@Component
+public class TaskQueryCache {
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ConcurrentHashMap<TaskQuery, Entry> pages = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong weight = new AtomicLong();
+    private final ConcurrentHashMap<Shape, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter weightEvictions;
+    private final Counter invalidations;
+
+    /**
+     * This constructor creates a cache with the given bounds. A maximum of 0
+     * pages disables the cache.
+     * @param: maxEntries - The maximum number of pages.
+     * @param: maxWeight - The maximum number of tasks in all the pages.
+     * @param: meterRegistry - The registry of the metrics.
+     * @version: 1.0
+     */
+    @Autowired
+    public TaskQueryCache(@Value("${todo.query-cache.max-entries:1000}") int maxEntries,
+            @Value("${todo.query-cache.max-weight:50000}") long maxWeight, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.sizeEvictions = evictions(meterRegistry, "size");
+        this.weightEvictions = evictions(meterRegistry, "weight");
+        this.invalidations = evictions(meterRegistry, "invalidation");
+        Gauge.builder("tasks.query.cache.entries", pages, Map::size)
+            .description("The number of pages in the task query cache.")
+            .register(meterRegistry);
+        Gauge.builder("tasks.query.cache.weight", weight, AtomicLong::get)
+            .description("The number of tasks in the pages of the task query cache.")
+            .register(meterRegistry);
+    }
+
+    /**
+     * This method returns whether the cache stores anything.
+     * @version: 1.0
+     * @return: enabled - Whether the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * This method returns the cached page of a query, unless a task its
+     * filters may list changed since the page was computed.
+     * @param: query - The normalized query.
+     * @version: 1.0
+     * @return: page - The page, or null if it is not cached.
+     */
+    public TaskPage get(TaskQuery query) {
+        Entry entry = pages.get(query);
+        if (entry != null && entry.generation != generation(query)) {
+            if (remove(entry)) invalidations.increment();
+            entry = null;
+        }
+        (entry != null ? hits : misses).increment();
+        return entry != null ? entry.page : null;
+    }
+
+    /**
+     * This method returns the generation of the shape of a query. It must be
+     * read before computing a page, and given back when storing it.
+     * @param: query - The query.
+     * @version: 1.0
+     * @return: generation - The number of changes of the tasks of the shape.
+     */
+    public long generation(TaskQuery query) {
+        AtomicLong generation = generations.get(new Shape(keyOf(query.getOwner()), query.getPriority(), query.getIsDone()));
+        return generation != null ? generation.get() : 0;
+    }
+
+    /**
+     * This method stores the page of a query, unless a task its filters may
+     * list changed since the computation of the page started.
+     * @param: query - The normalized query.
+     * @param: page - The page.
+     * @param: generation - The generation read before computing the page.
+     * @version: 1.0
+     */
+    public void put(TaskQuery query, TaskPage page, long generation) {
+        if (generation != generation(query) || weightOf(page) > maxWeight) return;
+        Entry entry = new Entry(query, page, generation);
+        Entry previous = pages.put(query, entry);
+        if (previous != null) weight.addAndGet(-weightOf(previous.page));
+        weight.addAndGet(weightOf(page));
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        evict();
+    }
+
+    /**
+     * This method marks the pages whose filters the changed task passed or
+     * passes as stale. They are dropped when they are next looked up or
+     * evicted.
+     * @param: before - The task before the change, or null if it was created.
+     * @param: after - The task after the change, or null if it was deleted.
+     * @version: 1.0
+     */
+    public void invalidate(Task before, Task after) {
+        if (before != null) advance(before);
+        if (after != null && (before == null || !sameShape(before, after))) advance(after);
+    }
+
+    // Increments the generations of the four shapes a task matches.
+    private void advance(Task task) {
+        String owner = keyOf(task.getOwner());
+        for (int priority : new int[] {0, task.getPriority()}) {
+            for (Boolean isDone : new Boolean[] {null, task.getIsDone()}) {
+                generations.computeIfAbsent(new Shape(owner, priority, isDone), shape -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+
+    private static boolean sameShape(Task first, Task second) {
+        return Objects.equals(first.getOwner(), second.getOwner())
+            && first.getPriority() == second.getPriority()
+            && first.getIsDone() == second.getIsDone();
+    }
+
+    // Drops the oldest pages while the cache is over its bounds. The queue also holds pages
+    // already replaced or dropped, which are skipped, and is kept to twice the maximum.
+    private void evict() {
+        while (pages.size() > maxEntries || weight.get() > maxWeight || queued.get() > 2 * maxEntries) {
+            Entry eldest = insertionOrder.poll();
+            if (eldest == null) return;
+            queued.decrementAndGet();
+            boolean overSize = pages.size() > maxEntries;
+            boolean overWeight = weight.get() > maxWeight;
+            if (remove(eldest) && (overSize || overWeight)) (overSize ? sizeEvictions : weightEvictions).increment();
+        }
+    }
+
+    private boolean remove(Entry entry) {
+        if (!pages.remove(entry.query, entry)) return false;
+        weight.addAndGet(-weightOf(entry.page));
+        return true;
+    }
+
+    // The shared partition of the tasks without owner has the empty key.
+    private static String keyOf(String owner) {
+        return owner == null ? "" : owner;
+    }
+
+    private static long weightOf(TaskPage page) {
+        return 1 + page.getTasks().size();
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("tasks.query.cache.requests")
+            .description("The lookups of the task query cache.")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("tasks.query.cache.evictions")
+            .description("The pages removed from the task query cache.")
+            .tag("cause", cause)
+            .register(meterRegistry);
+    }
+
+    /**
+     * This class holds a shape of filter: the owner, the priority or 0 for
+     * any, and the status or null for any.
+     */
+    private static final class Shape {
+        private final String owner;
+        private final int priority;
+        private final Boolean isDone;
+
+        private Shape(String owner, int priority, Boolean isDone) {
+            this.owner = owner;
+            this.priority = priority;
+            this.isDone = isDone;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Shape)) return false;
+            Shape shape = (Shape) other;
+            return priority == shape.priority && owner.equals(shape.owner) && Objects.equals(isDone, shape.isDone);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(owner, priority, isDone);
+        }
+    }
+
+    /**
+     * This class holds a cached page with its query and the generation of
+     * the shape of its query when it was computed.
+     */
+    private static final class Entry {
+        private final TaskQuery query;
+        private final TaskPage page;
+        private final long generation;
+
+        private Entry(TaskQuery query, TaskPage page, long generation) {
+            this.query = query;
+            this.page = page;
+            this.generation = generation;
+        }
+    }
+}
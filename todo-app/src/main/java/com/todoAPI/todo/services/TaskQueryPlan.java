@@ -0,0 +1,98 @@
+package com.todoAPI.todo.services;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskQuery;
+
+/**
+ * This class holds the order of the task listing for one shape of query,
+ * that is one combination of sort directions. There are only nine shapes,
+ * so the plans are built once and shared by every request instead of
+ * chaining new comparators for each one.
+ *
+ * The order is a single comparator over all the keys: priority, then due
+ * date with the tasks without one last in both directions, then id, which
+ * makes it total.
+ * @version: 1.0
+ */
+final class TaskQueryPlan {
+    private static final TaskQueryPlan[] PLANS = new TaskQueryPlan[9];
+
+    static {
+        for (int priority = -1; priority <= 1; priority++) {
+            for (int dueDate = -1; dueDate <= 1; dueDate++) PLANS[indexOf(priority, dueDate)] = new TaskQueryPlan(priority, dueDate);
+        }
+    }
+
+    private final Comparator<Task> order;
+    private final Comparator<Task> reversedOrder;
+
+    private TaskQueryPlan(int priorityDirection, int dueDateDirection) {
+        this.order = new TaskOrder(priorityDirection, dueDateDirection);
+        this.reversedOrder = Collections.reverseOrder(order);
+    }
+
+    /**
+     * This method returns the plan of the shape of a query.
+     * @param: query - The query.
+     * @version: 1.0
+     * @return: plan - The shared plan.
+     */
+    static TaskQueryPlan of(TaskQuery query) {
+        return PLANS[indexOf(direction(query.getSortByPriority()), direction(query.getSortByDueDate()))];
+    }
+
+    Comparator<Task> order() {
+        return order;
+    }
+
+    Comparator<Task> reversedOrder() {
+        return reversedOrder;
+    }
+
+    // 0 keeps the key out of the order, 1 sorts it ascending and -1 descending.
+    private static int direction(String sort) {
+        if (sort == null) return 0;
+        return sort.equals("desc") ? -1 : 1;
+    }
+
+    private static int indexOf(int priorityDirection, int dueDateDirection) {
+        return (priorityDirection + 1) * 3 + dueDateDirection + 1;
+    }
+
+    /**
+     * This class compares tasks by every key of the listing in one call,
+     * reading the fields directly instead of through key extractors.
+     */
+    private static final class TaskOrder implements Comparator<Task> {
+        private final int priorityDirection;
+        private final int dueDateDirection;
+
+        TaskOrder(int priorityDirection, int dueDateDirection) {
+            this.priorityDirection = priorityDirection;
+            this.dueDateDirection = dueDateDirection;
+        }
+
+        @Override
+        public int compare(Task task1, Task task2) {
+            if (priorityDirection != 0) {
+                int byPriority = Integer.compare(task1.getPriority(), task2.getPriority());
+                if (byPriority != 0) return priorityDirection * byPriority;
+            }
+            if (dueDateDirection != 0) {
+                LocalDateTime dueDate1 = task1.getDueDate();
+                LocalDateTime dueDate2 = task2.getDueDate();
+                if (dueDate1 == null || dueDate2 == null) {
+                    if (dueDate1 != dueDate2) return dueDate1 == null ? 1 : -1;
+                } else {
+                    int byDueDate = dueDate1.compareTo(dueDate2);
+                    if (byDueDate != 0) return dueDateDirection * byDueDate;
+                }
+            }
+            return Integer.compare(task1.getId(), task2.getId());
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.todoAPI.todo.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PreDestroy;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskChange;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.repositories.TaskRepository;
+
+/**
+ * This class schedules the due dates of the undone tasks, so due and overdue
+ * tasks are known without scanning the store.
+ *
+ * The due dates wait in a hierarchical timing wheel, see TaskTimingWheel,
+ * which a background thread moves forward every tick. When a task reaches
+ * its due date it moves to the overdue set of its owner, sorted by due
+ * date, and a DUE change is published; a task saved with a due date that
+ * already passed goes straight to the overdue set with an OVERDUE change.
+ * Scheduling, moving and firing a task take constant time, and a tick costs
+ * the tasks it fires. The overdue tasks are counted as they enter and leave
+ * the sets, per owner and in total, so counting them never walks a set.
+ *
+ * The scheduler follows the repository as a change listener, which only
+ * queues the changed task, so writes never wait for the wheel nor read the
+ * task again. The queue is drained by the ticking thread, and before the
+ * scheduled and overdue tasks are read; a writer that finds it long drains
+ * it only if nobody else is. Concurrent changes of a task may be queued in
+ * another order, so a change older than the version of the task already
+ * applied is dropped. The versions of the tasks that are not scheduled are
+ * only kept for two ticks, far longer than a change takes to be queued.
+ *
+ * The number of scheduled and overdue tasks are exposed in
+ * tasks.reminders.scheduled and tasks.reminders.overdue.
+ * @version: 1.0
+ */
+@Service
+public class TaskReminderScheduler {
+    private static final Comparator<TaskTimingWheel.Entry> BY_DUE_DATE =
+        Comparator.<TaskTimingWheel.Entry, LocalDateTime>comparing(entry -> entry.dueDate)
+            .thenComparingInt(entry -> entry.taskId);
+    // The queued changes past which a writer drains them, if the lock is free.
+    private static final int MAX_PENDING = 4096;
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeFeed taskChangeFeed;
+    private final long tickMillis;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final TaskTimingWheel wheel;
+    private final Map<Integer, TaskTimingWheel.Entry> entries = new HashMap<>();
+    // Guards the wheel, the entries and the versions; the writers never wait for it.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // The versions of the tasks last seen unscheduled, in this tick and the one before.
+    private Map<Integer, Long> unscheduledVersions = new HashMap<>();
+    private Map<Integer, Long> previousUnscheduledVersions = new HashMap<>();
+    private final ConcurrentHashMap<String, Overdue> overdueByOwner = new ConcurrentHashMap<>();
+    private final AtomicInteger overdueCount = new AtomicInteger();
+    private final ScheduledExecutorService ticker;
+
+    /**
+     * This constructor creates a scheduler of the due dates of the stored
+     * tasks, which only moves forward when advance() is called.
+     * @param: taskRepository - The store of the tasks.
+     * @param: taskChangeFeed - The feed of the due and overdue changes.
+     * @param: tickMillis - The length of a tick, the precision of the due dates.
+     * @version: 1.0
+     */
+    public TaskReminderScheduler(TaskRepository taskRepository, TaskChangeFeed taskChangeFeed, long tickMillis) {
+        this(taskRepository, taskChangeFeed, tickMillis, null, null);
+    }
+
+    /**
+     * This constructor creates a scheduler that moves forward every tick on
+     * a background thread.
+     * @param: taskRepository - The store of the tasks.
+     * @param: taskChangeFeed - The feed of the due and overdue changes.
+     * @param: tickMillis - The length of a tick, the precision of the due dates.
+     * @param: backgroundThreadFactory - The factory of the ticking thread, or null not to tick.
+     * @param: meterRegistry - The registry of the metrics, or null.
+     * @version: 1.0
+     */
+    @Autowired
+    public TaskReminderScheduler(TaskRepository taskRepository, TaskChangeFeed taskChangeFeed,
+            @Value("${todo.reminders.tick-ms:1000}") long tickMillis, ThreadFactory backgroundThreadFactory,
+            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.taskChangeFeed = taskChangeFeed;
+        this.tickMillis = tickMillis;
+        this.wheel = new TaskTimingWheel(System.currentTimeMillis() / tickMillis);
+        // Listen first, so no change is missed while the stored tasks are loaded.
+        taskRepository.addChangeListener(this::enqueue);
+        lock.lock();
+        try {
+            for (Task task : taskRepository.findAll()) schedule(task);
+        } finally {
+            lock.unlock();
+        }
+
+        if (meterRegistry != null) {
+            Gauge.builder("tasks.reminders.scheduled", this, TaskReminderScheduler::scheduled)
+                .description("The number of undone tasks waiting for their due date.")
+                .register(meterRegistry);
+            Gauge.builder("tasks.reminders.overdue", this, TaskReminderScheduler::overdueCount)
+                .description("The number of undone tasks past their due date.")
+                .register(meterRegistry);
+        }
+
+        if (backgroundThreadFactory == null) {
+            this.ticker = null;
+            return;
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(backgroundThreadFactory);
+        ticker.scheduleAtFixedRate(() -> {
+            try {
+                advance(System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                // Keep ticking: the next tick catches up.
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * This method moves the scheduler forward to the given time, firing the
+     * tasks whose due date passed.
+     * @param: nowMillis - The current time in milliseconds since the epoch.
+     * @version: 1.0
+     * @return: fired - The number of tasks that became overdue.
+     */
+    public int advance(long nowMillis) {
+        List<TaskTimingWheel.Entry> fired = new ArrayList<>();
+        List<Task> overdue;
+        lock.lock();
+        try {
+            overdue = drain();
+            previousUnscheduledVersions = unscheduledVersions;
+            unscheduledVersions = new HashMap<>();
+            wheel.advance(nowMillis / tickMillis, entry -> {
+                addOverdue(entry);
+                fired.add(entry);
+            });
+        } finally {
+            lock.unlock();
+        }
+        publishOverdue(overdue);
+        for (TaskTimingWheel.Entry entry : fired) {
+            Task task = taskRepository.findById(entry.taskId);
+            if (task != null) taskChangeFeed.publish(TaskChange.Type.DUE, task);
+        }
+        return fired.size();
+    }
+
+    /**
+     * This method returns a page of the overdue tasks of an owner, the most
+     * overdue first.
+     * @param: owner - The owner, or null for the shared partition.
+     * @param: page - The number of the page, starting at 1.
+     * @param: size - The number of tasks per page.
+     * @version: 1.0
+     * @return: page - The page of overdue tasks.
+     */
+    public TaskPage getOverdueTasks(String owner, int page, int size) {
+        catchUp();
+        Overdue overdue = overdueByOwner.get(keyOf(owner));
+        if (overdue == null) return new TaskPage(0, new ArrayList<>(), null);
+        long skip = (long) (page - 1) * size;
+        List<Task> tasks = new ArrayList<>(Math.min(size, 1024));
+        Iterator<TaskTimingWheel.Entry> iterator = overdue.entries.iterator();
+        for (long i = 0; i < skip && iterator.hasNext(); i++) iterator.next();
+        while (tasks.size() < size && iterator.hasNext()) {
+            Task task = taskRepository.findById(iterator.next().taskId);
+            // Done or deleted since it was read.
+            if (task != null && !task.getIsDone()) tasks.add(task);
+        }
+        return new TaskPage(overdue.count.get(), tasks, null);
+    }
+
+    /**
+     * This method returns the number of tasks waiting for their due date.
+     * @version: 1.0
+     * @return: count - The number of scheduled tasks.
+     */
+    public int scheduled() {
+        catchUp();
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * This method returns the number of tasks past their due date.
+     * @version: 1.0
+     * @return: count - The number of overdue tasks.
+     */
+    public int overdueCount() {
+        catchUp();
+        return overdueCount.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (ticker != null) ticker.shutdownNow();
+    }
+
+    // The change listener: it never takes the lock unless it is free.
+    private void enqueue(Task before, Task after) {
+        pending.add(after != null ? new Change(after.getId(), after, after.getVersion()) : new Change(before.getId(), null, before.getVersion() + 1));
+        if (pendingCount.incrementAndGet() < MAX_PENDING || !lock.tryLock()) return;
+        List<Task> overdue;
+        try {
+            overdue = drain();
+        } finally {
+            lock.unlock();
+        }
+        publishOverdue(overdue);
+    }
+
+    // Applies the queued changes before the scheduled tasks are read.
+    private void catchUp() {
+        if (pending.isEmpty()) return;
+        List<Task> overdue;
+        lock.lock();
+        try {
+            overdue = drain();
+        } finally {
+            lock.unlock();
+        }
+        publishOverdue(overdue);
+    }
+
+    // Called with the lock held; returns the tasks that were saved already overdue.
+    private List<Task> drain() {
+        List<Task> overdue = new ArrayList<>();
+        Change change;
+        while ((change = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            if (apply(change)) overdue.add(change.task);
+        }
+        return overdue;
+    }
+
+    private void publishOverdue(List<Task> overdue) {
+        for (Task task : overdue) taskChangeFeed.publish(TaskChange.Type.OVERDUE, task);
+    }
+
+    // Returns whether the change made the task overdue.
+    private boolean apply(Change change) {
+        TaskTimingWheel.Entry entry = entries.get(change.id);
+        if (change.version <= versionOf(change.id, entry)) return false;
+        if (entry != null) {
+            if (isScheduled(change.task) && entry.dueDate.equals(change.task.getDueDate())) {
+                entry.version = change.version;
+                return false;
+            }
+            entries.remove(change.id);
+            if (!wheel.remove(entry)) removeOverdue(entry);
+        }
+        if (!isScheduled(change.task)) {
+            unscheduledVersions.put(change.id, change.version);
+            return false;
+        }
+        return !schedule(change.task);
+    }
+
+    // The version of the task last applied, or 0 if it is not known.
+    private long versionOf(int id, TaskTimingWheel.Entry entry) {
+        if (entry != null) return entry.version;
+        Long version = unscheduledVersions.get(id);
+        if (version == null) version = previousUnscheduledVersions.get(id);
+        return version != null ? version : 0;
+    }
+
+    // Returns whether the task waits in the wheel; a task past its due date goes to the overdue set.
+    private boolean schedule(Task task) {
+        if (!isScheduled(task)) return true;
+        long deadline = ceilDiv(millisOf(task.getDueDate()), tickMillis);
+        TaskTimingWheel.Entry entry = new TaskTimingWheel.Entry(task.getId(), task.getOwner(), task.getDueDate(), deadline);
+        entry.version = task.getVersion();
+        entries.put(task.getId(), entry);
+        if (wheel.add(entry)) return true;
+        addOverdue(entry);
+        return false;
+    }
+
+    // Called with the lock held, like removeOverdue(), so the counts follow the sets.
+    private void addOverdue(TaskTimingWheel.Entry entry) {
+        Overdue overdue = overdueByOwner.computeIfAbsent(keyOf(entry.owner), key -> new Overdue());
+        if (!overdue.entries.add(entry)) return;
+        overdue.count.incrementAndGet();
+        overdueCount.incrementAndGet();
+    }
+
+    private void removeOverdue(TaskTimingWheel.Entry entry) {
+        Overdue overdue = overdueByOwner.get(keyOf(entry.owner));
+        if (overdue == null || !overdue.entries.remove(entry)) return;
+        overdue.count.decrementAndGet();
+        overdueCount.decrementAndGet();
+    }
+
+    // The shared partition has the empty key.
+    private static String keyOf(String owner) {
+        return owner == null ? "" : owner;
+    }
+
+    private static boolean isScheduled(Task task) {
+        return task != null && !task.getIsDone() && task.getDueDate() != null;
+    }
+
+    // Due dates too far for milliseconds are scheduled at the end of time.
+    private long millisOf(LocalDateTime dueDate) {
+        Instant instant = dueDate.atZone(zone).toInstant();
+        return instant.getEpochSecond() >= Long.MAX_VALUE / 1000 ? Long.MAX_VALUE : instant.toEpochMilli();
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return -Math.floorDiv(-dividend, divisor);
+    }
+
+    /**
+     * This class holds a queued change: the task after it, or null if it was
+     * deleted, and its version, one past the last for a deleted task.
+     */
+    private static final class Change {
+        private final int id;
+        private final Task task;
+        private final long version;
+
+        private Change(int id, Task task, long version) {
+            this.id = id;
+            this.task = task;
+            this.version = version;
+        }
+    }
+
+    /**
+     * This class holds the overdue tasks of one owner, sorted by due date,
+     * and their number.
+     */
+    private static final class Overdue {
+        private final ConcurrentSkipListSet<TaskTimingWheel.Entry> entries = new ConcurrentSkipListSet<>(BY_DUE_DATE);
+        private final AtomicInteger count = new AtomicInteger();
+    }
+}
@@ -0,0 +1,323 @@
+package com.todoAPI.todo.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskChange;
+import com.todoAPI.todo.models.TaskCursor;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskPatch;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.TaskRepository;
+
+/**
+ * This class implements the changes of the tasks and the task listing:
+ * filtering, sorting and pagination.
+ *
+ * Every change of a task goes through this class, which publishes it in the
+ * change feed. The stored tasks are snapshots that are never modified: a
+ * change is made on a copy, which gets the next version and replaces the
+ * snapshot atomically, so readers never block and never see half a change.
+ * Conditional changes check their precondition on the current snapshot
+ * while the repository holds the task, and throw a TaskConflictException
+ * with it if the check fails, leaving the task unchanged.
+ *
+ * A query only reads the partition of its owner.
+ * The repository hands the matching tasks to a single pass that counts them
+ * and keeps the first ones of the page in a bounded heap, ordered by the
+ * shared TaskQueryPlan of the sort directions, so a page of k tasks costs
+ * O(n log k) and no list of every matching task is built. On large stores
+ * the pass is split across the threads of a ParallelTaskScan.
+ * The time of each stage (filter, sort and paginate) is recorded in the
+ * tasks.query.stage timer; the filter stage is the single pass.
+ * Pages requested by number are kept in a TaskQueryCache, whose pages of a
+ * partition the repository marks as stale on every change of it; pages
+ * requested with a cursor are always computed. Stores that compute pages on their own, such as the SQL
+ * store, run the whole listing instead of the pass.
+ * @version: 1.0
+ */
+@Service
+public class TaskService {
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final TaskRepository taskRepository;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskQueryCache queryCache;
+    private final ParallelTaskScan parallelScan;
+    private final Timer filterTimer;
+    private final Timer sortTimer;
+    private final Timer paginateTimer;
+
+    public TaskService(TaskRepository taskRepository) {
+        this(taskRepository, Metrics.globalRegistry, new TaskQueryCache(0, 0, Metrics.globalRegistry), null);
+    }
+
+    public TaskService(TaskRepository taskRepository, MeterRegistry meterRegistry, TaskQueryCache queryCache, ParallelTaskScan parallelScan) {
+        this(taskRepository, null, meterRegistry, queryCache, parallelScan);
+    }
+
+    /**
+     * This constructor creates the service with its collaborators.
+     * @param: taskRepository - The repository of the tasks.
+     * @param: taskChangeFeed - The feed of the changes, or null to publish none.
+     * @param: meterRegistry - The registry of the stage timers.
+     * @param: queryCache - The cache of the pages.
+     * @param: parallelScan - The parallel scan of large stores, or null to always scan on the calling thread.
+     * @version: 1.0
+     */
+    @Autowired
+    public TaskService(TaskRepository taskRepository, TaskChangeFeed taskChangeFeed, MeterRegistry meterRegistry, TaskQueryCache queryCache,
+            ParallelTaskScan parallelScan) {
+        this.taskRepository = taskRepository;
+        this.taskChangeFeed = taskChangeFeed;
+        this.queryCache = queryCache;
+        this.parallelScan = parallelScan;
+        if (queryCache.isEnabled()) taskRepository.addChangeListener(queryCache::invalidate);
+        this.filterTimer = stageTimer(meterRegistry, "filter");
+        this.sortTimer = stageTimer(meterRegistry, "sort");
+        this.paginateTimer = stageTimer(meterRegistry, "paginate");
+    }
+
+    /**
+     * This method returns a page of the tasks that match the given query.
+     * With a cursor the page starts right after the task it points to,
+     * otherwise the page number is used.
+     * @param: query - The filters, sorting and page to return.
+     * @param: after - The task decoded from the cursor, or null.
+     * @version: 1.0
+     * @return: page - The tasks of the page and the total of matching tasks.
+     */
+    public TaskPage getTasks(TaskQuery query, Task after) {
+        if (after != null || !queryCache.isEnabled()) return computeTasks(query, after);
+
+        TaskQuery key = query.normalized();
+        TaskPage page = queryCache.get(key);
+        if (page != null) return page;
+        long generation = queryCache.generation(key);
+        page = computeTasks(query, null);
+        queryCache.put(key, page, generation);
+        return page;
+    }
+
+    // Runs the query without looking at the cache.
+    private TaskPage computeTasks(TaskQuery query, Task after) {
+        long start = System.nanoTime();
+        TaskRepository partition = taskRepository.partition(query.getOwner());
+
+        // Stores that compute the page themselves, such as SQL databases, get the whole query.
+        TaskPage storePage = partition.findPage(query, after);
+        if (storePage != null) {
+            filterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return storePage;
+        }
+        TaskQueryPlan plan = TaskQueryPlan.of(query);
+
+        // With a cursor only the tasks after it are kept; otherwise every task up to the end of the page.
+        long skipped = (after != null) ? 0 : (long) (query.getPage() - 1) * query.getSize();
+        int limit = (int) Math.min(skipped + query.getSize(), Integer.MAX_VALUE);
+
+        // One pass over the matching tasks of the partition counts them and keeps the first ones in a bounded max-heap.
+        FirstTasks firstTasks;
+        if (parallelScan != null && parallelScan.engages(partition.count())) {
+            firstTasks = parallelScan.select(partition.matching(query.getName(), query.getPriority(), query.getIsDone()), plan, after, limit);
+        } else {
+            firstTasks = new FirstTasks(plan, after, limit);
+            partition.forEachMatching(query.getName(), query.getPriority(), query.getIsDone(), firstTasks);
+        }
+        long filtered = System.nanoTime();
+        filterTimer.record(filtered - start, TimeUnit.NANOSECONDS);
+
+        // The heap hands out the last task first, so the page is filled from its end.
+        PriorityQueue<Task> heap = firstTasks.heap();
+        int selected = heap.size();
+        Task[] pageTasks = new Task[(int) Math.max(0, selected - skipped)];
+        for (int i = selected - 1; i >= 0; i--) {
+            Task task = heap.poll();
+            if (i >= skipped) pageTasks[(int) (i - skipped)] = task;
+        }
+        long sorted = System.nanoTime();
+        sortTimer.record(sorted - filtered, TimeUnit.NANOSECONDS);
+
+        String nextCursor = (firstTasks.remaining() > skipped + pageTasks.length && pageTasks.length > 0) ?
+                TaskCursor.encode(pageTasks[pageTasks.length - 1]) :
+                null;
+        paginateTimer.record(System.nanoTime() - sorted, TimeUnit.NANOSECONDS);
+
+        return new TaskPage(firstTasks.total(), Arrays.asList(pageTasks), nextCursor);
+    }
+
+    /**
+     * This method stores a new task in the partition of its owner.
+     * @param: owner - The owner of the task, or null for the shared partition.
+     * @param: task - The validated task.
+     * @version: 1.0
+     * @return: task - The stored task.
+     */
+    public Task createTask(String owner, Task task) {
+        task.setOwner(owner);
+        Task savedTask = taskRepository.partition(owner).save(task);
+        publish(TaskChange.Type.CREATED, savedTask);
+        return savedTask;
+    }
+
+    /**
+     * This method stores several new tasks in the partition of their owner,
+     * in one operation.
+     * @param: owner - The owner of the tasks, or null for the shared partition.
+     * @param: tasks - The validated tasks.
+     * @version: 1.0
+     * @return: tasks - The stored tasks, in the same order.
+     */
+    public List<Task> createTasks(String owner, List<Task> tasks) {
+        for (Task task : tasks) task.setOwner(owner);
+        List<Task> savedTasks = taskRepository.partition(owner).saveAll(tasks);
+        if (taskChangeFeed != null) taskChangeFeed.publishAll(TaskChange.Type.CREATED, savedTasks);
+        return savedTasks;
+    }
+
+    /**
+     * This method replaces the values of a task with the given ones.
+     * @param: owner - The owner of the task, or null for the shared partition.
+     * @param: id - The id of the task.
+     * @param: precondition - The check of the current task, such as its version.
+     * @param: values - The validated new values.
+     * @version: 1.0
+     * @return: task - The updated task, or null if it does not exist.
+     */
+    public Task updateTask(String owner, int id, Predicate<Task> precondition, Task values) {
+        return change(owner, id, precondition, TaskChange.Type.UPDATED, taskToUpdate -> taskToUpdate.updateFrom(values));
+    }
+
+    /**
+     * This method applies a merge patch to a task. A patch that would leave
+     * the task as it is does not write it, so the version and the indexes
+     * are left alone.
+     * @param: owner - The owner of the task, or null for the shared partition.
+     * @param: id - The id of the task.
+     * @param: precondition - The check of the current task, such as its version.
+     * @param: patch - The validated patch.
+     * @version: 1.0
+     * @return: task - The patched task, or null if it does not exist.
+     */
+    public Task patchTask(String owner, int id, Predicate<Task> precondition, TaskPatch patch) {
+        Task currentTask = taskRepository.partition(owner).findById(id);
+        if (currentTask != null && !patch.changes(currentTask)) {
+            check(precondition, currentTask);
+            return currentTask;
+        }
+        return change(owner, id, precondition, TaskChange.Type.UPDATED, patch::applyTo);
+    }
+
+    /**
+     * This method replaces the values of several tasks. Each task is updated
+     * atomically on its own, without preconditions.
+     * @param: owner - The owner of the tasks, or null for the shared partition.
+     * @param: values - The validated new values, by id.
+     * @version: 1.0
+     * @return: tasks - The updated tasks by id. Missing tasks are left out.
+     */
+    public Map<Integer, Task> updateTasks(String owner, Map<Integer, Task> values) {
+        LinkedHashMap<Integer, UnaryOperator<Task>> updaters = new LinkedHashMap<>();
+        values.forEach((id, task) -> updaters.put(id, taskToUpdate -> {
+            taskToUpdate.updateFrom(task);
+            return taskToUpdate;
+        }));
+        Map<Integer, Task> updatedTasks = taskRepository.partition(owner).updateAll(updaters);
+        if (taskChangeFeed != null) taskChangeFeed.publishAll(TaskChange.Type.UPDATED, updatedTasks.values());
+        return updatedTasks;
+    }
+
+    /**
+     * This method marks a task as done.
+     * @param: owner - The owner of the task, or null for the shared partition.
+     * @param: id - The id of the task.
+     * @param: precondition - The check of the current task, such as its version.
+     * @version: 1.0
+     * @return: task - The updated task, or null if it does not exist.
+     */
+    public Task markTaskAsDone(String owner, int id, Predicate<Task> precondition) {
+        return change(owner, id, precondition, TaskChange.Type.DONE, Task::markAsDone);
+    }
+
+    /**
+     * This method marks a task as undone.
+     * @param: owner - The owner of the task, or null for the shared partition.
+     * @param: id - The id of the task.
+     * @param: precondition - The check of the current task, such as its version.
+     * @version: 1.0
+     * @return: task - The updated task, or null if it does not exist.
+     */
+    public Task markTaskAsUndone(String owner, int id, Predicate<Task> precondition) {
+        return change(owner, id, precondition, TaskChange.Type.UNDONE, Task::markAsUndone);
+    }
+
+    /**
+     * This method deletes a task.
+     * @param: owner - The owner of the task, or null for the shared partition.
+     * @param: id - The id of the task.
+     * @param: precondition - The check of the current task, such as its version.
+     * @version: 1.0
+     * @return: task - The deleted task, or null if it does not exist.
+     */
+    public Task deleteTask(String owner, int id, Predicate<Task> precondition) {
+        Task deletedTask = taskRepository.partition(owner).deleteById(id, current -> check(precondition, current));
+        publish(TaskChange.Type.DELETED, deletedTask);
+        return deletedTask;
+    }
+
+    /**
+     * This method deletes several tasks, without preconditions.
+     * @param: owner - The owner of the tasks, or null for the shared partition.
+     * @param: ids - The ids of the tasks.
+     * @version: 1.0
+     * @return: tasks - The deleted tasks by id. Missing tasks are left out.
+     */
+    public Map<Integer, Task> deleteTasks(String owner, Collection<Integer> ids) {
+        Map<Integer, Task> deletedTasks = taskRepository.partition(owner).deleteAllById(ids);
+        if (taskChangeFeed != null) taskChangeFeed.publishAll(TaskChange.Type.DELETED, deletedTasks.values());
+        return deletedTasks;
+    }
+
+    // Changes a copy of the current task if it passes the precondition, and publishes the new version.
+    private Task change(String owner, int id, Predicate<Task> precondition, TaskChange.Type type, Consumer<Task> change) {
+        Task updatedTask = taskRepository.partition(owner).update(id, taskToUpdate -> {
+            check(precondition, taskToUpdate);
+            change.accept(taskToUpdate);
+            return taskToUpdate;
+        });
+        publish(type, updatedTask);
+        return updatedTask;
+    }
+
+    private static void check(Predicate<Task> precondition, Task current) {
+        if (!precondition.test(current)) throw new TaskConflictException(current);
+    }
+
+    private void publish(TaskChange.Type type, Task task) {
+        if (task != null && taskChangeFeed != null) taskChangeFeed.publish(type, task);
+    }
+
+    private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+        return Timer.builder("tasks.query.stage")
+            .description("The time of a stage of the task listing.")
+            .tag("stage", stage)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
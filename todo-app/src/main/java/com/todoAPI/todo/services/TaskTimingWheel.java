@@ -0,0 +1,153 @@
+package com.todoAPI.todo.services;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * This class is a hierarchical timing wheel of due dates, measured in ticks.
+ * Level L has 64 slots of 64^L ticks each, so seven levels cover 64^7 ticks
+ * and a deadline beyond them waits in the top level until it comes close.
+ * An entry sits in the slot of its deadline at the lowest level that reaches
+ * it. Every time the ticks pass the start of a slot of a higher level, its
+ * entries cascade to lower levels, so each entry moves at most once per
+ * level, and each tick fires the lowest level slot of its deadline.
+ *
+ * Adding and removing an entry take constant time, because slots are doubly
+ * linked lists. The wheel is not thread-safe.
+ * @version: 1.0
+ */
+final class TaskTimingWheel {
+    static final int LEVELS = 7;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private final Entry[] slots = new Entry[LEVELS * SLOTS];
+    private long currentTick;
+    private int size;
+
+    /**
+     * This constructor creates an empty wheel.
+     * @param: currentTick - The tick the wheel starts at.
+     * @version: 1.0
+     */
+    TaskTimingWheel(long currentTick) {
+        this.currentTick = currentTick;
+    }
+
+    /**
+     * This method adds an entry whose deadline is still ahead.
+     * @param: entry - The entry, which must not be in the wheel.
+     * @version: 1.0
+     * @return: added - Whether the entry was added, false if its deadline has passed.
+     */
+    boolean add(Entry entry) {
+        long delta = entry.deadline - currentTick;
+        if (delta <= 0) return false;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) level++;
+        int slot = level * SLOTS + (int) ((entry.deadline >>> (SLOT_BITS * level)) & (SLOTS - 1));
+
+        entry.slot = slot;
+        entry.previous = null;
+        entry.next = slots[slot];
+        if (entry.next != null) entry.next.previous = entry;
+        slots[slot] = entry;
+        size++;
+        return true;
+    }
+
+    /**
+     * This method removes an entry from the wheel.
+     * @param: entry - The entry.
+     * @version: 1.0
+     * @return: removed - Whether the entry was in the wheel.
+     */
+    boolean remove(Entry entry) {
+        if (entry.slot < 0) return false;
+        if (entry.previous != null) entry.previous.next = entry.next;
+        else slots[entry.slot] = entry.next;
+        if (entry.next != null) entry.next.previous = entry.previous;
+        entry.slot = -1;
+        entry.previous = null;
+        entry.next = null;
+        size--;
+        return true;
+    }
+
+    /**
+     * This method moves the wheel forward to the given tick, handing every
+     * entry whose deadline is reached to the given action, in the order of
+     * the deadlines.
+     * @param: tick - The current tick.
+     * @param: expired - The action to run on the expired entries.
+     * @version: 1.0
+     */
+    void advance(long tick, Consumer<Entry> expired) {
+        // With nothing scheduled there is nothing to cascade on the way.
+        if (size == 0 && tick > currentTick) currentTick = tick;
+        while (currentTick < tick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) break;
+                cascade(level * SLOTS + (int) ((currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1)), expired);
+            }
+            Entry entry = detach((int) (currentTick & (SLOTS - 1)));
+            while (entry != null) {
+                Entry next = entry.next;
+                entry.next = null;
+                expired.accept(entry);
+                entry = next;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void cascade(int slot, Consumer<Entry> expired) {
+        Entry entry = detach(slot);
+        while (entry != null) {
+            Entry next = entry.next;
+            if (!add(entry)) {
+                entry.next = null;
+                expired.accept(entry);
+            }
+            entry = next;
+        }
+    }
+
+    // Empties a slot and returns its entries, still linked by next.
+    private Entry detach(int slot) {
+        Entry head = slots[slot];
+        slots[slot] = null;
+        for (Entry entry = head; entry != null; entry = entry.next) {
+            entry.slot = -1;
+            entry.previous = null;
+            size--;
+        }
+        return head;
+    }
+
+    /**
+     * This class is the entry of a task in the wheel.
+     */
+    static final class Entry {
+        final int taskId;
+        final String owner;
+        final LocalDateTime dueDate;
+        final long deadline;
+        // The version of the task it was scheduled from, kept up to date by the scheduler.
+        long version;
+        private int slot = -1;
+        private Entry previous;
+        private Entry next;
+
+        Entry(int taskId, String owner, LocalDateTime dueDate, long deadline) {
+            this.taskId = taskId;
+            this.owner = owner;
+            this.dueDate = dueDate;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.todoAPI.todo.services;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPatch;
+
+/**
+ * This class holds the validation rules of a task sent by a client: the name,
+ * the priority and the due date.
+ * @version: 1.0
+ */
+@Component
+public class TaskValidator {
+    private HashMap<Integer, String> priorities = new HashMap<>();
+
+    public TaskValidator() {
+        priorities.put(1, "Low");
+        priorities.put(2, "Medium");
+        priorities.put(3, "High");
+    }
+
+    /**
+     * This method validates a task and sets its priority name.
+     * @param: task - The task to validate.
+     * @version: 1.0
+     * @return: error - The reason why the task is invalid, or null if it is valid.
+     */
+    public String validate(Task task) {
+        String error = validateImported(task);
+        if (error != null) return error;
+
+        // Date validation.
+        if (task.getDueDate() != null &&
+            LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+            .isAfter(task.getDueDate().truncatedTo(ChronoUnit.DAYS)))
+            return "The due date must be greater than today.";
+
+        return null;
+    }
+
+    /**
+     * This method validates the priority a listing is filtered by, where 0
+     * means any priority.
+     * @param: priority - The priority of the filter.
+     * @version: 1.0
+     * @return: error - The reason why the filter is invalid, or null if it is valid.
+     */
+    public String validatePriorityFilter(int priority) {
+        if (priority != 0 && this.priorities.get(priority) == null) return "The priority filter is invalid.";
+        return null;
+    }
+
+    /**
+     * This method validates only the fields sent in a patch, with the rules of
+     * a new task, and sets the priority name if the priority was sent.
+     * @param: patch - The patch to validate.
+     * @version: 1.0
+     * @return: error - The reason why the patch is invalid, or null if it is valid.
+     */
+    public String validatePatch(TaskPatch patch) {
+        if (patch.hasName()) {
+            if (patch.getName().equals("")) return "The name of the task is required.";
+            if (patch.getName().length() > 120) return "The name of the task must be less than 121 characters.";
+        }
+        if (patch.hasPriority()) {
+            if (this.priorities.get(patch.getPriority()) == null) return "The priority of the task is invalid.";
+            patch.setPriorityName(this.priorities.get(patch.getPriority()));
+        }
+        if (patch.hasDueDate() && patch.getDueDate() != null &&
+            LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+            .isAfter(patch.getDueDate().truncatedTo(ChronoUnit.DAYS)))
+            return "The due date must be greater than today.";
+
+        return null;
+    }
+
+    /**
+     * This method validates a task that is being imported and sets its
+     * priority name. Imported tasks may come from an export, so their due date
+     * is allowed to be in the past.
+     * @param: task - The task to validate.
+     * @version: 1.0
+     * @return: error - The reason why the task is invalid, or null if it is valid.
+     */
+    public String validateImported(Task task) {
+        if (task == null) return "The task is required.";
+
+        // Name and priority validation.
+        if (task.getName() == null || task.getName().equals("")) return "The name of the task is required.";
+        if (task.getName().length() > 120) return "The name of the task must be less than 121 characters.";
+        if (this.priorities.get(task.getPriority()) == null) return "The priority of the task is invalid.";
+        // Date validation: a task cannot be done before it was created.
+        if (task.getDoneDate() != null && task.getCreatedDate() != null && task.getDoneDate().isBefore(task.getCreatedDate()))
+            return "The done date must not be before the created date.";
+        task.setPriorityName(this.priorities.get(task.getPriority()));
+
+        return null;
+    }
+}
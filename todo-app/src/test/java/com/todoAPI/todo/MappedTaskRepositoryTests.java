@@ -0,0 +1,61 @@
+package com.todoAPI.todo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.repositories.MappedTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.TaskRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * These tests run the repository tests against the memory-mapped storage,
+ * and check that the tasks survive a restart.
+ */
+public class MappedTaskRepositoryTests extends TaskRepositoryTests {
+    @TempDir
+    Path directory;
+
+    @Override
+    protected TaskRepository createRepository(TaskIdGenerator idGenerator) {
+        return new MappedTaskRepository(idGenerator, directory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ((MappedTaskRepository) taskRepository).close();
+    }
+
+    @Test
+    public void testRestart_KeepsTasksAndIds() {
+        LocalDateTime dueDate = LocalDateTime.of(2030, 5, 6, 7, 8, 9, 123);
+        Task renamed = taskRepository.save(new Task("Comprar leche", dueDate, 3, "High"));
+        Task deleted = taskRepository.save(new Task("Lavar ropa", null, 1, "Low"));
+        taskRepository.update(renamed.getId(), task -> {
+            task.setName("Comprar pan");
+            task.markAsDone();
+            return task;
+        });
+        taskRepository.deleteById(deleted.getId());
+        ((MappedTaskRepository) taskRepository).close();
+
+        taskRepository = new MappedTaskRepository(new TaskIdGenerator(1), directory);
+        Task recovered = taskRepository.findById(renamed.getId());
+        assertEquals(1, taskRepository.count());
+        assertNull(taskRepository.findById(deleted.getId()));
+        assertEquals("Comprar pan", recovered.getName());
+        assertEquals("High", recovered.getPriorityName());
+        assertEquals(dueDate.withNano(0), recovered.getDueDate());
+        assertTrue(recovered.getIsDone());
+        assertEquals(1, taskRepository.findByNameAndPriorityAndIsDone("PAN", 3, true).size());
+        assertEquals(1, taskRepository.getCompletionTimes().get("High").getDoneTasks());
+        assertTrue(taskRepository.save(new Task("Nueva", null, 2, "Medium")).getId() > deleted.getId());
+    }
+}
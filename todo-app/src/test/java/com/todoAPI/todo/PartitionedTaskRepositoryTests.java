@@ -0,0 +1,96 @@
+package com.todoAPI.todo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.repositories.PartitionedTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.repositories.WriteAheadTaskLog;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * These tests run the repository tests against the store partitioned by
+ * owner, and check that the partitions are isolated and survive a restart.
+ */
+public class PartitionedTaskRepositoryTests extends TaskRepositoryTests {
+    @TempDir
+    Path directory;
+
+    @Override
+    protected TaskRepository createRepository(TaskIdGenerator idGenerator) {
+        return new PartitionedTaskRepository(idGenerator, 4);
+    }
+
+    @Test
+    public void testPartitions_IsolateOwners() {
+        Task alice = taskRepository.partition("alice").save(owned(new Task("Comprar leche", null, 3, "High"), "alice"));
+        Task bob = taskRepository.partition("bob").save(owned(new Task("Comprar pan", null, 3, "High"), "bob"));
+        taskRepository.partition("bob").save(owned(new Task("Lavar ropa", null, 1, "Low"), "bob"));
+
+        TaskRepository alicePartition = taskRepository.partition("alice");
+        assertSame(alicePartition, taskRepository.partition("alice"));
+        assertEquals(1, alicePartition.count());
+        assertEquals(1, alicePartition.findByNameAndPriorityAndIsDone("comprar", 0, null).size());
+        assertNull(alicePartition.findById(bob.getId()));
+        assertNull(alicePartition.update(bob.getId(), task -> task));
+        assertNull(alicePartition.deleteById(bob.getId()));
+        assertEquals(2, taskRepository.partition("bob").count());
+
+        // The store itself still answers for every owner.
+        assertEquals(3, taskRepository.count());
+        assertEquals("bob", taskRepository.findById(bob.getId()).getOwner());
+        assertEquals(2, taskRepository.findByNameAndPriorityAndIsDone("comprar", 3, null).size());
+        assertEquals(3, taskRepository.getCompletionTimes().get("Total").getTotalTasks());
+
+        taskRepository.deleteById(alice.getId());
+        assertEquals(0, alicePartition.count());
+        assertNull(taskRepository.findById(alice.getId()));
+    }
+
+    @Test
+    public void testPartitions_CreatedOnlyBySaves() {
+        TaskRepository view = taskRepository.partition("carol");
+        assertEquals(0, view.count());
+        assertEquals(0, view.findByNameAndPriorityAndIsDone("", 0, null).size());
+        assertEquals(0, view.getVersion());
+        // Reads leave no partition behind, so every lookup returns a new view.
+        assertNotSame(view, taskRepository.partition("carol"));
+
+        Task carol = view.save(owned(new Task("Comprar leche", null, 3, "High"), "carol"));
+        TaskRepository partition = taskRepository.partition("carol");
+        assertSame(partition, taskRepository.partition("carol"));
+        assertEquals(1, view.count());
+        assertEquals(carol.getId(), view.update(carol.getId(), task -> task).getId());
+    }
+
+    @Test
+    public void testRecovery_SplitsTasksByOwner() throws Exception {
+        WriteAheadTaskLog log = new WriteAheadTaskLog(directory, 0, true, 1000, Thread::new);
+        PartitionedTaskRepository repository = new PartitionedTaskRepository(new TaskIdGenerator(1), log, 4);
+        Task alice = repository.partition("alice").save(owned(new Task("Comprar leche", null, 3, "High"), "alice"));
+        Task shared = repository.save(new Task("Lavar ropa", null, 1, "Low"));
+        log.close();
+
+        log = new WriteAheadTaskLog(directory, 0, true, 1000, Thread::new);
+        repository = new PartitionedTaskRepository(new TaskIdGenerator(1), log, 4);
+        assertEquals(2, repository.count());
+        assertEquals(1, repository.partition("alice").count());
+        assertEquals("alice", repository.partition("alice").findById(alice.getId()).getOwner());
+        assertEquals(1, repository.partition(null).findByNameAndPriorityAndIsDone("ropa", 0, null).size());
+        assertTrue(repository.save(new Task("Nueva", null, 2, "Medium")).getId() > shared.getId());
+        log.close();
+    }
+
+    private static Task owned(Task task, String owner) {
+        task.setOwner(owner);
+        return task;
+    }
+}
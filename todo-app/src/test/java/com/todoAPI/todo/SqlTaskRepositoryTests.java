@@ -0,0 +1,170 @@
+package com.todoAPI.todo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskCursor;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.SqlTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * These tests run the repository tests against the SQL storage, check that
+ * the pages computed by the database are the ones of the in-memory listing,
+ * and that the tasks survive a restart.
+ */
+public class SqlTaskRepositoryTests extends TaskRepositoryTests {
+    @TempDir
+    Path directory;
+
+    private HikariDataSource dataSource;
+
+    @Override
+    protected TaskRepository createRepository(TaskIdGenerator idGenerator) {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:file:" + directory.resolve("tasks").toAbsolutePath());
+        return new SqlTaskRepository(idGenerator, dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    public void testFindPage_SameListingAsInMemory() {
+        InMemoryTaskRepository inMemory = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime dueDate = i % 7 == 0 ? null : now.plusMinutes(i * 37 % 60);
+            Task task = new Task(i % 5 == 0 ? "Comprar 100%_leche " + i : "Tarea " + i, dueDate, 1 + i % 3, "Low");
+            task.setIsDone(i % 4 == 0);
+            taskRepository.save(new Task(task));
+            inMemory.save(task);
+        }
+        TaskService expectedService = new TaskService(inMemory);
+        TaskService actualService = new TaskService(taskRepository);
+
+        for (TaskQuery query : List.of(
+                new TaskQuery("", 0, null, "asc", "desc", 3, 50, null),
+                new TaskQuery("", 0, null, "desc", null, 2, 30, null),
+                new TaskQuery("TAREA 1", 2, false, null, "asc", 1, 100, null),
+                new TaskQuery("0%_", 0, null, "asc", null, 1, 10, null),
+                new TaskQuery("", 3, true, null, null, 1, 20, null),
+                new TaskQuery("", 0, null, null, null, 99, 50, null))) {
+            // Follows the cursors until the end, so every shape of cursor is tried.
+            Task after = null;
+            do {
+                TaskPage expected = expectedService.getTasks(query, after);
+                TaskPage actual = actualService.getTasks(query, after);
+                assertEquals(expected.getTotalTasks(), actual.getTotalTasks());
+                assertEquals(idsOf(expected.getTasks()), idsOf(actual.getTasks()));
+                assertEquals(expected.getNextCursor(), actual.getNextCursor());
+                after = expected.getNextCursor() == null ? null : TaskCursor.decode(expected.getNextCursor());
+            } while (after != null);
+        }
+    }
+
+    @Test
+    public void testSaveAll_InsertsBatch() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) tasks.add(new Task("Tarea " + i, null, 1 + i % 3, "Low"));
+
+        List<Task> saved = taskRepository.saveAll(tasks);
+        assertEquals(100, saved.size());
+        assertEquals(100, taskRepository.count());
+        assertEquals("Tarea 42", taskRepository.findById(saved.get(42).getId()).getName());
+        assertEquals(34, taskRepository.findByNameAndPriorityAndIsDone("", 1, false).size());
+    }
+
+    @Test
+    public void testRestart_KeepsTasksAndIds() {
+        LocalDateTime dueDate = LocalDateTime.of(2030, 5, 6, 7, 8, 9, 123);
+        Task renamed = taskRepository.save(new Task("Comprar leche", dueDate, 3, "High"));
+        Task deleted = taskRepository.save(new Task("Lavar ropa", null, 1, "Low"));
+        taskRepository.update(renamed.getId(), task -> {
+            task.setName("Comprar pan");
+            task.markAsDone();
+            return task;
+        });
+        assertNotNull(taskRepository.deleteById(deleted.getId()));
+        assertNull(taskRepository.deleteById(deleted.getId()));
+        dataSource.close();
+
+        taskRepository = createRepository(new TaskIdGenerator(1));
+        Task recovered = taskRepository.findById(renamed.getId());
+        assertEquals(1, taskRepository.count());
+        assertNull(taskRepository.findById(deleted.getId()));
+        assertEquals("Comprar pan", recovered.getName());
+        assertEquals("High", recovered.getPriorityName());
+        assertEquals(dueDate, recovered.getDueDate());
+        assertEquals(2, recovered.getVersion());
+        assertTrue(recovered.getIsDone());
+        assertEquals(1, taskRepository.findByNameAndPriorityAndIsDone("PAN", 3, true).size());
+        assertEquals(1, taskRepository.getCompletionTimes().get("High").getDoneTasks());
+        assertTrue(taskRepository.save(new Task("Nueva", null, 2, "Medium")).getId() > deleted.getId());
+    }
+
+    @Test
+    public void testNameFilter_FollowsRenamesAndDeletes() {
+        Task renamed = taskRepository.save(new Task("Comprar leche", null, 1, "Low"));
+        Task deleted = taskRepository.save(new Task("Leche de almendra", null, 1, "Low"));
+        // Without trigrams, but stored all the same.
+        assertNotNull(taskRepository.findById(taskRepository.save(new Task("Té", null, 1, "Low")).getId()));
+        taskRepository.update(renamed.getId(), task -> {
+            task.setName("Comprar pan");
+            return task;
+        });
+        taskRepository.deleteById(deleted.getId());
+
+        assertEquals(0, taskRepository.findByNameAndPriorityAndIsDone("leche", 0, null).size());
+        assertEquals(1, taskRepository.findByNameAndPriorityAndIsDone("PAN", 0, null).size());
+        // Shorter than a trigram, so matched by the LIKE alone.
+        assertEquals(1, taskRepository.findByNameAndPriorityAndIsDone("pa", 0, null).size());
+        // Every trigram is there, but not in this order.
+        assertEquals(0, taskRepository.findByNameAndPriorityAndIsDone("panprar", 0, null).size());
+    }
+
+    @Test
+    public void testRestart_IndexesNamesStoredBeforeTheTrigrams() {
+        taskRepository.save(new Task("Comprar leche", null, 1, "Low"));
+        new JdbcTemplate(dataSource).update("DROP TABLE task_name_grams");
+        dataSource.close();
+
+        taskRepository = createRepository(new TaskIdGenerator(1));
+        assertEquals(1, taskRepository.findByNameAndPriorityAndIsDone("leche", 0, null).size());
+    }
+
+    @Test
+    public void testFindAll_ReadsEveryPageInIdOrder() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) tasks.add(new Task("Tarea " + i, null, 1, "Low"));
+        List<Integer> expected = idsOf(taskRepository.saveAll(tasks));
+
+        assertEquals(2500, taskRepository.findAll().size());
+        assertEquals(expected, idsOf(new ArrayList<>(taskRepository.findAll())));
+    }
+
+    private static List<Integer> idsOf(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) ids.add(task.getId());
+        return ids;
+    }
+}
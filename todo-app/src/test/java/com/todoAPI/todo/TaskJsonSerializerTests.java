@@ -0,0 +1,69 @@
+package com.todoAPI.todo;
+
+import org.junit.jupiter.api.Test;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskJsonSerializer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * These tests check that the TaskJsonSerializer writes the same bytes as the
+ * bean serializer of Jackson with the Java time module, which it replaces.
+ */
+public class TaskJsonSerializerTests {
+    private final ObjectMapper reflective = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ObjectMapper custom = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .registerModule(new SimpleModule().addSerializer(Task.class, new TaskJsonSerializer()));
+
+    @Test
+    public void testSerialize_SameBytesAsBeanSerializer() throws Exception {
+        List<LocalDateTime> dates = List.of(
+            LocalDateTime.of(2024, 3, 5, 7, 8, 9),
+            LocalDateTime.of(2024, 3, 5, 0, 0),
+            LocalDateTime.of(1999, 12, 31, 23, 59, 59, 999_999_999),
+            LocalDateTime.of(2000, 1, 1, 0, 0, 0, 1),
+            LocalDateTime.of(2030, 6, 15, 12, 30, 45, 120_000_000),
+            LocalDateTime.of(2030, 6, 15, 12, 30, 45, 123_400),
+            LocalDateTime.of(5, 1, 2, 3, 4, 5),
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59),
+            LocalDateTime.of(10000, 1, 1, 0, 0),
+            LocalDateTime.of(-1, 1, 1, 0, 0));
+
+        for (LocalDateTime date : dates) {
+            for (String owner : new String[] {null, "alice"}) {
+                Task task = new Task("Comprar \"pan\" y café\n", date, 2, "Medium");
+                task.assignId(42);
+                task.setCreatedDate(date);
+                task.setOwner(owner);
+                assertSame(task);
+
+                task.setDueDate(null);
+                task.setIsDone(true);
+                task.setDoneDate(date);
+                assertSame(task);
+            }
+        }
+    }
+
+    @Test
+    public void testSerialize_NullNamesAndDates() throws Exception {
+        Task task = new Task();
+        task.setCreatedDate(null);
+        assertSame(task);
+    }
+
+    private void assertSame(Task task) throws Exception {
+        assertEquals(reflective.writeValueAsString(task), custom.writeValueAsString(task));
+    }
+}
@@ -0,0 +1,278 @@
+package com.todoAPI.todo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.ParallelTaskScan;
+import com.todoAPI.todo.services.TaskConflictException;
+import com.todoAPI.todo.services.TaskQueryCache;
+import com.todoAPI.todo.services.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskRepositoryTests {
+    private static final int THREADS = 8;
+    private static final int OPERATIONS = 2000;
+
+    protected TaskRepository taskRepository;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        taskRepository = createRepository(new TaskIdGenerator(1));
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    protected TaskRepository createRepository(TaskIdGenerator idGenerator) {
+        return new InMemoryTaskRepository(idGenerator);
+    }
+
+    @Test
+    public void testConcurrentSaves_UniqueIds() throws Exception {
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                ids.add(taskRepository.save(new Task("Tarea " + i, null, 1, "Low")).getId());
+            }
+        });
+
+        assertEquals(THREADS * OPERATIONS, ids.size());
+        assertEquals(THREADS * OPERATIONS, taskRepository.count());
+    }
+
+    @Test
+    public void testBlockIdGenerator_UniqueIds() throws Exception {
+        TaskIdGenerator idGenerator = new TaskIdGenerator(64);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS; i++) ids.add(idGenerator.nextId());
+        });
+
+        assertEquals(THREADS * OPERATIONS, ids.size());
+    }
+
+    @Test
+    public void testConcurrentUpdates_NoLostUpdates() throws Exception {
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(1).withNano(0);
+        Task task = taskRepository.save(new Task("Tarea de ejemplo", dueDate, 1, "Low"));
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                taskRepository.update(task.getId(), taskToUpdate -> {
+                    taskToUpdate.setDueDate(taskToUpdate.getDueDate().plusMinutes(1));
+                    return taskToUpdate;
+                });
+            }
+        });
+
+        assertEquals(dueDate.plusMinutes(THREADS * OPERATIONS), taskRepository.findById(task.getId()).getDueDate());
+        assertEquals(dueDate, task.getDueDate());
+        assertEquals(1, taskRepository.findByNameAndPriorityAndIsDoneOrderByDueDate("", 0, null, false).size());
+    }
+
+    @Test
+    public void testConcurrentDoneUndone_NoTornTasks() throws Exception {
+        Task task = taskRepository.save(new Task("Tarea de ejemplo", null, 1, "Low"));
+        AtomicInteger tornReads = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS; i++) {
+                boolean done = i % 2 == 0;
+                taskRepository.update(task.getId(), taskToUpdate -> {
+                    taskToUpdate.setIsDone(done);
+                    taskToUpdate.setDoneDate(done ? LocalDateTime.now() : null);
+                    return taskToUpdate;
+                });
+                Task current = taskRepository.findById(task.getId());
+                if (current.getIsDone() != (current.getDoneDate() != null)) tornReads.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, tornReads.get());
+    }
+
+    @Test
+    public void testConcurrentDeletes_EachTaskDeletedOnce() throws Exception {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            ids.add(taskRepository.save(new Task("Tarea " + i, null, 1, "Low")).getId());
+        }
+        AtomicInteger deleted = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int id : ids) {
+                if (taskRepository.deleteById(id) != null) deleted.incrementAndGet();
+            }
+        });
+
+        assertEquals(OPERATIONS, deleted.get());
+        assertEquals(0, taskRepository.count());
+    }
+
+    @Test
+    public void testFindByNameAndPriorityAndIsDone_FollowsUpdates() {
+        Task low = taskRepository.save(new Task("Low", LocalDateTime.now().plusDays(3), 1, "Low"));
+        Task high = taskRepository.save(new Task("High", LocalDateTime.now().plusDays(1), 3, "High"));
+        Task noDueDate = taskRepository.save(new Task("No due date", null, 3, "High"));
+        Task deleted = taskRepository.save(new Task("Deleted", LocalDateTime.now().plusDays(2), 3, "High"));
+
+        taskRepository.update(low.getId(), taskToUpdate -> {
+            taskToUpdate.setPriority(3);
+            taskToUpdate.setIsDone(true);
+            return taskToUpdate;
+        });
+        taskRepository.deleteById(deleted.getId());
+
+        assertEquals(List.of(high.getId(), noDueDate.getId()), idsOf(taskRepository.findByNameAndPriorityAndIsDone("", 3, false)));
+        assertEquals(List.of(low.getId()), idsOf(taskRepository.findByNameAndPriorityAndIsDone("", 0, true)));
+        assertEquals(0, taskRepository.findByNameAndPriorityAndIsDone("", 1, null).size());
+        assertEquals(List.of(high.getId()), idsOf(taskRepository.findByNameAndPriorityAndIsDone("IGH", 0, null)));
+        assertEquals(List.of(noDueDate.getId()), idsOf(taskRepository.findByNameAndPriorityAndIsDone("due", 3, false)));
+        assertEquals(0, taskRepository.findByNameAndPriorityAndIsDone("Deleted", 0, null).size());
+        assertEquals(List.of(high.getId(), low.getId(), noDueDate.getId()),
+                idsOf(taskRepository.findByNameAndPriorityAndIsDoneOrderByDueDate("", 3, null, false)));
+        assertEquals(List.of(low.getId(), high.getId(), noDueDate.getId()),
+                idsOf(taskRepository.findByNameAndPriorityAndIsDoneOrderByDueDate("", 0, null, true)));
+    }
+
+    @Test
+    public void testParallelScan_SameListingAsSequential() {
+        for (int i = 0; i < 20000; i++) {
+            LocalDateTime dueDate = i % 7 == 0 ? null : LocalDateTime.now().plusMinutes(i * 37 % 5000).withNano(0);
+            taskRepository.save(new Task("Tarea " + i, dueDate, 1 + i % 3, "Low"));
+        }
+        TaskService sequential = new TaskService(taskRepository);
+        ParallelTaskScan parallelScan = new ParallelTaskScan(4, 0);
+        TaskService parallel = new TaskService(taskRepository, new SimpleMeterRegistry(), new TaskQueryCache(0, 0, new SimpleMeterRegistry()), parallelScan);
+        try {
+            for (TaskQuery query : List.of(
+                    new TaskQuery("", 0, null, "asc", "desc", 3, 50, null),
+                    new TaskQuery("1", 2, null, "desc", null, 1, 100, null),
+                    new TaskQuery("", 0, null, null, null, 400, 50, null))) {
+                TaskPage expected = sequential.getTasks(query, null);
+                TaskPage actual = parallel.getTasks(query, null);
+                assertEquals(expected.getTotalTasks(), actual.getTotalTasks());
+                assertEquals(idsOf(expected.getTasks()), idsOf(actual.getTasks()));
+                assertEquals(expected.getNextCursor(), actual.getNextCursor());
+            }
+        } finally {
+            parallelScan.close();
+        }
+    }
+
+    @Test
+    public void testCompletionTimes_FollowDoneUndoneAndDelete() {
+        Task first = taskRepository.save(new Task("First", null, 1, "Low"));
+        Task second = taskRepository.save(new Task("Second", null, 1, "Low"));
+        taskRepository.save(new Task("Third", null, 3, "High"));
+
+        taskRepository.update(first.getId(), taskToUpdate -> {
+            taskToUpdate.setIsDone(true);
+            taskToUpdate.setDoneDate(taskToUpdate.getCreatedDate().plusMinutes(30));
+            return taskToUpdate;
+        });
+        taskRepository.update(second.getId(), taskToUpdate -> {
+            taskToUpdate.setIsDone(true);
+            taskToUpdate.setDoneDate(taskToUpdate.getCreatedDate().plusMinutes(90));
+            return taskToUpdate;
+        });
+
+        Map<String, CompletionTimeSummary> completionTimes = taskRepository.getCompletionTimes();
+        assertEquals(List.of("Low", "High", "Total"), new ArrayList<>(completionTimes.keySet()));
+        assertEquals(60.0, completionTimes.get("Low").getAverage());
+        assertEquals(30.0, completionTimes.get("Low").getStandardDeviation());
+        assertEquals(30.0, completionTimes.get("Low").getP50());
+        assertEquals(0, completionTimes.get("High").getDoneTasks());
+        assertEquals(3, completionTimes.get("Total").getTotalTasks());
+        assertEquals(60.0, completionTimes.get("Total").getAverage());
+
+        taskRepository.update(first.getId(), taskToUpdate -> {
+            taskToUpdate.setIsDone(false);
+            taskToUpdate.setDoneDate(null);
+            return taskToUpdate;
+        });
+        taskRepository.deleteById(second.getId());
+
+        completionTimes = taskRepository.getCompletionTimes();
+        assertEquals(0, completionTimes.get("Low").getDoneTasks());
+        assertEquals(0.0, completionTimes.get("Total").getAverage());
+        assertEquals(2, completionTimes.get("Total").getTotalTasks());
+    }
+
+    @Test
+    public void testConditionalUpdates_UnderContention_NoLostUpdates() throws Exception {
+        TaskService taskService = new TaskService(taskRepository);
+        int id = taskRepository.save(new Task("0", null, 1, "Low")).getId();
+        int increments = OPERATIONS / 10;
+        AtomicInteger tornReads = new AtomicInteger();
+
+        // Each writer reads the counter in the name and writes it back incremented, only if no one changed it meanwhile.
+        runConcurrently(() -> {
+            for (int i = 0; i < increments; i++) {
+                while (true) {
+                    Task current = taskRepository.findById(id);
+                    long version = current.getVersion();
+                    int counter = Integer.parseInt(current.getName());
+                    if (counter + 1 != version) tornReads.incrementAndGet();
+                    try {
+                        taskService.updateTask(null, id, task -> task.getVersion() == version, new Task(String.valueOf(counter + 1), null, 1, "Low"));
+                        break;
+                    } catch (TaskConflictException e) {
+                        // A conflict always comes with a newer version.
+                        if (e.getCurrent().getVersion() == version) tornReads.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        Task task = taskRepository.findById(id);
+        assertEquals(0, tornReads.get());
+        assertEquals(String.valueOf(THREADS * increments), task.getName());
+        assertEquals(THREADS * increments + 1, task.getVersion());
+    }
+
+    private static List<Integer> idsOf(List<Task> tasks) {
+        List<Integer> ids = new ArrayList<>();
+        for (Task task : tasks) ids.add(task.getId());
+        return ids;
+    }
+
+    private void runConcurrently(Runnable work) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                work.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,111 @@
+package com.todoAPI.todo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.WriteAheadTaskLog;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskWriteAheadLogTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRecovery_RestoresTasksAndIds() throws Exception {
+        LocalDateTime dueDate = LocalDateTime.of(2030, 1, 2, 3, 4, 5, 6000);
+        WriteAheadTaskLog log = open(1000);
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        Task kept = repository.save(new Task("Comprar leche", dueDate, 3, "High"));
+        Task deleted = repository.save(new Task("Lavar ropa", null, 1, "Low"));
+        repository.update(kept.getId(), task -> {
+            task.markAsDone();
+            return task;
+        });
+        repository.deleteById(deleted.getId());
+        log.close();
+
+        log = open(1000);
+        repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        Task recovered = repository.findById(kept.getId());
+        assertEquals(1, repository.count());
+        assertNull(repository.findById(deleted.getId()));
+        assertEquals("Comprar leche", recovered.getName());
+        assertEquals(dueDate, recovered.getDueDate());
+        assertTrue(recovered.getIsDone());
+        assertNotNull(recovered.getDoneDate());
+        assertEquals(1, repository.findByNameAndPriorityAndIsDone("leche", 3, true).size());
+        assertTrue(repository.save(new Task("Nueva", null, 2, "Medium")).getId() > deleted.getId());
+        log.close();
+    }
+
+    @Test
+    public void testRecovery_DropsTornRecord() throws Exception {
+        WriteAheadTaskLog log = open(1000);
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        repository.save(new Task("Primera", null, 1, "Low"));
+        repository.save(new Task("Segunda", null, 1, "Low"));
+        log.close();
+
+        // Simulate a crash in the middle of the last record.
+        Path segment = files("wal-").get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        log = open(1000);
+        repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        assertEquals(1, repository.count());
+        repository.save(new Task("Tercera", null, 1, "Low"));
+        log.close();
+
+        log = open(1000);
+        repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        assertEquals(2, repository.count());
+        log.close();
+    }
+
+    @Test
+    public void testSnapshot_CompactsOldSegments() throws Exception {
+        WriteAheadTaskLog log = open(50);
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        for (int i = 0; i < 500; i++) {
+            Task task = repository.save(new Task("Tarea " + i, null, 1, "Low"));
+            if (i % 2 == 0) repository.deleteById(task.getId());
+        }
+        log.close();
+
+        assertEquals(1, files("snapshot-").size());
+        assertTrue(files("wal-").size() <= 2);
+
+        log = open(50);
+        repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        assertEquals(250, repository.count());
+        log.close();
+    }
+
+    private WriteAheadTaskLog open(long snapshotEveryRecords) {
+        return new WriteAheadTaskLog(directory, 0, true, snapshotEveryRecords, Thread::new);
+    }
+
+    private List<Path> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).collect(Collectors.toList());
+        }
+    }
+}
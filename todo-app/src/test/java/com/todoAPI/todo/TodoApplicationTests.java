@@ -8,24 +8,37 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.controllers.TaskChangeController;
 import com.todoAPI.todo.controllers.TaskController;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.services.TaskChangeFeed;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -41,6 +54,9 @@ public class TodoApplicationTests {
     @Autowired
     private WebApplicationContext webApplicationContext;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @BeforeEach
     public void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
@@ -55,14 +71,13 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
         task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
         MvcResult result = mockMvc.perform(MockMvcRequestBuilders
                 .post("/api/v1/todo/task")
                 .content(asJsonString(task))
                 .contentType(MediaType.APPLICATION_JSON)
                 .accept(MediaType.APPLICATION_JSON))
                 .andReturn();
+        task.assignId(idOf(result));
 
         // Verificar la respuesta
         assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
@@ -77,8 +92,6 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
@@ -97,8 +110,6 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
@@ -117,8 +128,6 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().minusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
@@ -138,6 +147,77 @@ public class TodoApplicationTests {
 		assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
 	}
 
+	@Test
+	public void testGetAllTasks_OutOfRangePage() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("page", "100000"))
+				.andReturn();
+
+		assertEquals(HttpStatus.OK.value(), result.getResponse().getStatus());
+		assertEquals(0, new ObjectMapper().readTree(result.getResponse().getContentAsString()).get("tasks").size());
+	}
+
+	@Test
+	public void testGetAllTasks_CursorPagination() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			Task task = new Task();
+			task.setName("Tarea paginada " + i);
+			task.setPriority(1 + i);
+			mockMvc.perform(MockMvcRequestBuilders
+					.post("/api/v1/todo/task")
+					.content(asJsonString(task))
+					.contentType(MediaType.APPLICATION_JSON)
+					.accept(MediaType.APPLICATION_JSON))
+					.andReturn();
+		}
+
+		MvcResult firstPage = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("name", "paginada")
+				.param("sortByPriority", "desc")
+				.param("size", "2"))
+				.andReturn();
+		JsonNode firstContent = new ObjectMapper().readTree(firstPage.getResponse().getContentAsString());
+
+		MvcResult secondPage = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("name", "paginada")
+				.param("sortByPriority", "desc")
+				.param("size", "2")
+				.param("cursor", firstContent.get("nextCursor").asText()))
+				.andReturn();
+		JsonNode secondContent = new ObjectMapper().readTree(secondPage.getResponse().getContentAsString());
+
+		assertEquals(3, firstContent.get("totalTasks").asInt());
+		assertEquals("Tarea paginada 2", firstContent.get("tasks").get(0).get("name").asText());
+		assertEquals("Tarea paginada 1", firstContent.get("tasks").get(1).get("name").asText());
+		assertEquals(1, secondContent.get("tasks").size());
+		assertEquals("Tarea paginada 0", secondContent.get("tasks").get(0).get("name").asText());
+		assertEquals(null, secondContent.get("nextCursor"));
+	}
+
+	@Test
+	public void testGetAllTasks_InvalidCursor() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("cursor", "not a cursor"))
+				.andReturn();
+
+		assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus());
+	}
+
+	@Test
+	public void testGetAllTasks_InvalidPriorityFilter() throws Exception {
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("priority", "7"))
+				.andReturn();
+
+		assertEquals(HttpStatus.BAD_REQUEST.value(), result.getResponse().getStatus());
+		assertEquals("The priority filter is invalid.", result.getResponse().getContentAsString());
+	}
+
 	@Test
 	public void testModifyTask_Success() throws Exception {
 		Task task = new Task();
@@ -146,14 +226,13 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
 				.contentType(MediaType.APPLICATION_JSON)
 				.accept(MediaType.APPLICATION_JSON))
 				.andReturn();
+		task.assignId(idOf(result));
 		
 		task.setName("Tarea modificada");
 		task.setPriority(2);
@@ -179,14 +258,13 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
 				.contentType(MediaType.APPLICATION_JSON)
 				.accept(MediaType.APPLICATION_JSON))
 				.andReturn();
+		task.assignId(idOf(result));
 
 		task.setName("Tarea modificada");
 		task.setPriority(2);
@@ -211,14 +289,13 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
 				.contentType(MediaType.APPLICATION_JSON)
 				.accept(MediaType.APPLICATION_JSON))
 				.andReturn();
+		task.assignId(idOf(result));
 
 		task.setName("");
 		task.setPriority(2);
@@ -242,14 +319,13 @@ public class TodoApplicationTests {
 		task.setPriority(1);
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
 				.contentType(MediaType.APPLICATION_JSON)
 				.accept(MediaType.APPLICATION_JSON))
 				.andReturn();
+		task.assignId(idOf(result));
 
 		task.setName("Tarea modificada");
 		task.setPriority(0);
@@ -274,14 +350,13 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
 				.contentType(MediaType.APPLICATION_JSON)
 				.accept(MediaType.APPLICATION_JSON))
 				.andReturn();
+		task.assignId(idOf(result));
 
 		task.setName("Tarea modificada");
 		task.setPriority(2);
@@ -306,14 +381,13 @@ public class TodoApplicationTests {
 		task.setPriorityName("Low");
 		task.setDueDate(LocalDateTime.now().plusDays(1));
 
-		Task.id -= 1;
-
 		MvcResult result = mockMvc.perform(MockMvcRequestBuilders
 				.post("/api/v1/todo/task")
 				.content(asJsonString(task))
 				.contentType(MediaType.APPLICATION_JSON)
 				.accept(MediaType.APPLICATION_JSON))
 				.andReturn();
+		task.assignId(idOf(result));
 
 		MvcResult deleteResult = mockMvc.perform(MockMvcRequestBuilders
 				.delete("/api/v1/todo/task/" + task.getId())
@@ -324,6 +398,643 @@ public class TodoApplicationTests {
 		assertEquals(HttpStatus.OK.value(), deleteResult.getResponse().getStatus());
 	}
 
+	@Test
+	public void testBatch_CreateUpdateDelete() throws Exception {
+		Task valid = new Task();
+		valid.setName("Tarea en lote");
+		valid.setPriority(2);
+		Task invalid = new Task();
+		invalid.setName("");
+		invalid.setPriority(2);
+
+		MvcResult createResult = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task/batch")
+				.content(asJsonString(List.of(valid, invalid)))
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+		JsonNode created = new ObjectMapper().readTree(createResult.getResponse().getContentAsString());
+		int id = created.get(0).get("task").get("id").asInt();
+
+		assertEquals(HttpStatus.OK.value(), createResult.getResponse().getStatus());
+		assertEquals(HttpStatus.OK.value(), created.get(0).get("status").asInt());
+		assertEquals(HttpStatus.BAD_REQUEST.value(), created.get(1).get("status").asInt());
+
+		valid.assignId(id);
+		valid.setName("Tarea en lote modificada");
+		Task missing = new Task();
+		missing.assignId(-1);
+		missing.setName("Tarea inexistente");
+		missing.setPriority(1);
+
+		MvcResult updateResult = mockMvc.perform(MockMvcRequestBuilders
+				.put("/api/v1/todo/task/batch")
+				.content(asJsonString(List.of(valid, missing)))
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+		JsonNode updated = new ObjectMapper().readTree(updateResult.getResponse().getContentAsString());
+
+		assertEquals("Tarea en lote modificada", updated.get(0).get("task").get("name").asText());
+		assertEquals(HttpStatus.NOT_FOUND.value(), updated.get(1).get("status").asInt());
+
+		MvcResult deleteResult = mockMvc.perform(MockMvcRequestBuilders
+				.delete("/api/v1/todo/task/batch")
+				.content(asJsonString(List.of(id, id)))
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON))
+				.andReturn();
+		JsonNode deleted = new ObjectMapper().readTree(deleteResult.getResponse().getContentAsString());
+
+		assertEquals(HttpStatus.OK.value(), deleted.get(0).get("status").asInt());
+		assertEquals(HttpStatus.NOT_FOUND.value(), deleted.get(1).get("status").asInt());
+	}
+
+	@Test
+	public void testImportExport_Ndjson() throws Exception {
+		String upload = "{\"name\":\"Tarea importada\",\"priority\":3,\"dueDate\":\"2020-01-01T10:00:00\"}\n"
+				+ "{\"name\":\"\",\"priority\":3}\n";
+
+		MvcResult importResult = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task/import")
+				.content(upload)
+				.contentType("application/x-ndjson"))
+				.andReturn();
+		JsonNode imported = new ObjectMapper().readTree(importResult.getResponse().getContentAsString());
+
+		assertEquals(HttpStatus.OK.value(), importResult.getResponse().getStatus());
+		assertEquals(1, imported.get("imported").asInt());
+		assertEquals(1, imported.get("rejected").asInt());
+
+		MvcResult exportResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/export"))
+				.andReturn();
+		MvcResult exported = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(exportResult)).andReturn();
+		String content = exported.getResponse().getContentAsString();
+
+		assertEquals(HttpStatus.OK.value(), exported.getResponse().getStatus());
+		assertEquals(true, content.contains("\"name\":\"Tarea importada\""));
+		assertEquals(true, content.endsWith("\n"));
+	}
+
+	@Test
+	public void testImportExport_RoundTripKeepsCompletionTimes() throws Exception {
+		LocalDateTime created = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.SECONDS);
+		String upload = "{\"name\":\"Tarea de ida\",\"priority\":3,\"isDone\":true,\"createdDate\":\"" + created
+				+ "\",\"doneDate\":\"" + created.plusHours(5) + "\"}\n"
+				+ "{\"name\":\"Tarea de vuelta\",\"priority\":1,\"isDone\":true,\"createdDate\":\"" + created
+				+ "\",\"doneDate\":\"" + created.plusMinutes(90) + "\"}\n"
+				// Done before it was created.
+				+ "{\"name\":\"Tarea imposible\",\"priority\":1,\"isDone\":true,\"createdDate\":\"" + created
+				+ "\",\"doneDate\":\"" + created.minusDays(1) + "\"}\n";
+		JsonNode imported = new ObjectMapper().readTree(mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task/import")
+				.header("X-Owner-Id", "export-origen")
+				.content(upload)
+				.contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString());
+		assertEquals(2, imported.get("imported").asInt());
+		assertEquals(1, imported.get("rejected").asInt());
+
+		MvcResult exportResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/export")
+				.header("X-Owner-Id", "export-origen"))
+				.andReturn();
+		String exported = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(exportResult)).andReturn().getResponse().getContentAsString();
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task/import")
+				.header("X-Owner-Id", "export-destino")
+				.content(exported)
+				.contentType("application/x-ndjson"))
+				.andReturn();
+
+		JsonNode origin = new ObjectMapper().readTree(mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/average")
+				.header("X-Owner-Id", "export-origen"))
+				.andReturn().getResponse().getContentAsString());
+		JsonNode destination = new ObjectMapper().readTree(mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/average")
+				.header("X-Owner-Id", "export-destino"))
+				.andReturn().getResponse().getContentAsString());
+		assertEquals(300.0, origin.get("High").asDouble());
+		assertEquals(90.0, origin.get("Low").asDouble());
+		assertEquals(origin, destination);
+	}
+
+	@Test
+	public void testReactiveApi_CreateGetAndStream() throws Exception {
+		MvcResult createResult = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v2/todo/task")
+				.content("{\"name\":\"Tarea reactiva\",\"priority\":3}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(createResult)).andReturn();
+		int id = idOf(created);
+
+		assertEquals(HttpStatus.OK.value(), created.getResponse().getStatus());
+		assertEquals("High", new ObjectMapper().readTree(created.getResponse().getContentAsString()).get("priorityName").asText());
+
+		MvcResult invalidResult = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v2/todo/task")
+				.content("{\"name\":\"\",\"priority\":3}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		assertEquals(HttpStatus.BAD_REQUEST.value(), mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(invalidResult)).andReturn().getResponse().getStatus());
+
+		MvcResult getResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v2/todo/task/" + id))
+				.andReturn();
+		assertEquals(id, idOf(mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(getResult)).andReturn()));
+
+		MvcResult missingResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v2/todo/task/0"))
+				.andReturn();
+		assertEquals(HttpStatus.NOT_FOUND.value(), mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(missingResult)).andReturn().getResponse().getStatus());
+
+		MvcResult streamResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v2/todo/task")
+				.param("name", "reactiva")
+				.accept("application/x-ndjson"))
+				.andReturn();
+		MvcResult streamed = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(streamResult)).andReturn();
+		String[] lines = streamed.getResponse().getContentAsString().split("\n");
+
+		assertEquals(HttpStatus.OK.value(), streamed.getResponse().getStatus());
+		assertEquals(true, lines.length >= 1);
+		assertEquals("Tarea reactiva", new ObjectMapper().readTree(lines[0]).get("name").asText());
+	}
+
+	@Test
+	public void testReactiveApi_StreamsEveryPagePatchAndAverage() throws Exception {
+		LocalDateTime now = LocalDateTime.now().withNano(0);
+		List<Task> tasks = new ArrayList<>();
+		for (int i = 0; i < 250; i++) tasks.add(new Task("Tarea paginada " + i, now.plusDays(250 - i), 1, "Low"));
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task/batch")
+				.header("X-Owner-Id", "reactivo")
+				.content(asJsonString(tasks))
+				.contentType(MediaType.APPLICATION_JSON));
+
+		MvcResult streamResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v2/todo/task")
+				.header("X-Owner-Id", "reactivo")
+				.param("sortByDueDate", "asc")
+				.accept("application/x-ndjson"))
+				.andReturn();
+		String[] lines = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(streamResult)).andReturn()
+				.getResponse().getContentAsString().split("\n");
+
+		assertEquals(250, lines.length);
+		for (int i = 0; i < lines.length; i++) {
+			assertEquals("Tarea paginada " + (249 - i), new ObjectMapper().readTree(lines[i]).get("name").asText());
+		}
+
+		int id = new ObjectMapper().readTree(lines[0]).get("id").asInt();
+		MvcResult patchResult = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v2/todo/task/" + id)
+				.header("X-Owner-Id", "reactivo")
+				.content("{\"isDone\":true}")
+				.contentType("application/merge-patch+json"))
+				.andReturn();
+		MvcResult patched = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(patchResult)).andReturn();
+
+		assertEquals(HttpStatus.OK.value(), patched.getResponse().getStatus());
+		assertEquals(true, new ObjectMapper().readTree(patched.getResponse().getContentAsString()).get("isDone").asBoolean());
+
+		MvcResult invalidResult = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v2/todo/task/" + id)
+				.header("X-Owner-Id", "reactivo")
+				.content("{\"id\":1}")
+				.contentType("application/merge-patch+json"))
+				.andReturn();
+		assertEquals(HttpStatus.BAD_REQUEST.value(), mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(invalidResult)).andReturn().getResponse().getStatus());
+
+		MvcResult averageResult = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v2/todo/task/average")
+				.header("X-Owner-Id", "reactivo"))
+				.andReturn();
+		JsonNode averages = new ObjectMapper().readTree(mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(averageResult)).andReturn().getResponse().getContentAsString());
+
+		assertEquals(true, averages.has("Low"));
+		assertEquals(true, averages.has("Total"));
+	}
+
+	@Test
+	public void testMetrics_BadRequestsAndQueryStages() throws Exception {
+		double badRequests = meterRegistry.counter("tasks.bad.requests", "reason", "page").count();
+		long listings = meterRegistry.get("tasks.query.stage").tag("stage", "filter").timer().count();
+
+		mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("page", "0"))
+				.andReturn();
+		// A name no other test uses, so the page is not in the query cache.
+		mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("name", "Tarea de metricas"))
+				.andReturn();
+
+		assertEquals(badRequests + 1, meterRegistry.counter("tasks.bad.requests", "reason", "page").count());
+		// Messages outside the closed set of reasons are never used as tags.
+		for (Meter meter : meterRegistry.find("tasks.bad.requests").meters()) {
+			assertEquals(true, meter.getId().getTag("reason").matches("[a-z_]+"));
+		}
+		assertEquals(listings + 1, meterRegistry.get("tasks.query.stage").tag("stage", "filter").timer().count());
+		assertEquals(listings + 1, meterRegistry.get("tasks.query.stage").tag("stage", "paginate").timer().count());
+		assertEquals(true, meterRegistry.get("tasks.count").gauge().value() >= 0);
+		assertEquals(true, meterRegistry.get("tasks.index.size").tag("index", "name.trigrams").gauge().value() >= 0);
+	}
+
+	@Test
+	public void testConditionalGet_ETags() throws Exception {
+		Task task = new Task("Tarea con etag", null, 1, "Low");
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(task))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		int id = idOf(created);
+
+		String taskTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/task/" + id)).andReturn().getResponse().getHeader("ETag");
+		MvcResult unchangedTask = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/" + id)
+				.header("If-None-Match", taskTag))
+				.andReturn();
+		assertEquals(HttpStatus.NOT_MODIFIED.value(), unchangedTask.getResponse().getStatus());
+		assertEquals("", unchangedTask.getResponse().getContentAsString());
+
+		String listTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/task")).andReturn().getResponse().getHeader("ETag");
+		MvcResult unchangedList = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.header("If-None-Match", listTag))
+				.andReturn();
+		assertEquals(HttpStatus.NOT_MODIFIED.value(), unchangedList.getResponse().getStatus());
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/todo/task/" + id + "/done")).andReturn();
+
+		MvcResult changedTask = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/" + id)
+				.header("If-None-Match", taskTag))
+				.andReturn();
+		MvcResult changedList = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.header("If-None-Match", listTag))
+				.andReturn();
+		assertEquals(HttpStatus.OK.value(), changedTask.getResponse().getStatus());
+		assertEquals(true, !taskTag.equals(changedTask.getResponse().getHeader("ETag")));
+		assertEquals(HttpStatus.OK.value(), changedList.getResponse().getStatus());
+		assertEquals(true, !listTag.equals(changedList.getResponse().getHeader("ETag")));
+	}
+
+	@Test
+	public void testConditionalUpdates_412And409() throws Exception {
+		Task task = new Task("Tarea condicional", null, 1, "Low");
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(task))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		int id = idOf(created);
+		String staleTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/task/" + id)).andReturn().getResponse().getHeader("ETag");
+
+		MvcResult done = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task/" + id + "/done")
+				.header("If-Match", staleTag))
+				.andReturn();
+		assertEquals(HttpStatus.OK.value(), done.getResponse().getStatus());
+		String currentTag = done.getResponse().getHeader("ETag");
+		assertEquals(true, !staleTag.equals(currentTag));
+		assertEquals(true, done.getResponse().getHeaders("Vary").contains("X-Owner-Id"));
+
+		// A change based on the old version fails and leaves the task as it is.
+		MvcResult stale = mockMvc.perform(MockMvcRequestBuilders
+				.put("/api/v1/todo/task/" + id)
+				.header("If-Match", staleTag)
+				.content(asJsonString(new Task("Cambio perdido", null, 2, "Medium")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		assertEquals(HttpStatus.PRECONDITION_FAILED.value(), stale.getResponse().getStatus());
+		assertEquals(currentTag, stale.getResponse().getHeader("ETag"));
+		assertEquals(true, stale.getResponse().getHeaders("Vary").contains("X-Owner-Id"));
+
+		MvcResult conflict = mockMvc.perform(MockMvcRequestBuilders
+				.put("/api/v1/todo/task/" + id + "/undone")
+				.param("version", "1"))
+				.andReturn();
+		assertEquals(HttpStatus.CONFLICT.value(), conflict.getResponse().getStatus());
+		assertEquals(true, conflict.getResponse().getHeaders("Vary").contains("X-Owner-Id"));
+		assertEquals(true, new ObjectMapper().readTree(conflict.getResponse().getContentAsString()).get("isDone").asBoolean());
+
+		MvcResult staleDelete = mockMvc.perform(MockMvcRequestBuilders
+				.delete("/api/v1/todo/task/" + id)
+				.header("If-Match", staleTag))
+				.andReturn();
+		assertEquals(HttpStatus.PRECONDITION_FAILED.value(), staleDelete.getResponse().getStatus());
+
+		MvcResult updated = mockMvc.perform(MockMvcRequestBuilders
+				.put("/api/v1/todo/task/" + id)
+				.header("If-Match", currentTag)
+				.param("version", "2")
+				.content(asJsonString(new Task("Cambio aplicado", null, 2, "Medium")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		assertEquals(HttpStatus.OK.value(), updated.getResponse().getStatus());
+		assertEquals("Cambio aplicado", new ObjectMapper().readTree(updated.getResponse().getContentAsString()).get("name").asText());
+
+		MvcResult deleted = mockMvc.perform(MockMvcRequestBuilders
+				.delete("/api/v1/todo/task/" + id)
+				.header("If-Match", updated.getResponse().getHeader("ETag")))
+				.andReturn();
+		assertEquals(HttpStatus.OK.value(), deleted.getResponse().getStatus());
+	}
+
+	@Test
+	public void testPatchTask_OnlySentFields() throws Exception {
+		LocalDateTime dueDate = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(new Task("Tarea parcial", dueDate, 1, "Low")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		int id = idOf(created);
+		String createdTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/todo/task/" + id)).andReturn().getResponse().getHeader("ETag");
+
+		// Only the priority is sent, so the name and the due date are kept.
+		MvcResult patched = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v1/todo/task/" + id)
+				.header("If-Match", createdTag)
+				.content("{\"priority\": 3}")
+				.contentType("application/merge-patch+json"))
+				.andReturn();
+		assertEquals(HttpStatus.OK.value(), patched.getResponse().getStatus());
+		JsonNode patchedTask = new ObjectMapper().readTree(patched.getResponse().getContentAsString());
+		assertEquals("Tarea parcial", patchedTask.get("name").asText());
+		assertEquals("High", patchedTask.get("priorityName").asText());
+		assertEquals(dueDate.toString(), patchedTask.get("dueDate").asText());
+
+		// A null removes the due date, and the status sets the done date.
+		MvcResult done = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v1/todo/task/" + id)
+				.content("{\"dueDate\": null, \"isDone\": true}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		JsonNode doneTask = new ObjectMapper().readTree(done.getResponse().getContentAsString());
+		assertEquals(true, doneTask.get("dueDate").isNull());
+		assertEquals(true, doneTask.get("isDone").asBoolean());
+		assertEquals(false, doneTask.get("doneDate").isNull());
+
+		// A patch that changes nothing keeps the version.
+		MvcResult unchanged = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v1/todo/task/" + id)
+				.content("{\"isDone\": true}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		assertEquals(done.getResponse().getHeader("ETag"), unchanged.getResponse().getHeader("ETag"));
+
+		for (String invalid : List.of("{\"id\": 9}", "{\"name\": \"\"}", "{\"priority\": 7}", "{\"name\": null}", "[]",
+				"{\"dueDate\": \"" + LocalDateTime.now().minusDays(2) + "\"}")) {
+			MvcResult rejected = mockMvc.perform(MockMvcRequestBuilders
+					.patch("/api/v1/todo/task/" + id)
+					.content(invalid)
+					.contentType(MediaType.APPLICATION_JSON))
+					.andReturn();
+			assertEquals(HttpStatus.BAD_REQUEST.value(), rejected.getResponse().getStatus());
+		}
+
+		// The message does not repeat the field sent by the client.
+		MvcResult unknown = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v1/todo/task/" + id)
+				.content("{\"campo-" + System.nanoTime() + "\": 1}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		assertEquals("The patch has a field that cannot be patched.", unknown.getResponse().getContentAsString());
+
+		MvcResult stale = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v1/todo/task/" + id)
+				.header("If-Match", createdTag)
+				.content("{\"name\": \"Cambio perdido\"}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		assertEquals(HttpStatus.PRECONDITION_FAILED.value(), stale.getResponse().getStatus());
+
+		MvcResult missing = mockMvc.perform(MockMvcRequestBuilders
+				.patch("/api/v1/todo/task/999999")
+				.content("{\"name\": \"Nada\"}")
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		assertEquals(HttpStatus.NOT_FOUND.value(), missing.getResponse().getStatus());
+	}
+
+	@Test
+	public void testChangeFeed_StreamAndResume() throws Exception {
+		MvcResult stream = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andReturn();
+
+		MvcResult created = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(new Task("Tarea observada", null, 2, "Medium")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		int id = idOf(created);
+		mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/todo/task/" + id)).andReturn();
+
+		String events = awaitContent(stream, "event:deleted");
+		assertEquals(true, events.contains("event:created"));
+		assertEquals(true, events.contains("\"taskId\":" + id));
+
+		// Resume after the created event: only the deletion is sent again.
+		String createdEventId = events.substring(events.indexOf("id:") + 3, events.indexOf("\n", events.indexOf("id:")));
+		MvcResult resumed = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/changes")
+				.param("since", createdEventId)
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andReturn();
+		String resumedEvents = awaitContent(resumed, "event:deleted");
+		assertEquals(false, resumedEvents.contains("event:created"));
+	}
+
+	@Test
+	public void testChangeFeed_CapsSubscribers() {
+		TaskChangeController controller = new TaskChangeController(new TaskChangeFeed(16),
+				new InMemoryTaskRepository(new TaskIdGenerator(1)), Thread::new, 60000, 1, 1);
+		try {
+			assertEquals(HttpStatus.OK.value(), controller.getChanges(null, null, null).getStatusCodeValue());
+			ResponseEntity<SseEmitter> rejected = controller.getChanges(null, null, null);
+			assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), rejected.getStatusCodeValue());
+			assertEquals("5", rejected.getHeaders().getFirst("Retry-After"));
+		} finally {
+			controller.close();
+		}
+	}
+
+    private static String awaitContent(final MvcResult result, final String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+	@Test
+	public void testQueryCache_HitsAndInvalidation() throws Exception {
+		MockHttpServletRequestBuilder listing = MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.param("name", "Tarea en cache")
+				.param("priority", "3")
+				.param("sortByDueDate", "asc");
+		double hits = meterRegistry.counter("tasks.query.cache.requests", "result", "hit").count();
+
+		mockMvc.perform(listing).andReturn();
+		mockMvc.perform(listing).andReturn();
+		assertEquals(hits + 1, meterRegistry.counter("tasks.query.cache.requests", "result", "hit").count());
+
+		// A task of another partition leaves the page cached.
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.header("X-Owner-Id", "dave")
+				.content(asJsonString(new Task("Tarea en cache", null, 3, "High")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		mockMvc.perform(listing).andReturn();
+		assertEquals(hits + 2, meterRegistry.counter("tasks.query.cache.requests", "result", "hit").count());
+
+		// So does a task of its partition that the filters leave out.
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(new Task("Tarea en cache", null, 1, "Low")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		mockMvc.perform(listing).andReturn();
+		assertEquals(hits + 3, meterRegistry.counter("tasks.query.cache.requests", "result", "hit").count());
+
+		// A task of its partition that passes the filters invalidates the page.
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(new Task("Tarea en cache", null, 3, "High")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		MvcResult result = mockMvc.perform(listing).andReturn();
+		assertEquals(hits + 3, meterRegistry.counter("tasks.query.cache.requests", "result", "hit").count());
+		assertEquals(1, new ObjectMapper().readTree(result.getResponse().getContentAsString()).get("totalTasks").asInt());
+	}
+
+	@Test
+	public void testReminders_DueAndOverdue() throws Exception {
+		MvcResult stream = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM))
+				.andReturn();
+
+		// Due today, but already past: overdue as soon as it is saved.
+		MvcResult late = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(new Task("Tarea atrasada", LocalDate.now().atStartOfDay(), 2, "Medium")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		int lateId = idOf(late);
+		MvcResult soon = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.content(asJsonString(new Task("Tarea por vencer", LocalDateTime.now().plusSeconds(1), 2, "Medium")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		int soonId = idOf(soon);
+
+		String events = awaitContent(stream, "event:due");
+		assertEquals(true, events.contains("event:overdue"));
+
+		String overdue = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/overdue")
+				.param("size", "100"))
+				.andReturn().getResponse().getContentAsString();
+		assertEquals(true, overdue.contains("\"id\":" + lateId + "}"));
+		assertEquals(true, overdue.contains("\"id\":" + soonId + "}"));
+		int totalOverdue = new ObjectMapper().readTree(overdue).get("totalTasks").asInt();
+		double overdueGauge = meterRegistry.get("tasks.reminders.overdue").gauge().value();
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/todo/task/" + lateId + "/done")).andReturn();
+		mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/todo/task/" + soonId)).andReturn();
+		overdue = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/overdue")
+				.param("size", "100"))
+				.andReturn().getResponse().getContentAsString();
+		assertEquals(false, overdue.contains("\"id\":" + lateId + "}"));
+		assertEquals(false, overdue.contains("\"id\":" + soonId + "}"));
+		// The counts follow the tasks leaving the overdue set.
+		assertEquals(totalOverdue - 2, new ObjectMapper().readTree(overdue).get("totalTasks").asInt());
+		assertEquals(overdueGauge - 2, meterRegistry.get("tasks.reminders.overdue").gauge().value());
+
+		// Reading the overdue tasks of an unknown owner finds none.
+		assertEquals(true, mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/overdue")
+				.header("X-Owner-Id", "nadie-" + System.nanoTime()))
+				.andReturn().getResponse().getContentAsString().contains("\"totalTasks\":0"));
+	}
+
+	@Test
+	public void testOwners_SeeOnlyTheirPartition() throws Exception {
+		MvcResult alice = mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.header("X-Owner-Id", "alice")
+				.content(asJsonString(new Task("Tarea de alice", null, 2, "Medium")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+		int aliceId = idOf(alice);
+		assertEquals(true, alice.getResponse().getContentAsString().contains("\"owner\":\"alice\""));
+		mockMvc.perform(MockMvcRequestBuilders
+				.post("/api/v1/todo/task")
+				.header("X-Owner-Id", "bob")
+				.content(asJsonString(new Task("Tarea de bob", null, 2, "Medium")))
+				.contentType(MediaType.APPLICATION_JSON))
+				.andReturn();
+
+		MvcResult aliceListing = mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.header("X-Owner-Id", "alice")
+				.param("name", "Tarea de"))
+				.andReturn();
+		String aliceTasks = aliceListing.getResponse().getContentAsString();
+		// The tag is the version of the partition, so shared caches must keep one copy per owner.
+		assertEquals(true, aliceListing.getResponse().getHeaders("Vary").contains("X-Owner-Id"));
+		assertEquals(true, mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task")
+				.header("X-Owner-Id", "alice")
+				.header("If-None-Match", aliceListing.getResponse().getHeader("ETag")))
+				.andReturn().getResponse().getHeaders("Vary").contains("X-Owner-Id"));
+		assertEquals(true, aliceTasks.contains("Tarea de alice"));
+		assertEquals(false, aliceTasks.contains("Tarea de bob"));
+		assertEquals(true, aliceTasks.contains("\"totalTasks\":1"));
+
+		// Neither the other owners nor the shared partition reach the task.
+		assertEquals(404, mockMvc.perform(MockMvcRequestBuilders
+				.get("/api/v1/todo/task/" + aliceId)
+				.header("X-Owner-Id", "bob"))
+				.andReturn().getResponse().getStatus());
+		assertEquals(404, mockMvc.perform(MockMvcRequestBuilders
+				.delete("/api/v1/todo/task/" + aliceId))
+				.andReturn().getResponse().getStatus());
+		assertEquals(200, mockMvc.perform(MockMvcRequestBuilders
+				.delete("/api/v1/todo/task/" + aliceId)
+				.header("X-Owner-Id", "alice"))
+				.andReturn().getResponse().getStatus());
+
+		for (String invalid : List.of("a".repeat(65), "alice/bob", "<alice>")) {
+			MvcResult rejected = mockMvc.perform(MockMvcRequestBuilders
+					.get("/api/v1/todo/task")
+					.header("X-Owner-Id", invalid))
+					.andReturn();
+			assertEquals(HttpStatus.BAD_REQUEST.value(), rejected.getResponse().getStatus());
+			assertEquals("The owner id is invalid.", rejected.getResponse().getContentAsString());
+		}
+	}
+
+    private static int idOf(final MvcResult result) throws Exception {
+        return new ObjectMapper().readTree(result.getResponse().getContentAsString()).get("id").asInt();
+    }
+
     private static String asJsonString(final Object obj) {
         try {
             final ObjectMapper mapper = new ObjectMapper();
@@ -0,0 +1,83 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.todoAPI.todo.TodoApplication;
+
+/**
+ * This load test compares the throughput of creating tasks one request at a
+ * time with the batch endpoint. It starts the application on a random port
+ * and sends the same number of tasks over HTTP with several client threads.
+ * Run it with the main method; the arguments are the number of tasks and of
+ * client threads (defaults: 100000 and 16).
+ * @version: 1.0
+ */
+public class TaskBatchLoadBenchmark {
+    private static final String TASK = "{\"name\":\"Tarea de carga\",\"priority\":2}";
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+
+        ConfigurableApplicationContext context = SpringApplication.run(TodoApplication.class, "--server.port=0");
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/todo";
+        HttpClient client = HttpClient.newHttpClient();
+        try {
+            for (int batchSize : new int[] {1, 10, 100, 1000}) {
+                // Warm up the endpoint before measuring.
+                run(client, baseUrl, batchSize, Math.min(tasks, 10000), threads);
+                long start = System.nanoTime();
+                int created = run(client, baseUrl, batchSize, tasks, threads);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("batchSize=%d threads=%d tasks=%d time=%.2fs throughput=%.0f tasks/s%n",
+                        batchSize, threads, created, seconds, created / seconds);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static int run(HttpClient client, String baseUrl, int batchSize, int tasks, int threads) throws Exception {
+        String body = batchSize == 1 ? TASK : batchOf(batchSize);
+        URI uri = URI.create(batchSize == 1 ? baseUrl + "/task" : baseUrl + "/task/batch");
+        AtomicInteger remainingRequests = new AtomicInteger(tasks / batchSize);
+        AtomicInteger created = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                while (remainingRequests.getAndDecrement() > 0) {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) created.addAndGet(batchSize);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) future.get();
+        executor.shutdown();
+        return created.get();
+    }
+
+    private static String batchOf(int batchSize) {
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < batchSize; i++) body.append(i == 0 ? "" : ",").append(TASK);
+        return body.append("]").toString();
+    }
+}
@@ -0,0 +1,206 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.controllers.TaskController;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.services.TaskChangeFeed;
+import com.todoAPI.todo.services.TaskQueryCache;
+import com.todoAPI.todo.services.TaskService;
+import com.todoAPI.todo.services.TaskValidator;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * This benchmark measures the hot paths of the task controller on datasets
+ * of several sizes: the listing with every combination of filters and
+ * sorting, the validation of created and updated tasks, a full update read
+ * from JSON against a merge patch of one field, the average time and the
+ * JSON serialization of tasks. The controller is called directly, without
+ * the servlet stack, so the numbers only show the cost of the application.
+ * Run it with the benchmarks Maven profile, which writes the results as JSON:
+ *   mvn -Pbenchmarks test
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskControllerBenchmark {
+    private static final String[] WORDS = {
+        "review", "invoice", "call", "client", "deploy", "write", "report", "fix", "bug", "meeting"
+    };
+
+    @Param({"1000", "100000", "1000000"})
+    private int tasks;
+
+    private TaskController taskController;
+    private TaskValidator taskValidator;
+    private ObjectMapper objectMapper;
+    private Task sampleTask;
+    private TaskPage samplePage;
+    private String fullTaskJson;
+    private String[] patchJson;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryTaskRepository taskRepository = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        TaskService taskService = new TaskService(taskRepository, new TaskChangeFeed(4096), Metrics.globalRegistry,
+                new TaskQueryCache(0, 0, Metrics.globalRegistry), null);
+        taskValidator = new TaskValidator();
+        taskController = new TaskController(taskRepository, taskService, taskValidator);
+        loadTasks(taskRepository, tasks);
+
+        // Configured like the ObjectMapper of Spring Boot.
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        sampleTask = taskRepository.findById(1);
+        samplePage = taskService.getTasks(new TaskQuery("", 0, null, null, null, 1, 10, null), null);
+        try {
+            // A client changing the priority sends the whole task with PUT, or only the priority with PATCH.
+            Task fullTask = new Task(sampleTask);
+            fullTask.setDueDate(LocalDateTime.now().plusDays(5));
+            fullTaskJson = objectMapper.writeValueAsString(fullTask);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        patchJson = new String[] {"{\"priority\": 1}", "{\"priority\": 2}", "{\"priority\": 3}"};
+    }
+
+    /**
+     * This state holds one combination of filters and sorting of the listing.
+     */
+    @State(Scope.Benchmark)
+    public static class Listing {
+        @Param({"none", "name", "priority", "isDone", "all"})
+        private String filter;
+
+        @Param({"none", "dueDate", "priority", "both"})
+        private String sort;
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getTasks(Listing listing) {
+        boolean byName = listing.filter.equals("name") || listing.filter.equals("all");
+        boolean byPriority = listing.filter.equals("priority") || listing.filter.equals("all");
+        boolean byStatus = listing.filter.equals("isDone") || listing.filter.equals("all");
+        boolean sortByDueDate = listing.sort.equals("dueDate") || listing.sort.equals("both");
+        boolean sortByPriority = listing.sort.equals("priority") || listing.sort.equals("both");
+        return taskController.getTasks(
+                byName ? "invoice" : "",
+                byPriority ? 2 : 0,
+                byStatus ? Boolean.FALSE : null,
+                sortByDueDate ? "asc" : null,
+                sortByPriority ? "desc" : null,
+                1, 10, null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> createTask() {
+        return taskController.createTask(new Task("Write the report", LocalDateTime.now().plusDays(3), 2, null), null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> updateTask() {
+        int id = 1 + ThreadLocalRandom.current().nextInt(tasks);
+        return taskController.updateTask(id, new Task("Review the invoice", LocalDateTime.now().plusDays(5), 3, null), null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> putTaskFromJson() throws JsonProcessingException {
+        int id = 1 + ThreadLocalRandom.current().nextInt(tasks);
+        return taskController.updateTask(id, objectMapper.readValue(fullTaskJson, Task.class), null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> patchTaskFromJson() throws JsonProcessingException {
+        int id = 1 + ThreadLocalRandom.current().nextInt(tasks);
+        String patch = patchJson[ThreadLocalRandom.current().nextInt(patchJson.length)];
+        return taskController.patchTask(id, objectMapper.readTree(patch), null, null, null);
+    }
+
+    @Benchmark
+    public String validateInvalidTask() {
+        return taskValidator.validate(new Task("", null, 7, null));
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> getAverageTime() {
+        return taskController.getAverageTime(null);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(sampleTask);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(samplePage);
+    }
+
+    /**
+     * This method fills the repository with tasks of random names, priorities
+     * and due dates, a third of them done.
+     */
+    static void loadTasks(InMemoryTaskRepository taskRepository, int count) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        String[] priorityNames = {"Low", "Medium", "High"};
+        for (int i = 0; i < count; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1000);
+            LocalDateTime dueDate = random.nextInt(10) == 0 ? null : now.plusMinutes(random.nextInt(525600));
+            int priority = 1 + random.nextInt(3);
+            Task task = taskRepository.save(new Task(name, dueDate, priority, priorityNames[priority - 1]));
+            if (i % 3 == 0) {
+                int minutes = 1 + random.nextInt(10000);
+                taskRepository.update(task.getId(), taskToUpdate -> {
+                    taskToUpdate.setIsDone(true);
+                    taskToUpdate.setDoneDate(taskToUpdate.getCreatedDate().plusMinutes(minutes));
+                    return taskToUpdate;
+                });
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskControllerBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,61 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+
+/**
+ * This benchmark measures the throughput of the task id generator when many
+ * threads allocate ids at the same time.
+ * Run it with the main method, which repeats it for 1 to 64 threads.
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskIdGeneratorBenchmark {
+    @Param({"1", "64", "1024"})
+    private int blockSize;
+
+    private TaskIdGenerator idGenerator;
+
+    // A fresh generator per iteration keeps the ids inside the int range.
+    @Setup(Level.Iteration)
+    public void setUp() {
+        idGenerator = new TaskIdGenerator(blockSize);
+    }
+
+    @Benchmark
+    public int nextId() {
+        return idGenerator.nextId();
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32, 64}) {
+            Options options = new OptionsBuilder()
+                    .include(TaskIdGeneratorBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+
+/**
+ * This benchmark compares the old name filter, which lowercases every task
+ * name on every request, with the trigram name index of the repository.
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskNameSearchBenchmark {
+    private static final String[] WORDS = {
+        "review", "invoice", "call", "client", "deploy", "write", "report", "fix", "bug", "meeting",
+        "plan", "sprint", "email", "budget", "update", "docs", "test", "release", "design", "backup"
+    };
+
+    @Param({"10000", "100000", "1000000"})
+    private int tasks;
+
+    @Param({"invoice", "bug 42", "42"})
+    private String query;
+
+    private InMemoryTaskRepository taskRepository;
+
+    @Setup
+    public void setUp() {
+        taskRepository = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        Random random = new Random(42);
+        for (int i = 0; i < tasks; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + random.nextInt(1000);
+            taskRepository.save(new Task(name, null, 1 + random.nextInt(3), "Low"));
+        }
+    }
+
+    @Benchmark
+    public List<Task> scan() {
+        ArrayList<Task> taskList = new ArrayList<>(taskRepository.findAll());
+        taskList.removeIf(task -> !task.getName().toLowerCase().contains(query.toLowerCase()));
+        return taskList;
+    }
+
+    @Benchmark
+    public List<Task> index() {
+        return taskRepository.findByNameAndPriorityAndIsDone(query, 0, null);
+    }
+}
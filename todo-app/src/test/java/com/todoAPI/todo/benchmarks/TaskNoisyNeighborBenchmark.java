@@ -0,0 +1,133 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.PartitionedTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskService;
+
+/**
+ * This benchmark shows how much a heavy owner slows down the listing of a
+ * light one. The heavy owner has a large number of tasks and keeps updating
+ * them, while the light owner, with 1000 tasks, lists its first page sorted
+ * by due date. With the shared store every listing walks the tasks of both
+ * owners. With the partitioned store it only walks the partition of the
+ * light owner.
+ * The "alone" benchmark lists without the heavy owner writing, and the
+ * "neighbors" group runs the listing and the writes at the same time. The
+ * query cache is left out, so every listing is computed.
+ *   mvn -Pbenchmarks test -Djmh.include=TaskNoisyNeighborBenchmark
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskNoisyNeighborBenchmark {
+    private static final String HEAVY = "heavy";
+    private static final String LIGHT = "light";
+    private static final int LIGHT_TASKS = 1000;
+
+    @Param({"shared", "partitioned"})
+    private String store;
+
+    @Param({"1000000"})
+    private int heavyTasks;
+
+    private TaskRepository heavyPartition;
+    private TaskService taskService;
+    private TaskQuery lightQuery;
+    private int firstHeavyId;
+    private LocalDateTime now;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TaskRepository taskRepository = store.equals("shared") ?
+                new InMemoryTaskRepository(new TaskIdGenerator(1)) :
+                new PartitionedTaskRepository(new TaskIdGenerator(1), 8);
+        String heavyOwner = taskRepository.isPartitioned() ? HEAVY : null;
+        String lightOwner = taskRepository.isPartitioned() ? LIGHT : null;
+        heavyPartition = taskRepository.partition(heavyOwner);
+
+        now = LocalDateTime.now();
+        Random random = new Random(42);
+        firstHeavyId = load(heavyPartition, heavyOwner, heavyTasks, random);
+        load(taskRepository.partition(lightOwner), lightOwner, LIGHT_TASKS, random);
+        taskService = new TaskService(taskRepository);
+        lightQuery = new TaskQuery("", 0, null, "asc", null, 1, 10, null, lightOwner);
+    }
+
+    @Benchmark
+    public TaskPage alone() {
+        return taskService.getTasks(lightQuery, null);
+    }
+
+    @Benchmark
+    @Group("neighbors")
+    @GroupThreads(1)
+    public TaskPage lightListing() {
+        return taskService.getTasks(lightQuery, null);
+    }
+
+    @Benchmark
+    @Group("neighbors")
+    @GroupThreads(1)
+    public Task heavyWrites() {
+        int id = firstHeavyId + ThreadLocalRandom.current().nextInt(heavyTasks);
+        int minutes = ThreadLocalRandom.current().nextInt(525600);
+        return heavyPartition.update(id, taskToUpdate -> {
+            taskToUpdate.setDueDate(now.plusMinutes(minutes));
+            return taskToUpdate;
+        });
+    }
+
+    // Returns the id of the first task.
+    private static int load(TaskRepository partition, String owner, int count, Random random) {
+        int firstId = 0;
+        for (int i = 0; i < count; i++) {
+            Task task = new Task("Tarea " + random.nextInt(1000), LocalDateTime.now().plusMinutes(random.nextInt(525600)), 1 + random.nextInt(3), null);
+            task.setOwner(owner);
+            int id = partition.save(task).getId();
+            if (i == 0) firstId = id;
+        }
+        return firstId;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskNoisyNeighborBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
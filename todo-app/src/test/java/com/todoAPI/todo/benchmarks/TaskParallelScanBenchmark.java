@@ -0,0 +1,90 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.services.ParallelTaskScan;
+import com.todoAPI.todo.services.TaskQueryCache;
+import com.todoAPI.todo.services.TaskService;
+
+/**
+ * This benchmark measures how the listing scales with the threads of the
+ * parallel scan, on a store of a million tasks. With one thread the scan
+ * runs on the calling thread, as below the threshold. The speedup is bound
+ * by the processors of the machine, so run it on one with at least 16:
+ *   mvn -Pbenchmarks test -Djmh.include=TaskParallelScanBenchmark
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskParallelScanBenchmark {
+
+    @Param({"1000000"})
+    private int tasks;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private int parallelism;
+
+    @Param({"none", "isDone"})
+    private String filter;
+
+    private ParallelTaskScan parallelScan;
+    private TaskService taskService;
+    private TaskQuery query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryTaskRepository taskRepository = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        TaskControllerBenchmark.loadTasks(taskRepository, tasks);
+        parallelScan = new ParallelTaskScan(parallelism, 0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        taskService = new TaskService(taskRepository, meterRegistry, new TaskQueryCache(0, 0, meterRegistry), parallelScan);
+        query = new TaskQuery("", 0, filter.equals("isDone") ? Boolean.FALSE : null, "asc", "desc", 1, 10, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        parallelScan.close();
+    }
+
+    @Benchmark
+    public TaskPage getTasks() {
+        return taskService.getTasks(query, null);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskParallelScanBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.services.TaskService;
+
+/**
+ * This benchmark compares the listing of the query plans, one pass over the
+ * matching tasks ordered by a shared comparator, with the previous pipeline,
+ * which collected the matching tasks in a list and chained new comparators
+ * for every request. Run it with the GC profiler to compare the bytes
+ * allocated per listing (gc.alloc.rate.norm):
+ *   mvn -Pbenchmarks test -Djmh.include=TaskQueryPlanBenchmark -Djmh.args="-prof gc"
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskQueryPlanBenchmark {
+
+    @Param({"100000"})
+    private int tasks;
+
+    @Param({"none", "isDone", "name"})
+    private String filter;
+
+    @Param({"dueDate", "both"})
+    private String sort;
+
+    private InMemoryTaskRepository taskRepository;
+    private TaskService taskService;
+    private TaskQuery query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskRepository = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        // Built without the query cache, so every call runs the query.
+        taskService = new TaskService(taskRepository);
+        TaskControllerBenchmark.loadTasks(taskRepository, tasks);
+        query = new TaskQuery(filter.equals("name") ? "invoice" : "", 0, filter.equals("isDone") ? Boolean.FALSE : null,
+                "asc", sort.equals("both") ? "desc" : null, 1, 10, null);
+    }
+
+    @Benchmark
+    public TaskPage planned() {
+        return taskService.getTasks(query, null);
+    }
+
+    @Benchmark
+    public TaskPage materialized() {
+        Comparator<Task> comparator = comparatorFor(query);
+        List<Task> taskList = taskRepository.findByNameAndPriorityAndIsDone(query.getName(), query.getPriority(), query.getIsDone());
+        PriorityQueue<Task> heap = new PriorityQueue<>(Math.min(query.getSize(), taskList.size()) + 1, comparator.reversed());
+        for (Task task : taskList) {
+            heap.offer(task);
+            if (heap.size() > query.getSize()) heap.poll();
+        }
+        ArrayList<Task> selected = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) selected.add(heap.poll());
+        Collections.reverse(selected);
+        return new TaskPage(taskList.size(), selected, null);
+    }
+
+    // The comparator as it was built for every request before the query plans.
+    private static Comparator<Task> comparatorFor(TaskQuery query) {
+        Comparator<Task> comparator = (task1, task2) -> 0;
+        if (query.getSortByPriority() != null) {
+            Comparator<Task> byPriority = Comparator.comparingInt(Task::getPriority);
+            comparator = comparator.thenComparing(query.getSortByPriority().equals("desc") ? byPriority.reversed() : byPriority);
+        }
+        if (query.getSortByDueDate() != null) {
+            Comparator<LocalDateTime> byDate = query.getSortByDueDate().equals("desc") ?
+                    Comparator.reverseOrder() :
+                    Comparator.naturalOrder();
+            comparator = comparator.thenComparing(Task::getDueDate, Comparator.nullsLast(byDate));
+        }
+        return comparator.thenComparingInt(Task::getId);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskQueryPlanBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,120 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+import com.todoAPI.todo.TodoApplication;
+
+/**
+ * This load test compares the blocking v1 endpoints with the reactive v2
+ * endpoints at growing connection counts: creating a task, reading a task
+ * and listing the tasks that match a filter (a page of 100 in v1, the
+ * streamed NDJSON result in v2). It prints the throughput and the p50 and p99
+ * latency of every endpoint, API and connection count.
+ * Run it with the main method; the arguments are the number of stored tasks
+ * and the seconds per measurement (defaults: 100000 and 10). Pass
+ * --todo.threads.virtual=true after them to compare in the virtual thread mode.
+ * @version: 1.0
+ */
+public class TaskReactiveLoadBenchmark {
+    private static final int[] CONNECTIONS = {100, 500, 2000};
+    private static final String[] WORDS = {"review", "invoice", "call", "client", "deploy", "write", "report", "fix", "bug", "meeting"};
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        List<String> applicationArgs = new ArrayList<>(List.of("--server.port=0", "--server.tomcat.max-connections=10000"));
+        if (args.length > 2) applicationArgs.addAll(Arrays.asList(args).subList(2, args.length));
+
+        ConfigurableApplicationContext context = SpringApplication.run(TodoApplication.class, applicationArgs.toArray(new String[0]));
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/";
+        HttpClient client = HttpClient.newHttpClient();
+        try {
+            load(client, baseUrl, tasks);
+            for (String version : new String[] {"v1", "v2"}) {
+                IntFunction<HttpRequest> create = i -> HttpRequest.newBuilder(URI.create(baseUrl + version + "/todo/task"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Tarea de carga\",\"priority\":2}"))
+                        .build();
+                IntFunction<HttpRequest> read = i -> HttpRequest.newBuilder(URI.create(baseUrl + version + "/todo/task/" + (1 + i % tasks))).build();
+                IntFunction<HttpRequest> list = i -> HttpRequest.newBuilder(URI.create(baseUrl + version + "/todo/task?name=invoice+bug+" + (i % 1000)
+                        + (version.equals("v1") ? "&size=100" : "")))
+                        .header("Accept", version.equals("v1") ? "application/json" : "application/x-ndjson")
+                        .build();
+
+                // Warm up the endpoints before measuring.
+                run(client, read, 50, 3);
+                for (int connections : CONNECTIONS) {
+                    report(version, "create", connections, seconds, run(client, create, connections, seconds));
+                    report(version, "read", connections, seconds, run(client, read, connections, seconds));
+                    report(version, "list", connections, seconds, run(client, list, connections, seconds));
+                }
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void load(HttpClient client, String baseUrl, int tasks) throws Exception {
+        for (int start = 0; start < tasks; start += 10000) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < Math.min(tasks, start + 10000); i++) {
+                String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + (i % 1000);
+                body.append(i == start ? "" : ",").append("{\"name\":\"").append(name).append("\",\"priority\":").append(1 + i % 3).append("}");
+            }
+            client.send(HttpRequest.newBuilder(URI.create(baseUrl + "v1/todo/task/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.append("]").toString()))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    /**
+     * This method keeps the given number of requests in flight for the given
+     * time and returns the latency of every completed request in nanoseconds.
+     */
+    private static long[] run(HttpClient client, IntFunction<HttpRequest> requests, int connections, int seconds) {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<CompletableFuture<List<Long>>> users = new ArrayList<>();
+        for (int i = 0; i < connections; i++) users.add(loop(client, requests, i, deadline, new ArrayList<>()));
+
+        ArrayList<Long> latencies = new ArrayList<>();
+        for (CompletableFuture<List<Long>> user : users) latencies.addAll(user.join());
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    // Each connection sends its next request as soon as the previous response is read.
+    private static CompletableFuture<List<Long>> loop(HttpClient client, IntFunction<HttpRequest> requests, int sequence,
+            long deadline, List<Long> latencies) {
+        if (System.nanoTime() > deadline) return CompletableFuture.completedFuture(latencies);
+        long start = System.nanoTime();
+        return client.sendAsync(requests.apply(sequence), HttpResponse.BodyHandlers.discarding())
+                .thenCompose(response -> {
+                    latencies.add(System.nanoTime() - start);
+                    return loop(client, requests, sequence + CONNECTIONS.length * 1000, deadline, latencies);
+                });
+    }
+
+    private static void report(String version, String endpoint, int connections, int seconds, long[] latencies) {
+        System.out.printf("api=%s endpoint=%s connections=%d throughput=%.0f req/s p50=%.1fms p99=%.1fms%n",
+                version, endpoint, connections, latencies.length / (double) seconds,
+                percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,108 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.services.TaskChangeFeed;
+import com.todoAPI.todo.services.TaskReminderScheduler;
+
+/**
+ * This benchmark measures the reminder scheduler with millions of scheduled
+ * due dates, spread over a year: rescheduling a task, a tick of the wheel
+ * and the first page of the overdue tasks, compared with finding the
+ * overdue tasks by scanning the store. The scheduler is moved forward by the
+ * benchmark instead of its background thread.
+ *   mvn -Pbenchmarks test -Djmh.include=TaskReminderBenchmark
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskReminderBenchmark {
+    private static final long TICK_MILLIS = 1000;
+
+    @Param({"1000000", "3000000"})
+    private int tasks;
+
+    private InMemoryTaskRepository taskRepository;
+    private TaskReminderScheduler scheduler;
+    private LocalDateTime now;
+    private long nowMillis;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        taskRepository = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        TaskControllerBenchmark.loadTasks(taskRepository, tasks);
+        scheduler = new TaskReminderScheduler(taskRepository, new TaskChangeFeed(4096), TICK_MILLIS);
+        // A month later, so some tasks are overdue.
+        nowMillis = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30);
+        now = LocalDateTime.now().plusDays(30);
+        scheduler.advance(nowMillis);
+    }
+
+    @Benchmark
+    public Task reschedule() {
+        int id = 1 + ThreadLocalRandom.current().nextInt(tasks);
+        int minutes = ThreadLocalRandom.current().nextInt(525600);
+        return taskRepository.update(id, taskToUpdate -> {
+            taskToUpdate.setDueDate(now.plusMinutes(minutes));
+            return taskToUpdate;
+        });
+    }
+
+    @Benchmark
+    public int tick() {
+        nowMillis += TICK_MILLIS;
+        return scheduler.advance(nowMillis);
+    }
+
+    @Benchmark
+    public TaskPage overduePage() {
+        return scheduler.getOverdueTasks(null, 1, 10);
+    }
+
+    @Benchmark
+    public List<Task> overdueScan() {
+        List<Task> overdue = new ArrayList<>();
+        taskRepository.forEachMatching("", 0, false, task -> {
+            if (task.getDueDate() != null && task.getDueDate().isBefore(now)) overdue.add(task);
+        });
+        return overdue;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskReminderBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
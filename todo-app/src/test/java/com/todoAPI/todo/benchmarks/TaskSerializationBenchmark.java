@@ -0,0 +1,102 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskJsonSerializer;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.services.TaskService;
+
+/**
+ * This benchmark compares the serialization of tasks by the bean serializer
+ * of Jackson, as before, with the TaskJsonSerializer, for a single task and
+ * for a page of 10000 tasks. Both write to a reused output stream, as the
+ * converter of Spring writes to the response. Run it with the GC profiler
+ * to compare the bytes allocated per response (gc.alloc.rate.norm):
+ *   mvn -Pbenchmarks test -Djmh.include=TaskSerializationBenchmark -Djmh.args="-prof gc"
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TaskSerializationBenchmark {
+
+    @Param({"reflective", "custom"})
+    private String serializer;
+
+    private ObjectWriter writer;
+    private Task task;
+    private TaskPage page;
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream(1 << 22);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Configured like the ObjectMapper of Spring Boot.
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (serializer.equals("custom")) objectMapper.registerModule(new SimpleModule().addSerializer(Task.class, new TaskJsonSerializer()));
+        writer = objectMapper.writer();
+
+        InMemoryTaskRepository taskRepository = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        TaskControllerBenchmark.loadTasks(taskRepository, 10000);
+        task = taskRepository.findById(1);
+        page = new TaskService(taskRepository).getTasks(new TaskQuery("", 0, null, "asc", null, 1, 10000, null), null);
+    }
+
+    @Benchmark
+    public int serializeTask() throws IOException {
+        output.reset();
+        writer.writeValue(output, task);
+        return output.size();
+    }
+
+    @Benchmark
+    public int serializePage() throws IOException {
+        output.reset();
+        writer.writeValue(output, page);
+        return output.size();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
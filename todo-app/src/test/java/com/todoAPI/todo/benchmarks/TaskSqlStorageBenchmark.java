@@ -0,0 +1,153 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.results.format.ResultFormatType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.todoAPI.todo.models.CompletionTimeSummary;
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.models.TaskPage;
+import com.todoAPI.todo.models.TaskQuery;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.SqlTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.TaskRepository;
+import com.todoAPI.todo.services.TaskService;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * This benchmark compares the SQL storage, an H2 file behind a connection
+ * pool, with the in-memory store. It measures a filtered page sorted by due
+ * date, which the database computes with its indexes and the service
+ * computes with a pass over the matching tasks, a page sorted over every
+ * task, a page filtered by a part of the name, which the database finds
+ * through the trigrams of the names, the completion time summaries, and the
+ * insert of a batch of 100 tasks. The query cache is left out, so every listing is computed.
+ *   mvn -Pbenchmarks test -Djmh.include=TaskSqlStorageBenchmark
+ * @version: 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskSqlStorageBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"heap", "sql"})
+    private String store;
+
+    @Param({"100000"})
+    private int tasks;
+
+    private Path directory;
+    private HikariDataSource dataSource;
+    private TaskRepository taskRepository;
+    private TaskService taskService;
+    private TaskQuery filteredQuery;
+    private TaskQuery sortedQuery;
+    private TaskQuery namedQuery;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (store.equals("sql")) {
+            directory = Files.createTempDirectory("tasks-benchmark");
+            dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:file:" + directory.resolve("tasks").toAbsolutePath());
+            taskRepository = new SqlTaskRepository(new TaskIdGenerator(1), dataSource);
+        } else {
+            taskRepository = new InMemoryTaskRepository(new TaskIdGenerator(1));
+        }
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        for (int loaded = 0; loaded < tasks; loaded += 1000) {
+            ArrayList<Task> batch = new ArrayList<>(1000);
+            for (int i = 0; i < 1000; i++) {
+                Task task = new Task("Tarea " + random.nextInt(1000), now.plusMinutes(random.nextInt(525600)), 1 + random.nextInt(3), "Medium");
+                if (random.nextInt(4) == 0) {
+                    task.setIsDone(true);
+                    task.setDoneDate(task.getCreatedDate().plusMinutes(random.nextInt(10000)));
+                }
+                batch.add(task);
+            }
+            taskRepository.saveAll(batch);
+        }
+        taskService = new TaskService(taskRepository);
+        filteredQuery = new TaskQuery("", 2, false, "asc", null, 3, 20, null);
+        sortedQuery = new TaskQuery("", 0, null, "desc", "asc", 1, 20, null);
+        namedQuery = new TaskQuery("tarea 427", 0, null, null, "asc", 1, 20, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (dataSource == null) return;
+        dataSource.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public TaskPage filteredPage() {
+        return taskService.getTasks(filteredQuery, null);
+    }
+
+    @Benchmark
+    public TaskPage sortedPage() {
+        return taskService.getTasks(sortedQuery, null);
+    }
+
+    @Benchmark
+    public TaskPage namedPage() {
+        return taskService.getTasks(namedQuery, null);
+    }
+
+    @Benchmark
+    public Map<String, CompletionTimeSummary> completionTimes() {
+        return taskRepository.getCompletionTimes();
+    }
+
+    @Benchmark
+    public List<Task> batchInsert() {
+        ArrayList<Task> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) batch.add(new Task("Tarea nueva " + i, null, 1, "Low"));
+        return taskRepository.saveAll(batch);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskSqlStorageBenchmark.class.getSimpleName())
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
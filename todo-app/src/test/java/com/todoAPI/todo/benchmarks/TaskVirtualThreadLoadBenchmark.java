@@ -0,0 +1,104 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.todoAPI.todo.TodoApplication;
+
+/**
+ * This load test compares the platform thread pool of Tomcat with the virtual
+ * thread mode when requests block on I/O. It starts the application with the
+ * write-ahead log enabled and an fsync interval, so every create waits for a
+ * group commit, and keeps a growing number of connections busy creating
+ * tasks, with an export every 100 requests. It prints the throughput and the
+ * p50 and p99 latency of every level.
+ * Run it with the main method; the arguments are the thread mode (platform
+ * or virtual, which needs Java 21), the seconds per level and the fsync
+ * interval in milliseconds (defaults: platform, 10 and 5).
+ * @version: 1.0
+ */
+public class TaskVirtualThreadLoadBenchmark {
+    private static final String TASK = "{\"name\":\"Tarea de carga\",\"priority\":2}";
+    private static final int[] CONNECTIONS = {50, 200, 800, 2000};
+
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "platform";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int fsyncIntervalMillis = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        Path directory = Files.createTempDirectory("task-load");
+        ConfigurableApplicationContext context = SpringApplication.run(TodoApplication.class,
+                "--server.port=0",
+                "--server.tomcat.max-connections=10000",
+                "--todo.threads.virtual=" + mode.equals("virtual"),
+                "--todo.persistence.directory=" + directory,
+                "--todo.persistence.fsync-interval-ms=" + fsyncIntervalMillis);
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/todo";
+        HttpClient client = HttpClient.newHttpClient();
+        try {
+            // Warm up the endpoints before measuring.
+            run(client, baseUrl, 50, 3);
+            for (int connections : CONNECTIONS) {
+                long[] latencies = run(client, baseUrl, connections, seconds);
+                Arrays.sort(latencies);
+                System.out.printf("mode=%s connections=%d requests=%d throughput=%.0f req/s p50=%.1fms p99=%.1fms%n",
+                        mode, connections, latencies.length, latencies.length / (double) seconds,
+                        percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * This method keeps the given number of requests in flight for the given
+     * time and returns the latency of every completed request in nanoseconds.
+     */
+    private static long[] run(HttpClient client, String baseUrl, int connections, int seconds) {
+        HttpRequest create = HttpRequest.newBuilder(URI.create(baseUrl + "/task"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(TASK))
+                .build();
+        HttpRequest export = HttpRequest.newBuilder(URI.create(baseUrl + "/task/export")).build();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        AtomicInteger sent = new AtomicInteger();
+
+        List<CompletableFuture<List<Long>>> users = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            users.add(loop(client, create, export, deadline, sent, new ArrayList<>()));
+        }
+        ArrayList<Long> latencies = new ArrayList<>();
+        for (CompletableFuture<List<Long>> user : users) latencies.addAll(user.join());
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Each connection sends its next request as soon as the previous one completes.
+    private static CompletableFuture<List<Long>> loop(HttpClient client, HttpRequest create, HttpRequest export,
+            long deadline, AtomicInteger sent, List<Long> latencies) {
+        if (System.nanoTime() > deadline) return CompletableFuture.completedFuture(latencies);
+        HttpRequest request = sent.incrementAndGet() % 100 == 0 ? export : create;
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenCompose(response -> {
+                    latencies.add(System.nanoTime() - start);
+                    return loop(client, create, export, deadline, sent, latencies);
+                });
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,141 @@
+package com.todoAPI.todo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.todoAPI.todo.models.Task;
+import com.todoAPI.todo.repositories.InMemoryTaskRepository;
+import com.todoAPI.todo.repositories.TaskIdGenerator;
+import com.todoAPI.todo.repositories.WriteAheadTaskLog;
+
+/**
+ * This benchmark measures the write-ahead log of the repository: the
+ * throughput of durable changes for several fsync intervals, and the time to
+ * recover the tasks after 1,000,000 changes with and without snapshots.
+ * Run it with the main method.
+ * @version: 1.0
+ */
+public class TaskWriteAheadLogBenchmark {
+    private static final int RECOVERY_MUTATIONS = 1_000_000;
+    private static final int RECOVERY_TASKS = 100_000;
+
+    @State(Scope.Benchmark)
+    public static class Writes {
+        @Param({"0", "1", "5"})
+        private long fsyncIntervalMillis;
+
+        @Param({"true", "false"})
+        private boolean waitForFsync;
+
+        private Path directory;
+        private WriteAheadTaskLog log;
+        private InMemoryTaskRepository repository;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("task-log-writes");
+            log = new WriteAheadTaskLog(directory, fsyncIntervalMillis, waitForFsync, 1_000_000, Thread::new);
+            repository = new InMemoryTaskRepository(new TaskIdGenerator(64), log);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws IOException {
+            log.close();
+            delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Recovery {
+        // Without snapshots recovery replays every change; with them only the live tasks and the last segment.
+        @Param({"0", "100000"})
+        private long snapshotEveryRecords;
+
+        private Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("task-log-recovery");
+            long every = snapshotEveryRecords == 0 ? Long.MAX_VALUE : snapshotEveryRecords;
+            WriteAheadTaskLog log = new WriteAheadTaskLog(directory, 0, false, every, Thread::new);
+            InMemoryTaskRepository repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+            for (int i = 0; i < RECOVERY_TASKS; i++) {
+                repository.save(new Task("Tarea " + i, LocalDateTime.now().plusDays(i % 365), 1 + i % 3, "Low"));
+            }
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = RECOVERY_TASKS; i < RECOVERY_MUTATIONS; i++) {
+                repository.update(1 + random.nextInt(RECOVERY_TASKS), task -> {
+                    task.setDueDate(task.getDueDate().plusMinutes(1));
+                    return task;
+                });
+            }
+            log.close();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            delete(directory);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Warmup(iterations = 2, time = 2)
+    @Measurement(iterations = 3, time = 3)
+    @Threads(16)
+    @Fork(1)
+    public Task save(Writes state) {
+        return state.repository.save(new Task("Tarea", null, 2, "Medium"));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 5)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+    public int recover(Recovery state) throws IOException {
+        WriteAheadTaskLog log = new WriteAheadTaskLog(state.directory, 0, true, Long.MAX_VALUE, Thread::new);
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(new TaskIdGenerator(1), log);
+        log.close();
+        return repository.count();
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(TaskWriteAheadLogBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}